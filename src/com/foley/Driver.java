@@ -1,6 +1,8 @@
 package com.foley;
 
 import com.foley.core.Game;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
 
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
@@ -12,6 +14,8 @@ import javax.swing.UnsupportedLookAndFeelException;
  * @version 10 Oct 2020
  */
 public class Driver {
+    private static final LogSite NO_LOOK_AND_FEEL = new LogSite(Level.INFO, "Could not set the system default look and feel. Continuing with java default");
+
     /**
      * Main entry-point for the program
      *
@@ -21,7 +25,7 @@ public class Driver {
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch(ClassNotFoundException | InstantiationException | IllegalAccessException | UnsupportedLookAndFeelException | ClassCastException e) {
-            System.out.println("INFORMATIONAL: Could not set the system default look and feel. Continuing with java default");
+            NO_LOOK_AND_FEEL.log();
         }
         Game g = new HelloGame();
         g.start();
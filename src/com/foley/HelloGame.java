@@ -1,7 +1,6 @@
 package com.foley;
 
 import com.foley.core.AbstractGame;
-import com.foley.input.Input;
 
 import java.awt.Color;
 
@@ -16,6 +15,11 @@ public class HelloGame extends AbstractGame {
     private String message = "Hello, World!";
     private int x = 0;
     private int y = 0;
+    private int quit;
+    private int up;
+    private int left;
+    private int down;
+    private int right;
 
     @Override
     /**
@@ -25,6 +29,11 @@ public class HelloGame extends AbstractGame {
         super.initialize();
 
         // Game specific initialization code
+        quit = actions.getAction("quit");
+        up = actions.getAction("up");
+        left = actions.getAction("left");
+        down = actions.getAction("down");
+        right = actions.getAction("right");
     }
 
     @Override
@@ -42,19 +51,19 @@ public class HelloGame extends AbstractGame {
      * Checks the input for the game
      */
     public void checkInput() {
-        if(input.wasKeyPressed(Input.Keys.ESCAPE)) {
+        if(actions.wasTriggered(quit)) {
             stop();
         }
-        if(input.isKeyPressed(Input.Keys.W)) {
+        if(actions.isActive(up)) {
             y -= 5;
         }
-        if(input.isKeyPressed(Input.Keys.A)) {
+        if(actions.isActive(left)) {
             x -= 5;
         }
-        if(input.isKeyPressed(Input.Keys.S)) {
+        if(actions.isActive(down)) {
             y += 5;
         }
-        if(input.isKeyPressed(Input.Keys.D)) {
+        if(actions.isActive(right)) {
             x += 5;
         }
     }
@@ -0,0 +1,199 @@
+package com.foley.asset;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A read only archive of pre-decoded images built by the AssetPacker. The pack file is memory mapped, so creating an
+ * image is a copy out of the mapping rather than a decode
+ *
+ * Layout, all values big endian:
+ *   header: magic, version, entry count
+ *   entry:  name length (short), name (UTF-8), width, height, flags, data offset (long), stored length
+ *   data:   ARGB pixels row by row, LZ4 block compressed when the entry is flagged as compressed
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class AssetPack implements Closeable {
+    static final int MAGIC = 0x4650414B;
+    static final int VERSION = 1;
+    static final int FLAG_COMPRESSED = 1;
+    static final int FLAG_OPAQUE = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final Map<String, Entry> entries;
+    private byte[] scratch = new byte[0];
+    private byte[] unpacked = new byte[0];
+
+    /**
+     * The location of a single image in the pack
+     */
+    private static class Entry {
+        final int width;
+        final int height;
+        final int flags;
+        final int offset;
+        final int length;
+
+        /**
+         * Creates a new entry
+         */
+        Entry(int width, int height, int flags, int offset, int length) {
+            this.width = width;
+            this.height = height;
+            this.flags = flags;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Opens a pack
+     *
+     * @param channel the open channel of the pack file
+     * @throws IOException if the file cannot be mapped or is not a valid pack
+     */
+    private AssetPack(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if(size > Integer.MAX_VALUE) {
+            throw new IOException("Asset pack is larger than 2GB");
+        }
+        data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        // Read the index
+        if(size < 12 || data.getInt(0) != MAGIC) {
+            throw new IOException("Not an asset pack");
+        }
+        if(data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported asset pack version " + data.getInt(4));
+        }
+        int count = data.getInt(8);
+        entries = new HashMap<>(count * 2);
+        ByteBuffer index = data.duplicate();
+        index.position(12);
+        byte[] name = new byte[256];
+        for(int i = 0; i < count; i++) {
+            int nameLength = index.getShort() & 0xFFFF;
+            if(nameLength > name.length) {
+                name = new byte[nameLength];
+            }
+            index.get(name, 0, nameLength);
+            int width = index.getInt();
+            int height = index.getInt();
+            int flags = index.getInt();
+            long offset = index.getLong();
+            int length = index.getInt();
+            if(offset < 0 || offset + length > size) {
+                throw new IOException("Asset pack entry lies outside the file");
+            }
+            entries.put(new String(name, 0, nameLength, StandardCharsets.UTF_8), new Entry(width, height, flags, (int)offset, length));
+        }
+    }
+
+    /**
+     * Opens a pack file
+     *
+     * @param path the path of the pack
+     * @return the opened pack
+     * @throws IOException if the file cannot be read or is not a valid pack
+     */
+    public static AssetPack open(String path) throws IOException {
+        return open(Paths.get(path));
+    }
+
+    /**
+     * Opens a pack file
+     *
+     * @param path the path of the pack
+     * @return the opened pack
+     * @throws IOException if the file cannot be read or is not a valid pack
+     */
+    public static AssetPack open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new AssetPack(channel);
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Determines if the pack holds an image
+     *
+     * @param name the resource path of the image, such as "images/icons/Boomer.png"
+     * @return true if the image is in the pack
+     */
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Gets the number of images in the pack
+     *
+     * @return the number of images in the pack
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Creates an image from the pack. Each call creates a new image, so callers should keep the result rather than
+     * ask again
+     *
+     * @param name the resource path of the image, such as "images/icons/Boomer.png"
+     * @return the image, or null if the pack does not hold it
+     */
+    public BufferedImage getImage(String name) {
+        Entry e = entries.get(name);
+        if(e == null) {
+            return null;
+        }
+        int type = (e.flags & FLAG_OPAQUE) != 0 ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage img = new BufferedImage(e.width, e.height, type);
+        int[] pixels = ((DataBufferInt)img.getRaster().getDataBuffer()).getData();
+        int rawLength = pixels.length * 4;
+
+        synchronized(this) {
+            if((e.flags & FLAG_COMPRESSED) == 0) {
+                ByteBuffer src = data.duplicate();
+                src.position(e.offset).limit(e.offset + rawLength);
+                src.asIntBuffer().get(pixels);
+            } else {
+                // Copy the compressed bytes out of the mapping, then unpack them
+                if(scratch.length < e.length) {
+                    scratch = new byte[e.length];
+                }
+                if(unpacked.length < rawLength) {
+                    unpacked = new byte[rawLength];
+                }
+                data.get(e.offset, scratch, 0, e.length);
+                LZ4.decompress(scratch, 0, e.length, unpacked, rawLength);
+                ByteBuffer.wrap(unpacked, 0, rawLength).asIntBuffer().get(pixels);
+            }
+        }
+        return img;
+    }
+
+    @Override
+    /**
+     * Closes the pack. Images already created remain valid
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+}
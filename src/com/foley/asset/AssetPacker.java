@@ -0,0 +1,164 @@
+package com.foley.asset;
+
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+/**
+ * Builds an asset pack from the images under a resource folder. Run as part of the build:
+ *
+ *   java com.foley.asset.AssetPacker res res/assets.pak [--compress]
+ *
+ * Every image below res/images is decoded once and stored under its resource path, so the runtime can find it by
+ * the same name it would pass to the class loader
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class AssetPacker {
+    private static final LogSite UNDECODABLE_IMAGE = new LogSite(Level.INFO, "Skipping \"%s\", it could not be decoded");
+
+    private static final String IMAGE_FOLDER = "images";
+
+    /**
+     * Not instantiable
+     */
+    private AssetPacker() {}
+
+    /**
+     * Builds a pack
+     *
+     * @param args the resource folder, the output file, and optionally --compress
+     */
+    public static void main(String[] args) {
+        if(args.length < 2) {
+            System.out.println("Usage: AssetPacker <resource folder> <output file> [--compress]");
+            System.exit(1);
+        }
+        boolean compress = args.length > 2 && "--compress".equals(args[2]);
+        try {
+            int count = pack(Paths.get(args[0]), Paths.get(args[1]), compress);
+            System.out.printf("Packed %d images into %s\n", count, args[1]);
+        } catch(IOException e) {
+            System.out.printf("Could not build asset pack: %s\n", e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Packs every image below the images folder of a resource folder
+     *
+     * @param root the resource folder
+     * @param output the pack file to write
+     * @param compress true to compress images where it makes them smaller
+     * @return the number of images packed
+     * @throws IOException if an image cannot be read or the pack cannot be written
+     */
+    public static int pack(Path root, Path output, boolean compress) throws IOException {
+        List<Path> files;
+        try(Stream<Path> walk = Files.walk(root.resolve(IMAGE_FOLDER))) {
+            files = walk.filter(Files::isRegularFile).filter(AssetPacker::isImage).sorted().collect(Collectors.toList());
+        }
+
+        // Decode and encode every image before writing, since the index comes first in the file
+        List<String> names = new ArrayList<>();
+        List<int[]> sizes = new ArrayList<>();
+        List<byte[]> blobs = new ArrayList<>();
+        for(Path file : files) {
+            BufferedImage img = ImageIO.read(file.toFile());
+            if(img == null) {
+                UNDECODABLE_IMAGE.log(file);
+                continue;
+            }
+            int w = img.getWidth();
+            int h = img.getHeight();
+            int[] pixels = img.getRGB(0, 0, w, h, null, 0, w);
+            int flags = isOpaque(pixels) ? AssetPack.FLAG_OPAQUE : 0;
+
+            ByteBuffer raw = ByteBuffer.allocate(pixels.length * 4);
+            raw.asIntBuffer().put(pixels);
+            byte[] blob = raw.array();
+            if(compress) {
+                byte[] packed = new byte[LZ4.maxCompressedLength(blob.length)];
+                int length = LZ4.compress(blob, blob.length, packed);
+                if(length < blob.length) {
+                    blob = Arrays.copyOf(packed, length);
+                    flags |= AssetPack.FLAG_COMPRESSED;
+                }
+            }
+
+            names.add(root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"));
+            sizes.add(new int[] {w, h, flags});
+            blobs.add(blob);
+        }
+
+        // The data starts after the header and the index
+        long offset = 12;
+        for(String name : names) {
+            offset += 2 + name.getBytes(StandardCharsets.UTF_8).length + 4 * 3 + 8 + 4;
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+        if(parent != null) {
+            Files.createDirectories(parent);
+        }
+        try(OutputStream os = Files.newOutputStream(output); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(AssetPack.MAGIC);
+            out.writeInt(AssetPack.VERSION);
+            out.writeInt(names.size());
+            for(int i = 0; i < names.size(); i++) {
+                byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+                int[] size = sizes.get(i);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeInt(size[0]);
+                out.writeInt(size[1]);
+                out.writeInt(size[2]);
+                out.writeLong(offset);
+                out.writeInt(blobs.get(i).length);
+                offset += blobs.get(i).length;
+            }
+            for(byte[] blob : blobs) {
+                out.write(blob);
+            }
+        }
+        return names.size();
+    }
+
+    /**
+     * Determines if a file is an image ImageIO can read
+     */
+    private static boolean isImage(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".png") || name.endsWith(".gif") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".bmp");
+    }
+
+    /**
+     * Determines if every pixel is fully opaque
+     */
+    private static boolean isOpaque(int[] pixels) {
+        for(int p : pixels) {
+            if((p >>> 24) != 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package com.foley.asset;
+
+import java.util.Arrays;
+
+/**
+ * Compresses and decompresses data in the LZ4 block format. Decompression is a tight copy loop, which keeps loading
+ * compressed assets close to the speed of loading raw ones
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+final class LZ4 {
+    private static final int MIN_MATCH = 4;
+    // The format requires the last 5 bytes to be literals, and the last match to start 12 bytes before the end
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_BITS = 16;
+
+    /**
+     * Not instantiable
+     */
+    private LZ4() {}
+
+    /**
+     * Gets the largest size data can grow to when compressed
+     *
+     * @param length the length of the uncompressed data
+     * @return the size of buffer needed to compress the data
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses data
+     *
+     * @param src the data to compress
+     * @param length the number of bytes to compress
+     * @param dst the buffer to write to, at least maxCompressedLength(length) long
+     * @return the compressed length
+     */
+    static int compress(byte[] src, int length, byte[] dst) {
+        int[] table = new int[1 << HASH_BITS];
+        Arrays.fill(table, -1);
+        int ip = 0;
+        int anchor = 0;
+        int op = 0;
+        int limit = length - MATCH_FIND_LIMIT;
+        int matchLimit = length - LAST_LITERALS;
+
+        while(ip < limit) {
+            int seq = readInt(src, ip);
+            int h = (seq * -1640531535) >>> (32 - HASH_BITS);
+            int ref = table[h];
+            table[h] = ip;
+            if(ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != seq) {
+                ip++;
+                continue;
+            }
+
+            // Extend the match as far as the format allows
+            int len = MIN_MATCH;
+            while(ip + len < matchLimit && src[ref + len] == src[ip + len]) {
+                len++;
+            }
+            op = writeSequence(src, anchor, ip - anchor, dst, op, ip - ref, len);
+            ip += len;
+            anchor = ip;
+        }
+        return writeSequence(src, anchor, length - anchor, dst, op, 0, 0);
+    }
+
+    /**
+     * Writes a run of literals followed by a match. A match length of 0 ends the block
+     */
+    private static int writeSequence(byte[] src, int literalStart, int literals, byte[] dst, int op, int offset, int matchLength) {
+        int token = op++;
+        int literalCode = Math.min(literals, 15);
+        int matchCode = matchLength == 0 ? 0 : Math.min(matchLength - MIN_MATCH, 15);
+        dst[token] = (byte)((literalCode << 4) | matchCode);
+        if(literalCode == 15) {
+            op = writeLength(dst, op, literals - 15);
+        }
+        System.arraycopy(src, literalStart, dst, op, literals);
+        op += literals;
+        if(matchLength == 0) {
+            return op;
+        }
+        dst[op++] = (byte)offset;
+        dst[op++] = (byte)(offset >>> 8);
+        if(matchCode == 15) {
+            op = writeLength(dst, op, matchLength - MIN_MATCH - 15);
+        }
+        return op;
+    }
+
+    /**
+     * Writes the remainder of a length as a run of 255s and a final byte
+     */
+    private static int writeLength(byte[] dst, int op, int remaining) {
+        while(remaining >= 255) {
+            dst[op++] = (byte)255;
+            remaining -= 255;
+        }
+        dst[op++] = (byte)remaining;
+        return op;
+    }
+
+    /**
+     * Decompresses data
+     *
+     * @param src the compressed data
+     * @param srcOffset the index of the first compressed byte
+     * @param srcLength the number of compressed bytes
+     * @param dst the buffer to write to
+     * @param dstLength the length of the uncompressed data
+     * @throws IllegalArgumentException if the data is corrupt
+     */
+    static void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstLength) {
+        int ip = srcOffset;
+        int end = srcOffset + srcLength;
+        int op = 0;
+        try {
+            while(ip < end) {
+                int token = src[ip++] & 0xFF;
+                int literals = token >>> 4;
+                if(literals == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while(b == 255);
+                }
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+                if(ip >= end) {
+                    break;
+                }
+
+                int offset = (src[ip] & 0xFF) | ((src[ip + 1] & 0xFF) << 8);
+                ip += 2;
+                int length = token & 0x0F;
+                if(length == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        length += b;
+                    } while(b == 255);
+                }
+                length += MIN_MATCH;
+                int from = op - offset;
+                if(offset == 0 || from < 0) {
+                    throw new IllegalArgumentException("Invalid match offset");
+                }
+                if(offset >= length) {
+                    System.arraycopy(dst, from, dst, op, length);
+                    op += length;
+                } else {
+                    // Overlapping matches repeat the bytes just written
+                    for(int i = 0; i < length; i++) {
+                        dst[op++] = dst[from + i];
+                    }
+                }
+            }
+        } catch(ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Compressed data is corrupt", e);
+        }
+        if(op != dstLength) {
+            throw new IllegalArgumentException("Compressed data does not match the expected length");
+        }
+    }
+
+    /**
+     * Reads 4 bytes as an int
+     */
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | ((b[i + 1] & 0xFF) << 8) | ((b[i + 2] & 0xFF) << 16) | ((b[i + 3] & 0xFF) << 24);
+    }
+}
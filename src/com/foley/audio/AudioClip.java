@@ -0,0 +1,118 @@
+package com.foley.audio;
+
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * A sound decoded up front into 16-bit stereo samples at the mixer's sample rate, so playing it needs no decoding
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class AudioClip {
+    private static final LogSite MISSING_SOUND = new LogSite(Level.INFO, "Could not find sound \"%s\"");
+    private static final LogSite UNDECODABLE_SOUND = new LogSite(Level.INFO, "Could not decode sound \"%s\". %s");
+
+    private final short[] samples;
+    private final int frames;
+
+    /**
+     * Creates a new audio clip
+     *
+     * @param samples interleaved left and right samples
+     */
+    public AudioClip(short[] samples) {
+        this.samples = samples;
+        frames = samples.length / 2;
+    }
+
+    /**
+     * Gets the interleaved left and right samples
+     *
+     * @return the samples of the clip
+     */
+    short[] getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets the length of the clip
+     *
+     * @return the number of stereo frames
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Loads and decodes a clip from a path
+     *
+     * @param path the path to the sound file
+     * @param sampleRate the sample rate to convert the clip to
+     * @return the decoded clip, or null if the file could not be read
+     */
+    public static AudioClip getClip(String path, int sampleRate) {
+        InputStream resource = AudioClip.class.getClassLoader().getResourceAsStream(path);
+        if(resource == null) {
+            MISSING_SOUND.log(path);
+            return null;
+        }
+        try(AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(resource))) {
+            // Decode to 16-bit signed little-endian, keeping the source rate and channels
+            AudioFormat in = source.getFormat();
+            int channels = Math.max(1, Math.min(2, in.getChannels()));
+            AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, in.getSampleRate(), 16, channels, channels * 2, in.getSampleRate(), false);
+            try(AudioInputStream decoded = AudioSystem.getAudioInputStream(pcm, source)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int n;
+                while((n = decoded.read(buf)) > 0) {
+                    bytes.write(buf, 0, n);
+                }
+                return new AudioClip(toStereo(bytes.toByteArray(), channels, (int)in.getSampleRate(), sampleRate));
+            }
+        } catch(UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            UNDECODABLE_SOUND.log(path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Converts decoded bytes to interleaved stereo samples at the target rate using linear interpolation
+     */
+    private static short[] toStereo(byte[] pcm, int channels, int sourceRate, int targetRate) {
+        int sourceFrames = pcm.length / (channels * 2);
+        long targetFrames = sourceRate == targetRate ? sourceFrames : (long)sourceFrames * targetRate / sourceRate;
+        short[] out = new short[(int)targetFrames * 2];
+        double step = (double)sourceRate / targetRate;
+        for(int f = 0; f < targetFrames; f++) {
+            double pos = f * step;
+            int i = (int)pos;
+            double t = pos - i;
+            int j = Math.min(i + 1, sourceFrames - 1);
+            for(int c = 0; c < 2; c++) {
+                int sc = Math.min(c, channels - 1);
+                int a = sample(pcm, (i * channels + sc) * 2);
+                int b = sample(pcm, (j * channels + sc) * 2);
+                out[f * 2 + c] = (short)Math.round(a + (b - a) * t);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Reads a 16-bit little-endian sample
+     */
+    private static int sample(byte[] pcm, int offset) {
+        return (short)((pcm[offset] & 0xFF) | (pcm[offset + 1] << 8));
+    }
+}
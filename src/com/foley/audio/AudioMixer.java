@@ -0,0 +1,430 @@
+package com.foley.audio;
+
+import com.foley.core.Config;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mixes up to a fixed number of voices on a dedicated high priority thread, one small block at a time. Playback
+ * commands are passed from the game thread through a lock-free single producer queue, so starting a sound never
+ * blocks the game loop. Nothing is allocated while sounds are playing. Clips should be loaded during initialization.
+ * The output is only opened and the thread only started once the first clip is added, so a game without sound never
+ * holds the audio device
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class AudioMixer implements Runnable {
+    private static final LogSite OUTPUT_FAILED = new LogSite(Level.INFO, "Could not open audio output. Sound will be muted. %s");
+
+    private static final int PLAY = 0;
+    private static final int STOP = 1;
+    private static final int STOP_ALL = 2;
+    private static final int SET_VOLUME = 3;
+    // Gains are fixed point with 12 fractional bits
+    private static final int GAIN_BITS = 12;
+    private static final float GAIN_ONE = 1 << GAIN_BITS;
+
+    private final int sampleRate;
+    private final int blockFrames;
+    private AudioSink sink;
+
+    // Loaded clips. Replaced as a whole when a clip is added so the mixer thread always sees a complete array
+    private volatile AudioClip[] clips;
+
+    // Command queue. Written by the game thread only, read by the mixer thread only
+    private final int[] cmdType;
+    private final int[] cmdHandle;
+    private final int[] cmdClip;
+    private final float[] cmdVolume;
+    private final float[] cmdPan;
+    private final boolean[] cmdLoop;
+    private final int cmdMask;
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    private int nextHandle;
+    private long droppedCommands;
+
+    // Voices. Only touched by the mixer thread
+    private final int[] voiceHandle;
+    private final int[] voiceClip;
+    private final int[] voicePosition;
+    private final int[] voiceGainLeft;
+    private final int[] voiceGainRight;
+    private final boolean[] voiceLoop;
+    private final int[] mix;
+    private final byte[] out;
+
+    private volatile float masterVolume;
+    private volatile boolean running;
+    private volatile long blocksMixed;
+    private Thread thread;
+
+    /**
+     * Creates a new audio mixer
+     *
+     * @param sink where mixed audio is written
+     * @param sampleRate the number of frames per second
+     * @param blockFrames the number of frames mixed at a time. Smaller blocks lower latency
+     * @param voices the most sounds that can play at once
+     * @param queueSize the most commands that can wait for the mixer. Rounded up to a power of two
+     */
+    public AudioMixer(AudioSink sink, int sampleRate, int blockFrames, int voices, int queueSize) {
+        this.sink = sink;
+        this.sampleRate = sampleRate;
+        this.blockFrames = Math.max(32, blockFrames);
+        clips = new AudioClip[0];
+
+        int size = Integer.highestOneBit(Math.max(16, queueSize) - 1) << 1;
+        cmdType = new int[size];
+        cmdHandle = new int[size];
+        cmdClip = new int[size];
+        cmdVolume = new float[size];
+        cmdPan = new float[size];
+        cmdLoop = new boolean[size];
+        cmdMask = size - 1;
+        head = new AtomicLong();
+        tail = new AtomicLong();
+
+        voices = Math.max(1, voices);
+        voiceHandle = new int[voices];
+        voiceClip = new int[voices];
+        voicePosition = new int[voices];
+        voiceGainLeft = new int[voices];
+        voiceGainRight = new int[voices];
+        voiceLoop = new boolean[voices];
+        mix = new int[this.blockFrames * 2];
+        out = new byte[this.blockFrames * 4];
+        masterVolume = 1.0f;
+    }
+
+    /**
+     * Creates a mixer from the Sound section of the config file
+     *
+     * @param config the config file
+     * @return the created mixer
+     */
+    public static AudioMixer fromConfig(Config config) {
+        int blockFrames = config.getInt("audioBlockSize", 256);
+        AudioSink sink;
+        String output = config.hasProperty("audioOutput") ? config.getProperty("audioOutput").trim() : "LINE";
+        if("NULL".equalsIgnoreCase(output)) {
+            sink = new NullSink(true);
+        } else if("FILE".equalsIgnoreCase(output)) {
+            sink = new WaveFileSink(config.hasProperty("audioFile") ? config.getProperty("audioFile").trim() : "audio.wav", true);
+        } else {
+            sink = new LineSink(config.getInt("audioBufferBlocks", 3));
+        }
+        AudioMixer mixer = new AudioMixer(sink, config.getInt("sampleRate", 44100), blockFrames, config.getInt("audioVoices", 32), 256);
+        mixer.setMasterVolume((float)config.getDouble("masterVolume", 1.0));
+        return mixer;
+    }
+
+    /**
+     * Loads a clip so it can be played
+     *
+     * @param path the path to the sound file
+     * @return the ID of the clip, or -1 if it could not be loaded
+     */
+    public int loadClip(String path) {
+        AudioClip clip = AudioClip.getClip(path, sampleRate);
+        return clip == null ? -1 : addClip(clip);
+    }
+
+    /**
+     * Adds an already decoded clip so it can be played. Adding the first clip starts the mixer thread
+     *
+     * @param clip the clip
+     * @return the ID of the clip
+     */
+    public synchronized int addClip(AudioClip clip) {
+        AudioClip[] next = Arrays.copyOf(clips, clips.length + 1);
+        next[clips.length] = clip;
+        clips = next;
+        if(thread == null) {
+            start();
+        }
+        return clips.length - 1;
+    }
+
+    /**
+     * Plays a clip once at full volume
+     *
+     * @param clip the ID of the clip
+     * @return a handle to the playing sound, or -1 if the command queue was full
+     */
+    public int play(int clip) {
+        return play(clip, 1.0f, 0.0f, false);
+    }
+
+    /**
+     * Plays a clip
+     *
+     * @param clip the ID of the clip
+     * @param volume the volume, where 1 is the clip's own volume
+     * @param pan the position from -1 for fully left to 1 for fully right
+     * @param loop true to repeat the clip until it is stopped
+     * @return a handle to the playing sound, or -1 if the command queue was full
+     */
+    public int play(int clip, float volume, float pan, boolean loop) {
+        // Handles are never 0, which marks a free voice
+        int handle = ++nextHandle;
+        if(handle <= 0) {
+            handle = nextHandle = 1;
+        }
+        return enqueue(PLAY, handle, clip, volume, pan, loop) ? handle : -1;
+    }
+
+    /**
+     * Stops a playing sound
+     *
+     * @param handle the handle returned when the sound was played
+     */
+    public void stop(int handle) {
+        enqueue(STOP, handle, 0, 0.0f, 0.0f, false);
+    }
+
+    /**
+     * Stops every playing sound
+     */
+    public void stopAll() {
+        enqueue(STOP_ALL, 0, 0, 0.0f, 0.0f, false);
+    }
+
+    /**
+     * Changes the volume and pan of a playing sound
+     *
+     * @param handle the handle returned when the sound was played
+     * @param volume the volume, where 1 is the clip's own volume
+     * @param pan the position from -1 for fully left to 1 for fully right
+     */
+    public void setVolume(int handle, float volume, float pan) {
+        enqueue(SET_VOLUME, handle, 0, volume, pan, false);
+    }
+
+    /**
+     * Sets the volume of everything the mixer plays
+     *
+     * @param volume the master volume, where 1 is unchanged
+     */
+    public void setMasterVolume(float volume) {
+        masterVolume = Math.max(0.0f, volume);
+    }
+
+    /**
+     * Adds a command to the queue. Must only be called from one thread at a time
+     *
+     * @return false if the queue was full and the command was dropped
+     */
+    private boolean enqueue(int type, int handle, int clip, float volume, float pan, boolean loop) {
+        long t = tail.get();
+        if(t - head.get() > cmdMask) {
+            droppedCommands++;
+            return false;
+        }
+        int i = (int)t & cmdMask;
+        cmdType[i] = type;
+        cmdHandle[i] = handle;
+        cmdClip[i] = clip;
+        cmdVolume[i] = volume;
+        cmdPan[i] = pan;
+        cmdLoop[i] = loop;
+        // Publish the filled slot to the mixer thread
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Starts the mixer thread. Called when the first clip is added, so it only needs to be called to open the output
+     * before any clip is loaded
+     */
+    public synchronized void start() {
+        if(running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "Audio Mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops the mixer thread and closes the sink
+     */
+    public synchronized void shutdown() {
+        running = false;
+        if(thread != null) {
+            try {
+                thread.join(1000);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    /**
+     * Runs the mixer loop
+     */
+    public void run() {
+        try {
+            sink.open(sampleRate, blockFrames);
+        } catch(Exception e) {
+            OUTPUT_FAILED.log(e.getMessage());
+            NullSink muted = new NullSink(true);
+            muted.open(sampleRate, blockFrames);
+            sink = muted;
+        }
+        while(running) {
+            drainCommands();
+            mixBlock();
+            sink.write(out, out.length);
+            blocksMixed++;
+        }
+        sink.close();
+    }
+
+    /**
+     * Applies every command waiting in the queue
+     */
+    private void drainCommands() {
+        long h = head.get();
+        long t = tail.get();
+        for(; h < t; h++) {
+            int i = (int)h & cmdMask;
+            switch(cmdType[i]) {
+                case PLAY:
+                    startVoice(cmdHandle[i], cmdClip[i], cmdVolume[i], cmdPan[i], cmdLoop[i]);
+                    break;
+                case STOP:
+                    for(int v = 0; v < voiceHandle.length; v++) {
+                        if(voiceHandle[v] == cmdHandle[i]) {
+                            voiceHandle[v] = 0;
+                        }
+                    }
+                    break;
+                case STOP_ALL:
+                    Arrays.fill(voiceHandle, 0);
+                    break;
+                default:
+                    for(int v = 0; v < voiceHandle.length; v++) {
+                        if(voiceHandle[v] == cmdHandle[i]) {
+                            setGain(v, cmdVolume[i], cmdPan[i]);
+                        }
+                    }
+                    break;
+            }
+        }
+        // Hand the slots back to the game thread
+        head.lazySet(h);
+    }
+
+    /**
+     * Starts a voice, taking over the oldest sound if every voice is busy
+     */
+    private void startVoice(int handle, int clip, float volume, float pan, boolean loop) {
+        AudioClip[] loaded = clips;
+        if(clip < 0 || clip >= loaded.length || loaded[clip].getFrames() == 0) {
+            return;
+        }
+        int voice = -1;
+        int oldest = 0;
+        for(int v = 0; v < voiceHandle.length; v++) {
+            if(voiceHandle[v] == 0) {
+                voice = v;
+                break;
+            }
+            if(voiceHandle[v] - voiceHandle[oldest] < 0) {
+                oldest = v;
+            }
+        }
+        if(voice == -1) {
+            voice = oldest;
+        }
+        voiceHandle[voice] = handle;
+        voiceClip[voice] = clip;
+        voicePosition[voice] = 0;
+        voiceLoop[voice] = loop;
+        setGain(voice, volume, pan);
+    }
+
+    /**
+     * Converts a volume and pan into fixed point gains for each channel
+     */
+    private void setGain(int voice, float volume, float pan) {
+        pan = Math.max(-1.0f, Math.min(1.0f, pan));
+        voiceGainLeft[voice] = (int)(volume * Math.min(1.0f, 1.0f - pan) * GAIN_ONE);
+        voiceGainRight[voice] = (int)(volume * Math.min(1.0f, 1.0f + pan) * GAIN_ONE);
+    }
+
+    /**
+     * Mixes every active voice into the output block
+     */
+    private void mixBlock() {
+        Arrays.fill(mix, 0);
+        AudioClip[] loaded = clips;
+        for(int v = 0; v < voiceHandle.length; v++) {
+            if(voiceHandle[v] == 0) {
+                continue;
+            }
+            short[] samples = loaded[voiceClip[v]].getSamples();
+            int frames = samples.length / 2;
+            int pos = voicePosition[v];
+            int gl = voiceGainLeft[v];
+            int gr = voiceGainRight[v];
+            for(int f = 0; f < blockFrames; f++) {
+                if(pos >= frames) {
+                    if(!voiceLoop[v]) {
+                        voiceHandle[v] = 0;
+                        break;
+                    }
+                    pos = 0;
+                }
+                mix[f * 2] += (samples[pos * 2] * gl) >> GAIN_BITS;
+                mix[f * 2 + 1] += (samples[pos * 2 + 1] * gr) >> GAIN_BITS;
+                pos++;
+            }
+            voicePosition[v] = pos;
+        }
+
+        // Apply the master volume, clip, and convert to little-endian bytes
+        int master = (int)(masterVolume * GAIN_ONE);
+        for(int i = 0; i < mix.length; i++) {
+            int s = (int)(((long)mix[i] * master) >> GAIN_BITS);
+            s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, s));
+            out[i * 2] = (byte)s;
+            out[i * 2 + 1] = (byte)(s >> 8);
+        }
+    }
+
+    /**
+     * Gets the number of commands that were dropped because the queue was full
+     *
+     * @return the number of dropped commands
+     */
+    public long getDroppedCommands() {
+        return droppedCommands;
+    }
+
+    /**
+     * Gets the number of blocks mixed since the mixer started
+     *
+     * @return the number of mixed blocks
+     */
+    public long getBlocksMixed() {
+        return blocksMixed;
+    }
+
+    /**
+     * Gets the time between a play command and the sound reaching the output, not counting the device buffer
+     *
+     * @return the latency of a single block in milliseconds
+     */
+    public double getBlockLatency() {
+        return 1000.0 * blockFrames / sampleRate;
+    }
+}
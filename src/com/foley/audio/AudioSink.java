@@ -0,0 +1,32 @@
+package com.foley.audio;
+
+/**
+ * Receives mixed audio from the mixer. Sinks are written to from the mixer thread only
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface AudioSink {
+    /**
+     * Opens the sink. Audio is always 16-bit signed little-endian stereo
+     *
+     * @param sampleRate the number of frames per second
+     * @param blockFrames the number of frames in every block that will be written
+     * @throws Exception if the sink cannot be opened
+     */
+    void open(int sampleRate, int blockFrames) throws Exception;
+
+    /**
+     * Writes a block of mixed audio. Sinks that play in real time block until there is room for the data, which is
+     * what paces the mixer
+     *
+     * @param data the audio bytes
+     * @param length the number of bytes to write
+     */
+    void write(byte[] data, int length);
+
+    /**
+     * Closes the sink
+     */
+    void close();
+}
@@ -0,0 +1,47 @@
+package com.foley.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Plays mixed audio through the default audio device
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class LineSink implements AudioSink {
+    private final int bufferedBlocks;
+    private SourceDataLine line;
+
+    /**
+     * Creates a new line sink
+     *
+     * @param bufferedBlocks the number of blocks the device buffers. Fewer blocks means lower latency, but a higher
+     *                       chance of gaps when the mixer thread is late
+     */
+    public LineSink(int bufferedBlocks) {
+        this.bufferedBlocks = Math.max(2, bufferedBlocks);
+    }
+
+    @Override
+    public void open(int sampleRate, int blockFrames) throws Exception {
+        AudioFormat format = new AudioFormat(sampleRate, 16, 2, true, false);
+        line = AudioSystem.getSourceDataLine(format);
+        line.open(format, blockFrames * 4 * bufferedBlocks);
+        line.start();
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        line.write(data, 0, length);
+    }
+
+    @Override
+    public void close() {
+        if(line != null) {
+            line.stop();
+            line.close();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.foley.audio;
+
+/**
+ * Discards mixed audio. Used when there is no audio device, and for running headless. When paced, writes take as long
+ * as the audio would take to play, so the mixer behaves as it would with a real device
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class NullSink implements AudioSink {
+    private final boolean paced;
+    private final Pacer pacer;
+
+    /**
+     * Creates a new null sink
+     *
+     * @param paced true to wait in real time for each block to "play"
+     */
+    public NullSink(boolean paced) {
+        this.paced = paced;
+        pacer = new Pacer();
+    }
+
+    @Override
+    public void open(int sampleRate, int blockFrames) {
+        pacer.start(sampleRate, blockFrames);
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        if(paced) {
+            pacer.waitForBlock();
+        }
+    }
+
+    @Override
+    public void close() {}
+}
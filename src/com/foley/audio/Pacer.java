@@ -0,0 +1,39 @@
+package com.foley.audio;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Makes sinks without a real device consume audio at the speed it would play at
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+class Pacer {
+    private long blockNanos;
+    private long next;
+
+    /**
+     * Starts pacing from now
+     *
+     * @param sampleRate the number of frames per second
+     * @param blockFrames the number of frames in a block
+     */
+    void start(int sampleRate, int blockFrames) {
+        blockNanos = 1000000000L * blockFrames / sampleRate;
+        next = System.nanoTime();
+    }
+
+    /**
+     * Waits until the previous block would have finished playing
+     */
+    void waitForBlock() {
+        next += blockNanos;
+        long wait = next - System.nanoTime();
+        if(wait > 0) {
+            LockSupport.parkNanos(wait);
+        } else if(wait < -blockNanos * 4) {
+            // Fell far behind, so start pacing again from now instead of rushing to catch up
+            next = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.foley.audio;
+
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Writes mixed audio to a WAV file. Useful for checking the mixer output in headless tests. When paced, the file is
+ * written at the speed the audio would play at, so sounds land where they would be heard
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class WaveFileSink implements AudioSink {
+    private static final LogSite WRITE_FAILED = new LogSite(Level.INFO, "Could not write audio to \"%s\". %s");
+    private static final LogSite FINISH_FAILED = new LogSite(Level.INFO, "Could not finish writing audio to \"%s\". %s");
+
+    private static final int HEADER_SIZE = 44;
+
+    private final String path;
+    private final boolean paced;
+    private final Pacer pacer;
+    private RandomAccessFile file;
+    private int sampleRate;
+    private long dataSize;
+
+    /**
+     * Creates a new wave file sink
+     *
+     * @param path the path of the file to write
+     * @param paced true to write in real time, or false to write as fast as the mixer can produce audio
+     */
+    public WaveFileSink(String path, boolean paced) {
+        this.path = path;
+        this.paced = paced;
+        pacer = new Pacer();
+    }
+
+    @Override
+    public void open(int sampleRate, int blockFrames) throws IOException {
+        this.sampleRate = sampleRate;
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(0);
+        // Leave room for the header, which is written once the length is known
+        file.write(new byte[HEADER_SIZE]);
+        pacer.start(sampleRate, blockFrames);
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        try {
+            file.write(data, 0, length);
+            dataSize += length;
+        } catch(IOException e) {
+            WRITE_FAILED.log(path, e.getMessage());
+        }
+        if(paced) {
+            pacer.waitForBlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if(file == null) {
+            return;
+        }
+        try {
+            file.seek(0);
+            file.writeBytes("RIFF");
+            writeIntLE((int)(36 + dataSize));
+            file.writeBytes("WAVEfmt ");
+            writeIntLE(16);
+            writeShortLE(1);
+            writeShortLE(2);
+            writeIntLE(sampleRate);
+            writeIntLE(sampleRate * 4);
+            writeShortLE(4);
+            writeShortLE(16);
+            file.writeBytes("data");
+            writeIntLE((int)dataSize);
+            file.close();
+        } catch(IOException e) {
+            FINISH_FAILED.log(path, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes an int in little-endian byte order
+     */
+    private void writeIntLE(int v) throws IOException {
+        file.write(v & 0xFF);
+        file.write((v >>> 8) & 0xFF);
+        file.write((v >>> 16) & 0xFF);
+        file.write((v >>> 24) & 0xFF);
+    }
+
+    /**
+     * Writes a short in little-endian byte order
+     */
+    private void writeShortLE(int v) throws IOException {
+        file.write(v & 0xFF);
+        file.write((v >>> 8) & 0xFF);
+    }
+}
@@ -0,0 +1,129 @@
+package com.foley.bench;
+
+import com.foley.input.Input;
+
+import java.util.Arrays;
+
+/**
+ * A fixed sequence of key presses and releases, applied tick by tick so a scenario plays out the same way every run
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class InputScript {
+    private int[] ticks = new int[16];
+    private Input.Keys[] keys = new Input.Keys[16];
+    private boolean[] pressed = new boolean[16];
+    private int count;
+    private int cursor;
+    private boolean sorted = true;
+
+    /**
+     * Presses a key on a tick
+     *
+     * @param tick the tick
+     * @param key the key
+     * @return this script
+     */
+    public InputScript press(int tick, Input.Keys key) {
+        return add(tick, key, true);
+    }
+
+    /**
+     * Releases a key on a tick
+     *
+     * @param tick the tick
+     * @param key the key
+     * @return this script
+     */
+    public InputScript release(int tick, Input.Keys key) {
+        return add(tick, key, false);
+    }
+
+    /**
+     * Holds a key down for a range of ticks
+     *
+     * @param from the tick the key is pressed on
+     * @param to the tick the key is released on
+     * @param key the key
+     * @return this script
+     */
+    public InputScript hold(int from, int to, Input.Keys key) {
+        return press(from, key).release(to, key);
+    }
+
+    /**
+     * Presses a key for a single tick
+     *
+     * @param tick the tick
+     * @param key the key
+     * @return this script
+     */
+    public InputScript tap(int tick, Input.Keys key) {
+        return hold(tick, tick + 1, key);
+    }
+
+    /**
+     * Applies every event of a tick. Ticks must be applied in increasing order
+     *
+     * @param tick the tick
+     * @param input the input to apply the events to
+     */
+    public void apply(int tick, Input input) {
+        if(!sorted) {
+            sort();
+        }
+        while(cursor < count && ticks[cursor] <= tick) {
+            input.inject(keys[cursor], pressed[cursor]);
+            cursor++;
+        }
+    }
+
+    /**
+     * Starts the script over from the first tick
+     */
+    public void reset() {
+        cursor = 0;
+    }
+
+    /**
+     * Adds an event
+     */
+    private InputScript add(int tick, Input.Keys key, boolean down) {
+        if(count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            keys = Arrays.copyOf(keys, count * 2);
+            pressed = Arrays.copyOf(pressed, count * 2);
+        }
+        if(count > 0 && tick < ticks[count - 1]) {
+            sorted = false;
+        }
+        ticks[count] = tick;
+        keys[count] = key;
+        pressed[count] = down;
+        count++;
+        return this;
+    }
+
+    /**
+     * Orders the events by tick, keeping the order events were added in within a tick
+     */
+    private void sort() {
+        for(int i = 1; i < count; i++) {
+            int t = ticks[i];
+            Input.Keys k = keys[i];
+            boolean p = pressed[i];
+            int j = i - 1;
+            while(j >= 0 && ticks[j] > t) {
+                ticks[j + 1] = ticks[j];
+                keys[j + 1] = keys[j];
+                pressed[j + 1] = pressed[j];
+                j--;
+            }
+            ticks[j + 1] = t;
+            keys[j + 1] = k;
+            pressed[j + 1] = p;
+        }
+        sorted = true;
+    }
+}
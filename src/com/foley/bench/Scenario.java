@@ -0,0 +1,81 @@
+package com.foley.bench;
+
+import com.foley.core.AbstractGame;
+
+import java.util.function.Supplier;
+
+/**
+ * A game driven offscreen by a script for a fixed number of ticks
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Scenario {
+    private final String name;
+    private final Supplier<? extends AbstractGame> factory;
+    private final int warmupTicks;
+    private final int ticks;
+    private final InputScript script;
+
+    /**
+     * Creates a new scenario
+     *
+     * @param name the name used for the scenario in reports. Should not contain spaces or periods
+     * @param factory creates the game to run
+     * @param warmupTicks the ticks run before measuring, so the JIT has settled
+     * @param ticks the ticks measured
+     * @param script the input applied, counted from the first warmup tick
+     */
+    public Scenario(String name, Supplier<? extends AbstractGame> factory, int warmupTicks, int ticks, InputScript script) {
+        this.name = name;
+        this.factory = factory;
+        this.warmupTicks = warmupTicks;
+        this.ticks = ticks;
+        this.script = script;
+    }
+
+    /**
+     * Gets the name of the scenario
+     *
+     * @return the name of the scenario
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates the game to run
+     *
+     * @return a new game, not yet initialized
+     */
+    public AbstractGame createGame() {
+        return factory.get();
+    }
+
+    /**
+     * Gets the number of ticks run before measuring
+     *
+     * @return the number of warmup ticks
+     */
+    public int getWarmupTicks() {
+        return warmupTicks;
+    }
+
+    /**
+     * Gets the number of ticks measured
+     *
+     * @return the number of measured ticks
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the input applied during the scenario
+     *
+     * @return the input script
+     */
+    public InputScript getScript() {
+        return script;
+    }
+}
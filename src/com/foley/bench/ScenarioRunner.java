@@ -0,0 +1,279 @@
+package com.foley.bench;
+
+import com.foley.HelloGame;
+import com.foley.core.AbstractGame;
+import com.foley.core.Config;
+import com.foley.input.Input;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Runs scenarios offscreen and reports how long each tick took to update and render, and how much it allocated. The
+ * report is written as a properties file and compared against a stored baseline:
+ *
+ *   java com.foley.bench.ScenarioRunner [--baseline file] [--out file] [--threshold 0.10] [--write-baseline] [names]
+ *
+ * Every timing is in nanoseconds and allocation is in bytes per tick. A metric regresses when it is more than the
+ * threshold above its baseline. The runner exits with status 1 if any metric regressed
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ScenarioRunner {
+    private static final LogSite INVALID_BASELINE_VALUE = new LogSite(Level.INFO, "Baseline value for \"%s\" is not a number and will be ignored");
+    private static final LogSite NO_BASELINE = new LogSite(Level.INFO, "No baseline at \"%s\". Results will not be compared");
+
+    private static final String[] PHASES = {"update", "render", "frame"};
+    // Differences smaller than these are noise, whatever the threshold says
+    private static final long MIN_TIME_DELTA = 20000L;
+    private static final long MIN_ALLOC_DELTA = 256L;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final double threshold;
+
+    /**
+     * Creates a new scenario runner
+     *
+     * @param threshold the fraction a metric may grow over its baseline before it counts as a regression
+     */
+    public ScenarioRunner(double threshold) {
+        this.threshold = threshold;
+        threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if(threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Gets the scenarios shipped with the engine
+     *
+     * @return the reference scenarios
+     */
+    public static List<Scenario> referenceScenarios() {
+        // Walk HelloGame's text around a square, then hold two keys at once
+        InputScript walk = new InputScript()
+                .hold(0, 120, Input.Keys.D)
+                .hold(120, 240, Input.Keys.S)
+                .hold(240, 360, Input.Keys.A)
+                .hold(360, 480, Input.Keys.W)
+                .hold(480, 600, Input.Keys.W)
+                .hold(480, 600, Input.Keys.D);
+
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("hello", HelloGame::new, 200, 1000, walk));
+        scenarios.add(new Scenario("sprites", () -> new SpriteStressGame(5000), 200, 600, new InputScript()));
+        scenarios.add(new Scenario("text", () -> new TextStressGame(1000), 200, 600, new InputScript()));
+        return scenarios;
+    }
+
+    /**
+     * Runs a scenario
+     *
+     * @param scenario the scenario
+     * @return the results, keyed by scenario name, phase and statistic
+     */
+    public Map<String, Long> run(Scenario scenario) {
+        AbstractGame game = scenario.createGame();
+        Config config = game.getConfig();
+        // Fix everything that would make one run differ from the next
+        config.setProperty("mode", "OFFSCREEN");
+        config.setProperty("width", "1280");
+        config.setProperty("height", "720");
+        config.setProperty("dynamicResolution", "false");
+        config.setProperty("renderScale", "1.0");
+        config.setProperty("audioOutput", "NULL");
+        config.setProperty("saveFile", "");
+        game.initialize();
+
+        InputScript script = scenario.getScript();
+        script.reset();
+        int warmup = scenario.getWarmupTicks();
+        int ticks = scenario.getTicks();
+        long[] update = new long[ticks];
+        long[] render = new long[ticks];
+        long[] frame = new long[ticks];
+        long allocated = 0L;
+
+        try {
+            for(int tick = 0; tick < warmup + ticks; tick++) {
+                script.apply(tick, game.getInput());
+                long a0 = allocatedBytes();
+                long t0 = System.nanoTime();
+                game.updateGame();
+                long t1 = System.nanoTime();
+                game.renderFrame();
+                long t2 = System.nanoTime();
+                long a1 = allocatedBytes();
+                if(tick >= warmup) {
+                    int i = tick - warmup;
+                    update[i] = t1 - t0;
+                    render[i] = t2 - t1;
+                    frame[i] = t2 - t0;
+                    allocated += a1 - a0;
+                }
+            }
+        } finally {
+            game.terminate();
+        }
+
+        Map<String, Long> results = new TreeMap<>();
+        String name = scenario.getName();
+        long[][] samples = {update, render, frame};
+        for(int p = 0; p < PHASES.length; p++) {
+            long[] sorted = samples[p].clone();
+            Arrays.sort(sorted);
+            results.put(name + "." + PHASES[p] + ".p50", percentile(sorted, 0.50));
+            results.put(name + "." + PHASES[p] + ".p99", percentile(sorted, 0.99));
+            results.put(name + "." + PHASES[p] + ".max", sorted[sorted.length - 1]);
+        }
+        results.put(name + ".alloc.perTick", allocated / ticks);
+        results.put(name + ".ticks", (long)ticks);
+        return results;
+    }
+
+    /**
+     * Compares results against a baseline and adds the baseline values and a status for every compared metric
+     *
+     * @param results the results, which receive the comparison
+     * @param baseline the baseline
+     * @return the number of regressed metrics
+     */
+    public int compare(Map<String, Long> results, Properties baseline) {
+        int regressions = 0;
+        List<String> keys = new ArrayList<>(results.keySet());
+        for(String key : keys) {
+            boolean timing = key.endsWith(".p50") || key.endsWith(".p99");
+            boolean alloc = key.endsWith(".alloc.perTick");
+            if(!timing && !alloc) {
+                continue;
+            }
+            String stored = baseline.getProperty(key);
+            if(stored == null) {
+                continue;
+            }
+            long base;
+            try {
+                base = Long.parseLong(stored.trim());
+            } catch(NumberFormatException e) {
+                INVALID_BASELINE_VALUE.log(key);
+                continue;
+            }
+            long current = results.get(key);
+            long floor = timing ? MIN_TIME_DELTA : MIN_ALLOC_DELTA;
+            boolean regressed = current > base * (1.0 + threshold) && current - base > floor;
+            results.put(key + ".baseline", base);
+            // Stored as a number so the whole report stays numeric: 1 for a regression, 0 otherwise
+            results.put(key + ".regressed", regressed ? 1L : 0L);
+            if(regressed) {
+                regressions++;
+                System.out.printf("REGRESSION: %s is %d, baseline %d (+%.1f%%)\n", key, current, base, 100.0 * (current - base) / Math.max(1L, base));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Runs the scenarios named on the command line, or every reference scenario
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        Path baselinePath = Paths.get("scenario-baseline.properties");
+        Path out = Paths.get("scenario-report.properties");
+        double threshold = 0.10;
+        boolean writeBaseline = false;
+        List<String> names = new ArrayList<>();
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "--baseline":
+                    baselinePath = Paths.get(args[++i]);
+                    break;
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "--write-baseline":
+                    writeBaseline = true;
+                    break;
+                default:
+                    names.add(args[i]);
+            }
+        }
+
+        ScenarioRunner runner = new ScenarioRunner(threshold);
+        Map<String, Long> results = new TreeMap<>();
+        for(Scenario scenario : referenceScenarios()) {
+            if(names.isEmpty() || names.contains(scenario.getName())) {
+                System.out.printf("Running %s\n", scenario.getName());
+                results.putAll(runner.run(scenario));
+            }
+        }
+
+        int regressions = 0;
+        try {
+            if(writeBaseline) {
+                write(baselinePath, results, "Scenario baseline");
+            } else if(Files.exists(baselinePath)) {
+                Properties baseline = new Properties();
+                try(InputStream is = Files.newInputStream(baselinePath)) {
+                    baseline.load(is);
+                }
+                regressions = runner.compare(results, baseline);
+            } else {
+                NO_BASELINE.log(baselinePath);
+            }
+            results.put("regressions", (long)regressions);
+            write(out, results, "Scenario report");
+        } catch(IOException e) {
+            System.out.printf("Could not write the scenario report: %s\n", e.getMessage());
+            System.exit(2);
+        }
+        System.out.printf("%d regression(s). Report written to %s\n", regressions, out);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Writes results as a properties file with sorted keys, so reports can be diffed
+     */
+    private static void write(Path path, Map<String, Long> results, String title) throws IOException {
+        try(BufferedWriter w = Files.newBufferedWriter(path)) {
+            w.write("# " + title);
+            w.newLine();
+            for(Map.Entry<String, Long> e : results.entrySet()) {
+                w.write(e.getKey() + " = " + e.getValue());
+                w.newLine();
+            }
+        }
+    }
+
+    /**
+     * Gets a nearest rank percentile of sorted samples
+     */
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int)Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread so far
+     */
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.foley.bench;
+
+import com.foley.core.AbstractGame;
+import com.foley.graphic.SpriteSheet;
+import com.foley.graphic.Texture;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * A synthetic scene of many small bouncing sprites, used to measure sprite drawing
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class SpriteStressGame extends AbstractGame {
+    private static final int SIZE = 32;
+    private static final int FRAMES = 4;
+
+    private final int count;
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final int[] frame;
+    private SpriteSheet sheet;
+
+    /**
+     * Creates a new sprite stress scene
+     *
+     * @param count the number of sprites
+     */
+    public SpriteStressGame(int count) {
+        this.count = count;
+        x = new float[count];
+        y = new float[count];
+        vx = new float[count];
+        vy = new float[count];
+        frame = new int[count];
+    }
+
+    @Override
+    /**
+     * Initializes the game components
+     */
+    public void initialize() {
+        super.initialize();
+
+        // Draw the frames in code so the scene does not depend on any image files
+        BufferedImage img = new BufferedImage(SIZE * FRAMES, SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Color[] colors = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW};
+        for(int i = 0; i < FRAMES; i++) {
+            g.setColor(colors[i]);
+            g.fillOval(i * SIZE + 2, 2, SIZE - 4, SIZE - 4);
+        }
+        g.dispose();
+        sheet = new SpriteSheet(Texture.getTexture(img), SIZE, SIZE);
+
+        Random random = new Random(42);
+        for(int i = 0; i < count; i++) {
+            x[i] = random.nextFloat() * renderer.getWidth();
+            y[i] = random.nextFloat() * renderer.getHeight();
+            vx[i] = random.nextFloat() * 6.0f - 3.0f;
+            vy[i] = random.nextFloat() * 6.0f - 3.0f;
+            frame[i] = i % FRAMES;
+        }
+    }
+
+    @Override
+    /**
+     * Checks the input for the game
+     */
+    public void checkInput() {}
+
+    @Override
+    /**
+     * Updates the game
+     */
+    public void updateGame() {
+        super.updateGame();
+        int w = renderer.getWidth();
+        int h = renderer.getHeight();
+        for(int i = 0; i < count; i++) {
+            x[i] += vx[i];
+            y[i] += vy[i];
+            if(x[i] < 0 || x[i] > w) {
+                vx[i] = -vx[i];
+            }
+            if(y[i] < 0 || y[i] > h) {
+                vy[i] = -vy[i];
+            }
+        }
+    }
+
+    @Override
+    /**
+     * Renders the game
+     */
+    public void renderGame() {
+        super.renderGame();
+        for(int i = 0; i < count; i++) {
+            renderer.drawSprite(sheet, frame[i], x[i], y[i]);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.foley.bench;
+
+import com.foley.core.AbstractGame;
+
+import java.awt.Color;
+
+/**
+ * A synthetic scene of many short strings, used to measure text drawing
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class TextStressGame extends AbstractGame {
+    private static final int COLUMNS = 20;
+
+    private final int count;
+    private final String[] labels;
+    private final Color[] colors = {Color.WHITE, Color.ORANGE, Color.CYAN, Color.PINK};
+    private int offset;
+
+    /**
+     * Creates a new text stress scene
+     *
+     * @param count the number of strings drawn each frame
+     */
+    public TextStressGame(int count) {
+        this.count = count;
+        // Built up front so the strings themselves are not measured
+        labels = new String[64];
+        for(int i = 0; i < labels.length; i++) {
+            labels[i] = "Score " + (i * 1237 % 10000);
+        }
+    }
+
+    @Override
+    /**
+     * Checks the input for the game
+     */
+    public void checkInput() {}
+
+    @Override
+    /**
+     * Updates the game
+     */
+    public void updateGame() {
+        super.updateGame();
+        offset++;
+    }
+
+    @Override
+    /**
+     * Renders the game
+     */
+    public void renderGame() {
+        super.renderGame();
+        int rows = (count + COLUMNS - 1) / COLUMNS;
+        int cellWidth = renderer.getWidth() / COLUMNS;
+        int cellHeight = Math.max(1, renderer.getHeight() / rows);
+        for(int i = 0; i < count; i++) {
+            int column = i % COLUMNS;
+            int row = i / COLUMNS;
+            renderer.drawText(colors[i & 3], labels[(i + offset) & 63], column * cellWidth, (row + 1) * cellHeight);
+        }
+    }
+}
@@ -1,8 +1,22 @@
 package com.foley.core;
 
+import com.foley.asset.AssetPack;
+import com.foley.audio.AudioMixer;
+import com.foley.event.EventBus;
 import com.foley.graphic.Screen;
 import com.foley.graphic.Renderer;
+import com.foley.graphic.ScreenEvent;
+import com.foley.graphic.Texture;
+import com.foley.input.ActionMap;
 import com.foley.input.Input;
+import com.foley.log.Level;
+import com.foley.log.Log;
+import com.foley.log.LogSite;
+import com.foley.save.SnapshotStore;
+import com.foley.script.ScriptRunner;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Sets up and runs a game loop
@@ -11,12 +25,27 @@ import com.foley.input.Input;
  * @version 10 Oct 2020
  */
 public abstract class AbstractGame implements Game, Runnable{
-    private boolean isRunning;
+    private static final LogSite PACK_OPEN_FAILED = new LogSite(Level.INFO, "Could not open asset pack \"%s\". Images will be decoded from the images folder");
+    private static final LogSite PACK_CLOSE_FAILED = new LogSite(Level.INFO, "Could not close the asset pack");
+
+    private volatile boolean isRunning;
+    private volatile boolean paused;
+    private volatile boolean backgroundPaused;
+    private volatile boolean throttled;
     private final long NS_PER_UPDATE;
+    private final long NS_PER_BACKGROUND_FRAME;
+    private final boolean pauseInBackground;
 
+    protected EventBus events;
     protected Screen screen;
     protected Renderer renderer;
     protected Input input;
+    protected ActionMap actions;
+    protected AudioMixer audio;
+    protected AssetPack assets;
+    protected SnapshotStore snapshots;
+    protected Scheduler scheduler;
+    protected ScriptRunner scripts;
     protected final Config config;
 
     private Thread t;
@@ -26,9 +55,12 @@ public abstract class AbstractGame implements Game, Runnable{
      */
     public AbstractGame() {
         config = new Config("config/config.cfg");
+        Log.configure(config);
         isRunning = false;
         // Update 120 times per second
         NS_PER_UPDATE = 1000000000L / Long.parseLong(config.getProperty("updateInterval"));
+        NS_PER_BACKGROUND_FRAME = 1000000000L / Math.max(1, config.getInt("backgroundFrameRate", 10));
+        pauseInBackground = config.getBoolean("pauseInBackground", false);
     }
 
     @Override
@@ -36,16 +68,50 @@ public abstract class AbstractGame implements Game, Runnable{
      * Initializes the game components
      */
     public void initialize() {
-        screen = new Screen(config, this);
-        renderer = new Renderer(screen, config);
+        // Open the asset pack first so every image after this point can come from it
+        String pack = config.hasProperty("assetPack") ? config.getProperty("assetPack").trim() : "";
+        if(!pack.isEmpty()) {
+            try {
+                assets = AssetPack.open(pack);
+                Texture.setAssetPack(assets);
+            } catch(IOException e) {
+                PACK_OPEN_FAILED.log(pack);
+            }
+        }
+        // Events published from other threads wake the loop, so they are seen even while it is parked
+        events = new EventBus(() -> LockSupport.unpark(t));
+        screen = new Screen(config, this, events);
+        screen.getEvents().subscribe(this::handleScreenEvent);
+        renderer = Renderer.createRenderer(screen, config);
         input = new Input(screen);
+        actions = ActionMap.fromConfig(input, config);
+        scheduler = new Scheduler(config.getInt("timerCapacity", 1024));
+        scripts = new ScriptRunner(scheduler, config.getInt("scriptCapacity", 256));
+        audio = AudioMixer.fromConfig(config);
+        String save = config.hasProperty("saveFile") ? config.getProperty("saveFile").trim() : "";
+        if(!save.isEmpty()) {
+            snapshots = new SnapshotStore(save, Math.max(16, config.getInt("saveBlockSize", 4096)));
+        }
     }
 
     /**
      * Cleans up the game components
      */
     public void terminate() {
+        if(snapshots != null) {
+            snapshots.close();
+        }
+        audio.shutdown();
+        renderer.dispose();
         screen.closeScreen();
+        if(assets != null) {
+            Texture.setAssetPack(null);
+            try {
+                assets.close();
+            } catch(IOException e) {
+                PACK_CLOSE_FAILED.log();
+            }
+        }
     }
 
     @Override
@@ -64,6 +130,47 @@ public abstract class AbstractGame implements Game, Runnable{
      */
     public void stop() {
         isRunning = false;
+        LockSupport.unpark(t);
+    }
+
+    @Override
+    /**
+     * Pauses the game. The loop thread is parked until the game is resumed or stopped
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    /**
+     * Resumes the game. The time spent paused is not simulated
+     */
+    public void resume() {
+        paused = false;
+        LockSupport.unpark(t);
+    }
+
+    @Override
+    /**
+     * Slows the loop down to the background frame rate, or pauses it if pauseInBackground is set, while the window
+     * is in the background
+     */
+    public void throttle(boolean background) {
+        if(pauseInBackground) {
+            backgroundPaused = background;
+        } else {
+            throttled = background;
+        }
+        LockSupport.unpark(t);
+    }
+
+    /**
+     * Determines if the game is paused, either by the game itself or because the window is in the background
+     *
+     * @return true if the game loop is paused
+     */
+    public boolean isPaused() {
+        return paused || backgroundPaused;
     }
 
     @Override
@@ -71,8 +178,11 @@ public abstract class AbstractGame implements Game, Runnable{
      * Updates the game
      */
     public void updateGame() {
-        checkInput();
+        events.dispatch();
         input.update();
+        checkInput();
+        scheduler.advance();
+        scripts.update();
     }
 
     @Override
@@ -84,6 +194,56 @@ public abstract class AbstractGame implements Game, Runnable{
         renderer.clearScreen();
     }
 
+    /**
+     * Handles an event from the game window on the game thread
+     *
+     * @param event the window event
+     * @param sequence the sequence of the event
+     * @param endOfBatch true if it is the last window event of this dispatch
+     */
+    private void handleScreenEvent(ScreenEvent event, long sequence, boolean endOfBatch) {
+        switch(event.getType()) {
+            case CLOSING:
+                stop();
+                break;
+            case BACKGROUND:
+                throttle(true);
+                break;
+            case FOREGROUND:
+                throttle(false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Renders and presents a single frame
+     */
+    public void renderFrame() {
+        renderer.beginRender();
+        renderGame();
+        renderer.endRender();
+    }
+
+    /**
+     * Gets the configuration of the game. Changes made before initialize is called are used by the game components
+     *
+     * @return the configuration
+     */
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets the input of the game
+     *
+     * @return the input, or null before the game is initialized
+     */
+    public Input getInput() {
+        return input;
+    }
+
     @Override
     /**
      * Runs the game loop
@@ -99,6 +259,15 @@ public abstract class AbstractGame implements Game, Runnable{
 
         // Main game loop
         while(isRunning) {
+            // Sleep until resumed or stopped. Wake ups can be spurious, so the state is checked again each time
+            if(isPaused()) {
+                LockSupport.park(this);
+                events.dispatch();
+                lastTime = System.nanoTime();
+                renderer.resetFrameTiming();
+                continue;
+            }
+
             // Get times
             startTime = System.nanoTime();
             accumulator += startTime - lastTime;
@@ -111,9 +280,16 @@ public abstract class AbstractGame implements Game, Runnable{
             }
 
             // Render to the screen
-            renderer.beginRender();
-            renderGame();
-            renderer.endRender();
+            renderFrame();
+
+            // In the background, sleep out the rest of the frame instead of starting the next one straight away
+            if(throttled) {
+                long remaining = startTime + NS_PER_BACKGROUND_FRAME - System.nanoTime();
+                if(remaining > 0L) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+                renderer.resetFrameTiming();
+            }
         }
 
         // Clean up the game components here
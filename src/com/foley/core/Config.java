@@ -1,8 +1,12 @@
 package com.foley.core;
 
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.Set;
 
 import javax.swing.JOptionPane;
 
@@ -13,6 +17,10 @@ import javax.swing.JOptionPane;
  * @version 06 Jan 2021
  */
 public class Config {
+    private static final LogSite MISSING_PROPERTY = new LogSite(Level.INFO, "Requested property \"%s\" does not have a value associated with it");
+    private static final LogSite INVALID_INTEGER = new LogSite(Level.INFO, "'%s' is not a valid integer for property \"%s\". Defaulting to %d");
+    private static final LogSite INVALID_NUMBER = new LogSite(Level.INFO, "'%s' is not a valid number for property \"%s\". Defaulting to %s");
+
     private static final String INVALID_KEY = "INVALID_KEY";
     private Properties properties;
 
@@ -43,9 +51,93 @@ public class Config {
     public String getProperty(String key) {
         String ret = properties.getProperty(key);
         if(ret == null) {
-            System.out.println("INFORMATIONAL: Requested property does not have a value associated with it");
+            MISSING_PROPERTY.log(key);
             return INVALID_KEY;
         }
         return ret;
     }
+
+    /**
+     * Sets a property for the rest of the run. The config file itself is not changed
+     *
+     * @param key the key
+     * @param value the value to associate with the key
+     */
+    public void setProperty(String key, String value) {
+        properties.setProperty(key, value);
+    }
+
+    /**
+     * Determines if the config file has a value for a property
+     *
+     * @param key the key
+     * @return true if a value is associated with the key
+     */
+    public boolean hasProperty(String key) {
+        return properties.getProperty(key) != null;
+    }
+
+    /**
+     * Gets the keys of every property in the config file
+     *
+     * @return the keys of every property
+     */
+    public Set<String> getPropertyNames() {
+        return properties.stringPropertyNames();
+    }
+
+    /**
+     * Gets a property from the config file as an integer
+     *
+     * @param key the key
+     * @param defaultValue the value to use if the property is missing or is not an integer
+     * @return the integer value associated with the key
+     */
+    public int getInt(String key, int defaultValue) {
+        String val = properties.getProperty(key);
+        if(val == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(val.trim());
+        } catch(NumberFormatException e) {
+            INVALID_INTEGER.log(val, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets a property from the config file as a double
+     *
+     * @param key the key
+     * @param defaultValue the value to use if the property is missing or is not numeric
+     * @return the double value associated with the key
+     */
+    public double getDouble(String key, double defaultValue) {
+        String val = properties.getProperty(key);
+        if(val == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(val.trim());
+        } catch(NumberFormatException e) {
+            INVALID_NUMBER.log(val, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets a property from the config file as a boolean
+     *
+     * @param key the key
+     * @param defaultValue the value to use if the property is missing
+     * @return true if the value associated with the key is "true", ignoring case
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String val = properties.getProperty(key);
+        if(val == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(val.trim());
+    }
 }
@@ -27,6 +27,14 @@ public interface Game {
      */
     default void resume() {}
 
+    /**
+     * Called when the game window loses or regains focus, or is minimized or restored. Default behavior is to do
+     * nothing
+     *
+     * @param background true if the game went into the background, false if it came back
+     */
+    default void throttle(boolean background) {}
+
     /**
      * Initializes the game components
      */
@@ -0,0 +1,357 @@
+package com.foley.core;
+
+import java.util.Arrays;
+
+/**
+ * Runs tasks after a number of fixed update ticks. Timers are held in a hierarchical timing wheel of four levels of 256
+ * slots, so scheduling and cancelling take constant time and a tick only visits the timers that are due. Timers that
+ * are further out than the wheel reaches wait in an overflow list until the wheel comes around.
+ *
+ * Timer nodes are pooled in parallel arrays and named by handles that carry a generation, so a handle to a timer
+ * that has fired or been cancelled is simply stale and never touches the node's next use. Tasks run on the thread that
+ * calls advance, in the order they were placed in their slot
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Scheduler {
+    /**
+     * A handle that never refers to a timer
+     */
+    public static final long NONE = 0L;
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Pseudo slots after the wheel for timers beyond its reach and for timers taken from a slot to be run
+    private static final int OVERFLOW = LEVELS * SLOTS;
+    private static final int FIRING = OVERFLOW + 1;
+    // Values of slot for nodes that are not linked into a slot
+    private static final int FREE = -1;
+    private static final int RUNNING = -2;
+
+    // Pooled timer nodes
+    private long[] due;
+    private long[] period;
+    private int[] next;
+    private int[] prev;
+    private int[] slot;
+    private int[] generation;
+    private Runnable[] task;
+    private int free;
+
+    // Doubly linked lists of nodes in each slot, kept in order of placement
+    private final int[] head = new int[FIRING + 1];
+    private final int[] tail = new int[FIRING + 1];
+    private long tick;
+    private int size;
+    private int running = -1;
+
+    /**
+     * Creates a new scheduler
+     *
+     * @param capacity the number of timers to allocate up front. The pool grows if more are outstanding at once
+     */
+    public Scheduler(int capacity) {
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+        due = new long[0];
+        period = new long[0];
+        next = new int[0];
+        prev = new int[0];
+        slot = new int[0];
+        generation = new int[0];
+        task = new Runnable[0];
+        free = -1;
+        grow(Math.max(16, capacity));
+    }
+
+    /**
+     * Runs a task once after a delay
+     *
+     * @param delay the number of ticks to wait. Delays of less than one tick run on the next tick
+     * @param task the task to run
+     * @return the handle of the timer
+     */
+    public long schedule(long delay, Runnable task) {
+        return schedule(delay, 0L, task);
+    }
+
+    /**
+     * Runs a task after a delay, then again every period until it is cancelled
+     *
+     * @param delay the number of ticks to wait before the first run. Delays of less than one tick run on the next tick
+     * @param period the number of ticks between runs. A period of less than one runs the task once
+     * @param task the task to run
+     * @return the handle of the timer
+     */
+    public long schedule(long delay, long period, Runnable task) {
+        if(free < 0) {
+            grow(due.length * 2);
+        }
+        int n = free;
+        free = next[n];
+        due[n] = tick + Math.max(1L, delay);
+        this.period[n] = Math.max(0L, period);
+        this.task[n] = task;
+        place(n);
+        size++;
+        return ((long)generation[n] << 32) | n;
+    }
+
+    /**
+     * Cancels a timer. A task may cancel its own timer, or any other, while it runs
+     *
+     * @param handle the handle of the timer
+     * @return true if the timer was pending and is now cancelled, false if the handle is stale
+     */
+    public boolean cancel(long handle) {
+        int n = resolve(handle);
+        if(n < 0) {
+            return false;
+        }
+        if(slot[n] == RUNNING) {
+            // The node is released once the task returns, so only the handle is retired here
+            generation[n]++;
+        } else {
+            unlink(n);
+            release(n);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Determines if a timer is still pending
+     *
+     * @param handle the handle of the timer
+     * @return true if the timer has yet to run, or is repeating and has not been cancelled
+     */
+    public boolean isPending(long handle) {
+        return resolve(handle) >= 0;
+    }
+
+    /**
+     * Gets the number of ticks until a timer next runs
+     *
+     * @param handle the handle of the timer
+     * @return the ticks until the timer runs, or -1 if the handle is stale
+     */
+    public long getRemaining(long handle) {
+        int n = resolve(handle);
+        if(n < 0) {
+            return -1L;
+        }
+        return slot[n] == RUNNING ? period[n] : due[n] - tick;
+    }
+
+    /**
+     * Advances the scheduler by one tick and runs every task that is due
+     */
+    public void advance() {
+        tick++;
+        int index = (int)(tick & SLOT_MASK);
+        if(index == 0) {
+            cascade();
+        }
+        take(index);
+        while(head[FIRING] >= 0) {
+            int n = head[FIRING];
+            unlink(n);
+            slot[n] = RUNNING;
+            int gen = generation[n];
+            running = n;
+            try {
+                task[n].run();
+            } finally {
+                // Settle the timer even if its task threw, so it is not left running. Timers still waiting to fire
+                // run on the next advance
+                running = -1;
+                if(generation[n] != gen) {
+                    // Cancelled while running
+                    release(n);
+                } else if(period[n] > 0L) {
+                    due[n] = tick + period[n];
+                    place(n);
+                } else {
+                    release(n);
+                    size--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels every pending timer
+     */
+    public void clear() {
+        if(running >= 0) {
+            // A task that clears the scheduler also cancels its own timer, which is released once it returns
+            generation[running]++;
+        }
+        for(int s = 0; s <= FIRING; s++) {
+            while(head[s] >= 0) {
+                int n = head[s];
+                unlink(n);
+                release(n);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Gets the number of ticks the scheduler has advanced
+     *
+     * @return the current tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of pending timers
+     *
+     * @return the number of pending timers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves the timers of the slots that have come around at each level down the wheel. Higher levels go first, so
+     * their timers can be cascaded again by the level below on the same tick
+     */
+    private void cascade() {
+        if((tick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0L) {
+            // The whole wheel has come around, so the overflow may now be in reach
+            replace(OVERFLOW);
+        }
+        int level = 1;
+        while(level < LEVELS && (tick & ((1L << (SLOT_BITS * level)) - 1)) == 0L) {
+            level++;
+        }
+        for(int l = level - 1; l >= 1; l--) {
+            replace(l * SLOTS + (int)((tick >>> (SLOT_BITS * l)) & SLOT_MASK));
+        }
+    }
+
+    /**
+     * Places every node of a slot again from the current tick
+     */
+    private void replace(int s) {
+        int n = head[s];
+        head[s] = -1;
+        tail[s] = -1;
+        while(n >= 0) {
+            int following = next[n];
+            place(n);
+            n = following;
+        }
+    }
+
+    /**
+     * Moves every node of a level 0 slot to the list of nodes to run
+     */
+    private void take(int s) {
+        int n = head[s];
+        if(n < 0) {
+            return;
+        }
+        for(int i = n; i >= 0; i = next[i]) {
+            slot[i] = FIRING;
+        }
+        if(tail[FIRING] < 0) {
+            head[FIRING] = n;
+        } else {
+            next[tail[FIRING]] = n;
+            prev[n] = tail[FIRING];
+        }
+        tail[FIRING] = tail[s];
+        head[s] = -1;
+        tail[s] = -1;
+    }
+
+    /**
+     * Links a node into the slot for its due tick. The level is set by the highest bit where the due tick and the
+     * current tick differ, so the node is cascaded down exactly when the bits above its slot match
+     */
+    private void place(int n) {
+        long diff = due[n] ^ tick;
+        int level = diff == 0L ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+        int s = level >= LEVELS ? OVERFLOW : level * SLOTS + (int)((due[n] >>> (SLOT_BITS * level)) & SLOT_MASK);
+        slot[n] = s;
+        next[n] = -1;
+        prev[n] = tail[s];
+        if(tail[s] < 0) {
+            head[s] = n;
+        } else {
+            next[tail[s]] = n;
+        }
+        tail[s] = n;
+    }
+
+    /**
+     * Unlinks a node from its slot
+     */
+    private void unlink(int n) {
+        int s = slot[n];
+        if(prev[n] < 0) {
+            head[s] = next[n];
+        } else {
+            next[prev[n]] = next[n];
+        }
+        if(next[n] < 0) {
+            tail[s] = prev[n];
+        } else {
+            prev[next[n]] = prev[n];
+        }
+        next[n] = -1;
+        prev[n] = -1;
+    }
+
+    /**
+     * Returns a node to the pool and retires its handles
+     */
+    private void release(int n) {
+        generation[n]++;
+        task[n] = null;
+        slot[n] = FREE;
+        next[n] = free;
+        free = n;
+    }
+
+    /**
+     * Finds the node of a handle
+     *
+     * @return the node, or -1 if the handle is stale
+     */
+    private int resolve(long handle) {
+        int n = (int)handle;
+        if(n < 0 || n >= due.length || slot[n] == FREE || generation[n] != (int)(handle >>> 32)) {
+            return -1;
+        }
+        return n;
+    }
+
+    /**
+     * Grows the pool of nodes
+     */
+    private void grow(int capacity) {
+        int old = due.length;
+        due = Arrays.copyOf(due, capacity);
+        period = Arrays.copyOf(period, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        slot = Arrays.copyOf(slot, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        task = Arrays.copyOf(task, capacity);
+        // Generations start at 1 so no handle is ever NONE
+        for(int i = capacity - 1; i >= old; i--) {
+            generation[i] = 1;
+            slot[i] = FREE;
+            next[i] = free;
+            free = i;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.foley.event;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Carries events between the parts of the engine, such as the window and the game loop. Each topic is a ring of
+ * preallocated events that any thread may publish to without blocking or allocating, and one thread, normally the game
+ * thread at the start of each tick, dispatches every topic in turn to its handlers
+ *
+ * Publishing wakes the dispatching thread through the wake up given to the bus, so a parked game loop can still see
+ * window events while it is paused
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class EventBus {
+    private final Runnable wakeup;
+    private volatile Topic<?>[] topics = new Topic<?>[0];
+
+    /**
+     * Creates a new bus that does not wake anything when events are published
+     */
+    public EventBus() {
+        this(null);
+    }
+
+    /**
+     * Creates a new bus
+     *
+     * @param wakeup called after every event is published, from the publishing thread, to wake the dispatching thread.
+     *               May be null
+     */
+    public EventBus(Runnable wakeup) {
+        this.wakeup = wakeup;
+    }
+
+    /**
+     * Creates a new topic on the bus
+     *
+     * @param name the name of the topic, used when reporting dropped events
+     * @param capacity the number of events the topic holds before it drops them. Rounded up to a power of two
+     * @param factory creates the reused event objects of the ring
+     * @param <E> the type of event
+     * @return the topic
+     */
+    public synchronized <E> Topic<E> createTopic(String name, int capacity, Supplier<E> factory) {
+        Topic<E> topic = new Topic<>(name, this, capacity, factory);
+        Topic<?>[] grown = Arrays.copyOf(topics, topics.length + 1);
+        grown[topics.length] = topic;
+        topics = grown;
+        return topic;
+    }
+
+    /**
+     * Hands the events published so far to their handlers, one topic at a time in the order the topics were created.
+     * Should only ever be called from one thread
+     *
+     * @return the number of events handled
+     */
+    public int dispatch() {
+        int count = 0;
+        for(Topic<?> topic : topics) {
+            count += topic.dispatch();
+        }
+        return count;
+    }
+
+    /**
+     * Wakes the dispatching thread after an event is published
+     */
+    void wake() {
+        if(wakeup != null) {
+            wakeup.run();
+        }
+    }
+}
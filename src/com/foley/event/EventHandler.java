@@ -0,0 +1,20 @@
+package com.foley.event;
+
+/**
+ * Receives the events of a topic. Handlers are always called on the thread that dispatches the bus, which for a game is
+ * the game thread at the start of a tick
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface EventHandler<E> {
+    /**
+     * Called for each event, in the order the events were published. The event is a reused slot of the topic, so it
+     * must not be kept after this call returns
+     *
+     * @param event the event
+     * @param sequence the sequence number of the event within its topic
+     * @param endOfBatch true if this is the last event of the topic handled in this dispatch
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
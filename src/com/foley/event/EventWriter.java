@@ -0,0 +1,17 @@
+package com.foley.event;
+
+/**
+ * Fills in a claimed event slot before it is published. A writer that captures nothing is created once by Java, so
+ * publishing through one allocates nothing
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface EventWriter<E> {
+    /**
+     * Writes the event
+     *
+     * @param event the slot to fill in. It still holds whatever the last event published in it held
+     */
+    void write(E event);
+}
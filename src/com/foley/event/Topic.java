@@ -0,0 +1,195 @@
+package com.foley.event;
+
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * A stream of one type of event, held in a ring of event objects that are created once and reused. Any thread may
+ * publish: a slot is claimed, filled in and then published, and a full ring drops the event rather than wait, so
+ * publishing never blocks. Handlers are subscribed and called on the thread that dispatches the bus
+ *
+ * Every sequence that is claimed must be published, since the topic hands events to its handlers strictly in sequence
+ * order and waits at the first one that has not been published
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class Topic<E> {
+    private static final LogSite FULL = new LogSite(Level.WARNING, "Topic \"%s\" is full. The event was dropped");
+
+    private final String name;
+    private final EventBus bus;
+    private final Object[] events;
+    private final int mask;
+
+    // A slot is published by storing its sequence number once the event is in place
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed;
+
+    // Only touched by the dispatching thread
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private EventHandler<? super E>[] handlers = new EventHandler[0];
+
+    /**
+     * Creates a new topic. Topics are created through EventBus.createTopic
+     */
+    Topic(String name, EventBus bus, int capacity, Supplier<E> factory) {
+        this.name = name;
+        this.bus = bus;
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        events = new Object[size];
+        published = new AtomicLongArray(size);
+        for(int i = 0; i < size; i++) {
+            events[i] = factory.get();
+            published.set(i, -1L);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Gets the name of the topic
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of events the topic can hold before it has to drop them
+     *
+     * @return the capacity of the ring
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Claims the next slot of the ring. The event at the sequence must then be filled in through get and handed over
+     * with publish
+     *
+     * @return the sequence of the claimed slot, or -1 if the ring is full and the event has to be dropped
+     */
+    public long claim() {
+        long seq;
+        do {
+            seq = claimed.get();
+            if(seq - consumed >= events.length) {
+                dropped.incrementAndGet();
+                FULL.log(name);
+                return -1L;
+            }
+        } while(!claimed.compareAndSet(seq, seq + 1));
+        return seq;
+    }
+
+    /**
+     * Gets the event in a claimed slot
+     *
+     * @param sequence the sequence returned by claim
+     * @return the event to fill in
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E)events[(int)(sequence & mask)];
+    }
+
+    /**
+     * Hands a filled in event over to the handlers, and wakes the thread that dispatches the bus
+     *
+     * @param sequence the sequence returned by claim
+     */
+    public void publish(long sequence) {
+        published.lazySet((int)(sequence & mask), sequence);
+        bus.wake();
+    }
+
+    /**
+     * Claims a slot, fills it in with a writer and publishes it. The event is published even if the writer throws, so
+     * the topic never stalls at a claimed slot, and handlers see it as the writer left it
+     *
+     * @param writer the writer that fills in the event
+     * @return false if the ring was full and the event was dropped
+     */
+    public boolean publish(EventWriter<? super E> writer) {
+        long seq = claim();
+        if(seq < 0L) {
+            return false;
+        }
+        try {
+            writer.write(get(seq));
+        } finally {
+            publish(seq);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of events dropped because the ring was full
+     *
+     * @return the number of dropped events
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Adds a handler. Must be called on the thread that dispatches the bus
+     *
+     * @param handler the handler
+     */
+    public void subscribe(EventHandler<? super E> handler) {
+        handlers = Arrays.copyOf(handlers, handlers.length + 1);
+        handlers[handlers.length - 1] = handler;
+    }
+
+    /**
+     * Removes a handler. Must be called on the thread that dispatches the bus
+     *
+     * @param handler the handler
+     * @return true if the handler was subscribed
+     */
+    public boolean unsubscribe(EventHandler<? super E> handler) {
+        for(int i = 0; i < handlers.length; i++) {
+            if(handlers[i] == handler) {
+                EventHandler<? super E>[] kept = Arrays.copyOf(handlers, handlers.length - 1);
+                System.arraycopy(handlers, i + 1, kept, i, kept.length - i);
+                handlers = kept;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands every event published before the call to the handlers as one batch. Events published by the handlers
+     * themselves wait for the next dispatch
+     *
+     * @return the number of events handled
+     */
+    int dispatch() {
+        long start = consumed;
+        long end = start;
+        long limit = claimed.get();
+        while(end < limit && published.get((int)(end & mask)) == end) {
+            end++;
+        }
+        EventHandler<? super E>[] current = handlers;
+        for(long seq = start; seq < end; seq++) {
+            E event = get(seq);
+            for(EventHandler<? super E> handler : current) {
+                handler.onEvent(event, seq, seq + 1 == end);
+            }
+            // Only hand the slot back once every handler is done with it
+            consumed = seq + 1;
+        }
+        return (int)(end - start);
+    }
+}
@@ -0,0 +1,124 @@
+package com.foley.graphic;
+
+import java.util.Arrays;
+
+/**
+ * A sequence of sprite sheet frames with a duration for each frame. An animation holds no playback state, so a single
+ * animation can be shared by any number of animators
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Animation {
+    private final SpriteSheet sheet;
+    private final int[] frames;
+    private final int[] durations;
+    private final PlayMode mode;
+
+    /**
+     * Allows for different ways of playing through the frames
+     */
+    public enum PlayMode {
+        ONCE,
+        LOOP,
+        PING_PONG;
+    }
+
+    /**
+     * Creates a new animation where every frame lasts the same number of ticks
+     *
+     * @param sheet the sprite sheet the frames come from
+     * @param ticksPerFrame the number of updates each frame is shown for
+     * @param mode how the frames are played through
+     * @param frames the sheet frames in the order they are shown
+     */
+    public Animation(SpriteSheet sheet, int ticksPerFrame, PlayMode mode, int... frames) {
+        this(sheet, frames, filled(frames.length, ticksPerFrame), mode);
+    }
+
+    /**
+     * Creates a new animation
+     *
+     * @param sheet the sprite sheet the frames come from
+     * @param frames the sheet frames in the order they are shown
+     * @param durations the number of updates each frame is shown for
+     * @param mode how the frames are played through
+     */
+    public Animation(SpriteSheet sheet, int[] frames, int[] durations, PlayMode mode) {
+        if(frames.length == 0 || frames.length != durations.length) {
+            throw new IllegalArgumentException("An animation needs at least one frame, and one duration per frame");
+        }
+        for(int i = 0; i < frames.length; i++) {
+            if(frames[i] < 0 || frames[i] >= sheet.getFrameCount()) {
+                throw new IllegalArgumentException("Frame " + frames[i] + " is not in the sprite sheet");
+            }
+            if(durations[i] <= 0) {
+                throw new IllegalArgumentException("Frame durations must be greater than 0");
+            }
+        }
+        this.sheet = sheet;
+        this.frames = frames.clone();
+        this.durations = durations.clone();
+        this.mode = mode;
+    }
+
+    /**
+     * Gets the sprite sheet the frames come from
+     *
+     * @return the sprite sheet
+     */
+    public SpriteSheet getSheet() {
+        return sheet;
+    }
+
+    /**
+     * Gets the number of frames in the sequence
+     *
+     * @return the length of the sequence
+     */
+    public int getLength() {
+        return frames.length;
+    }
+
+    /**
+     * Gets the sheet frame at a position in the sequence
+     *
+     * @param index the position in the sequence
+     * @return the sheet frame
+     */
+    public int getFrame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * Gets the number of updates the frame at a position in the sequence is shown for
+     *
+     * @param index the position in the sequence
+     * @return the duration of the frame in updates
+     */
+    public int getDuration(int index) {
+        return durations[index];
+    }
+
+    /**
+     * Gets how the frames are played through
+     *
+     * @return the play mode
+     */
+    public PlayMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Creates an array filled with a single value
+     *
+     * @param length the length of the array
+     * @param value the value
+     * @return the filled array
+     */
+    private static int[] filled(int length, int value) {
+        int[] arr = new int[length];
+        Arrays.fill(arr, value);
+        return arr;
+    }
+}
@@ -0,0 +1,108 @@
+package com.foley.graphic;
+
+/**
+ * Plays an animation. Animators are advanced once per update so playback speed is tied to the fixed update rate and
+ * not to the frame rate
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Animator {
+    private Animation animation;
+    private int index;
+    private int ticksLeft;
+    private int direction;
+    private boolean playing;
+
+    /**
+     * Creates a new animator
+     *
+     * @param animation the animation to play
+     */
+    public Animator(Animation animation) {
+        play(animation);
+    }
+
+    /**
+     * Starts playing an animation from the first frame
+     *
+     * @param animation the animation to play
+     */
+    public void play(Animation animation) {
+        this.animation = animation;
+        index = 0;
+        ticksLeft = animation.getDuration(0);
+        direction = 1;
+        playing = true;
+    }
+
+    /**
+     * Advances the animation by one update
+     */
+    public void update() {
+        if(!playing || --ticksLeft > 0) {
+            return;
+        }
+
+        int length = animation.getLength();
+        int next = index + direction;
+        if(next < 0 || next >= length) {
+            switch(animation.getMode()) {
+                case LOOP:
+                    next = 0;
+                    break;
+                case PING_PONG:
+                    direction = -direction;
+                    next = length > 1 ? index + direction : index;
+                    break;
+                default:
+                    // Hold the last frame once the animation is done
+                    playing = false;
+                    return;
+            }
+        }
+        index = next;
+        ticksLeft = animation.getDuration(index);
+    }
+
+    /**
+     * Pauses the animation on its current frame
+     */
+    public void pause() {
+        playing = false;
+    }
+
+    /**
+     * Resumes the animation from its current frame
+     */
+    public void resume() {
+        playing = true;
+    }
+
+    /**
+     * Determines if the animation is still playing. Animations that play once stop on their last frame
+     *
+     * @return true if the animation is playing
+     */
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * Gets the animation being played
+     *
+     * @return the animation
+     */
+    public Animation getAnimation() {
+        return animation;
+    }
+
+    /**
+     * Gets the sprite sheet frame currently being shown
+     *
+     * @return the current sheet frame
+     */
+    public int getFrame() {
+        return animation.getFrame(index);
+    }
+}
@@ -0,0 +1,434 @@
+package com.foley.graphic;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Composites full screen layers such as HUDs, fog and lighting over the render target in software. The frame is split
+ * into horizontal bands that are blended in parallel on the common fork/join pool. Every kernel has a packed form,
+ * which blends red and blue together in one multiply, and a per channel scalar form. All forms round the same way, so
+ * the parallel, packed and scalar paths produce identical pixels
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Compositor {
+    // Frames with fewer pixels than this are blended on the calling thread
+    private static final int PARALLEL_THRESHOLD = 65536;
+    private static final int RB = 0x00FF00FF;
+    private static final int G = 0x0000FF00;
+    private static final int CARRY = 0x01000100;
+
+    /**
+     * The ways a layer can be combined with the pixels under it
+     */
+    public enum Mode {
+        // Draws the layer over the frame using the layer's alpha
+        ALPHA,
+        // Adds the layer, scaled by its alpha, to the frame. Channels saturate at full brightness
+        ADD,
+        // Multiplies the frame by the layer. The layer's alpha is ignored
+        MULTIPLY;
+    }
+
+    private final ForkJoinPool pool;
+    private final Band[] bands;
+    private final RecursiveAction root;
+    private boolean parallel;
+    private boolean packed;
+
+    // Arguments of the composite in progress, read by the bands
+    private int[] src;
+    private int srcOffset;
+    private int srcStride;
+    private int[] dst;
+    private int dstOffset;
+    private int dstStride;
+    private int width;
+    private Mode mode;
+
+    // Arguments of a scaled multiply in progress. The layer is upscaled with bilinear filtering as it is read
+    private int[] light;
+    private int lightWidth;
+    private int lightHeight;
+    private long columnStep;
+    // Runs of frame columns that read between the same two layer columns, the same for every row
+    private int[] runColumn = new int[0];
+    private int[] runLength = new int[0];
+    private int[] runWeight = new int[0];
+    private int runs;
+    private long rowStart;
+    private long rowStep;
+
+    /**
+     * Creates a new compositor
+     */
+    public Compositor() {
+        pool = ForkJoinPool.commonPool();
+        bands = new Band[Math.max(1, pool.getParallelism())];
+        for(int i = 0; i < bands.length; i++) {
+            bands[i] = new Band();
+        }
+        root = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for(int i = 1; i < bands.length; i++) {
+                    bands[i].fork();
+                }
+                bands[0].compute();
+                for(int i = 1; i < bands.length; i++) {
+                    bands[i].join();
+                }
+            }
+        };
+        parallel = true;
+        packed = true;
+    }
+
+    /**
+     * Composites a layer over the visible region of the render target. Layer pixels map one to one onto render
+     * target pixels, starting at the top left corner
+     *
+     * @param renderer the renderer whose render target is drawn over
+     * @param layer the layer pixels as ARGB values
+     * @param layerWidth the width of the layer
+     * @param layerHeight the height of the layer
+     * @param mode how the layer is combined with the frame
+     */
+    public void composite(Renderer renderer, int[] layer, int layerWidth, int layerHeight, Mode mode) {
+        // Shapes drawn before the layer are still batched, and must be in the pixels before the layer goes over them
+        renderer.flushShapes();
+        int[] pixels = renderer.getPixels();
+        int w = Math.min(layerWidth, renderer.getRenderWidth());
+        int h = Math.min(layerHeight, renderer.getRenderHeight());
+        composite(layer, 0, layerWidth, pixels, 0, renderer.getWidth(), w, h, mode);
+    }
+
+    /**
+     * Composites a rectangle of layer pixels over a rectangle of frame pixels of the same size
+     *
+     * @param src the layer pixels as ARGB values
+     * @param srcOffset the index of the first layer pixel
+     * @param srcStride the number of pixels in a layer row
+     * @param dst the frame pixels
+     * @param dstOffset the index of the first frame pixel
+     * @param dstStride the number of pixels in a frame row
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     * @param mode how the layer is combined with the frame
+     */
+    public void composite(int[] src, int srcOffset, int srcStride, int[] dst, int dstOffset, int dstStride, int width, int height, Mode mode) {
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+        this.src = src;
+        this.srcOffset = srcOffset;
+        this.srcStride = srcStride;
+        this.dst = dst;
+        this.dstOffset = dstOffset;
+        this.dstStride = dstStride;
+        this.width = width;
+        this.mode = mode;
+
+        run(height);
+
+        // Do not hold on to the caller's arrays
+        this.src = null;
+        this.dst = null;
+    }
+
+    /**
+     * Multiplies a frame by a smaller layer, upscaling the layer with bilinear filtering as it goes, so the full size
+     * layer never exists. Frame pixel (x, y) reads the layer at (columnStart + x * columnStep, rowStart + y * rowStep),
+     * in 16.16 fixed point layer pixels, between the layer pixel at that position and the ones after it. Positions
+     * must leave a layer row and column after the ones they read
+     *
+     * @param light the layer pixels as opaque RGB values
+     * @param lightWidth the width of the layer
+     * @param lightHeight the height of the layer
+     * @param columnStart the layer column position of the first frame column, in 16.16 fixed point
+     * @param columnStep the distance between frame columns in layer columns, in 16.16 fixed point
+     * @param rowStart the layer row position of the first frame row, in 16.16 fixed point
+     * @param rowStep the distance between frame rows in layer rows, in 16.16 fixed point
+     * @param dst the frame pixels
+     * @param dstStride the number of pixels in a frame row
+     * @param width the number of frame columns
+     * @param height the number of frame rows
+     */
+    void multiplyScaled(int[] light, int lightWidth, int lightHeight, long columnStart, long columnStep, long rowStart, long rowStep, int[] dst, int dstStride, int width, int height) {
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+        this.light = light;
+        this.lightWidth = lightWidth;
+        this.lightHeight = lightHeight;
+        this.columnStep = columnStep;
+        splitColumns(columnStart, width);
+        this.rowStart = rowStart;
+        this.rowStep = rowStep;
+        this.dst = dst;
+        this.dstOffset = 0;
+        this.dstStride = dstStride;
+        this.width = width;
+
+        run(height);
+
+        this.light = null;
+        this.dst = null;
+    }
+
+    /**
+     * Splits the frame columns into runs that read between the same two layer columns
+     *
+     * @param columnStart the layer column position of the first frame column, in 16.16 fixed point
+     * @param width the number of frame columns
+     */
+    private void splitColumns(long columnStart, int width) {
+        int lastColumn = lightWidth - 2;
+        long u = columnStart;
+        int x = 0;
+        runs = 0;
+        while(x < width) {
+            int ix = (int)(u >> 16);
+            long next = ((long)(ix + 1) << 16) - u;
+            int run = (int)Math.min(width - x, Math.max(1L, (next + columnStep - 1) / columnStep));
+            if(runs == runColumn.length) {
+                int size = Math.max(64, runs * 2);
+                runColumn = Arrays.copyOf(runColumn, size);
+                runLength = Arrays.copyOf(runLength, size);
+                runWeight = Arrays.copyOf(runWeight, size);
+            }
+            runColumn[runs] = Math.max(0, Math.min(lastColumn, ix));
+            runLength[runs] = run;
+            runWeight[runs] = (int)(u & 0xFFFF);
+            runs++;
+            x += run;
+            u += run * columnStep;
+        }
+    }
+
+    /**
+     * Composites every row of the operation in progress, in parallel bands if the frame is large enough
+     *
+     * @param height the number of rows
+     */
+    private void run(int height) {
+        if(!parallel || bands.length == 1 || (long)width * height < PARALLEL_THRESHOLD) {
+            bands[0].from = 0;
+            bands[0].to = height;
+            bands[0].compute();
+        } else {
+            int per = (height + bands.length - 1) / bands.length;
+            for(int i = 0; i < bands.length; i++) {
+                bands[i].reinitialize();
+                bands[i].from = Math.min(height, i * per);
+                bands[i].to = Math.min(height, (i + 1) * per);
+            }
+            root.reinitialize();
+            pool.invoke(root);
+        }
+    }
+
+    /**
+     * Composites a range of rows
+     *
+     * @param from the first row
+     * @param to one past the last row
+     * @param scratch a row of layer pixels for the band to use
+     */
+    private void rows(int from, int to, int[] scratch) {
+        if(light != null) {
+            multiplyScaledRows(from, to, scratch);
+            return;
+        }
+        for(int row = from; row < to; row++) {
+            int s = srcOffset + row * srcStride;
+            int d = dstOffset + row * dstStride;
+            switch(mode) {
+                case ALPHA:
+                    if(packed) {
+                        alphaPacked(src, s, dst, d, width);
+                    } else {
+                        alphaScalar(src, s, dst, d, width);
+                    }
+                    break;
+                case ADD:
+                    if(packed) {
+                        addPacked(src, s, dst, d, width);
+                    } else {
+                        addScalar(src, s, dst, d, width);
+                    }
+                    break;
+                default:
+                    multiply(src, s, dst, d, width);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Multiplies a range of rows by the upscaled layer. Each row first blends its two layer rows into the scratch row,
+     * which is a fraction of the frame width. Across the row, each channel of the light then moves by a fixed step per
+     * pixel between layer columns, so a pixel costs a few adds on top of the multiply
+     */
+    private void multiplyScaledRows(int from, int to, int[] scratch) {
+        int lastRow = lightHeight - 2;
+        for(int row = from; row < to; row++) {
+            long v = rowStart + row * rowStep;
+            int iy = Math.max(0, Math.min(lastRow, (int)(v >> 16)));
+            int fy = (int)((v >> 8) & 0xFF);
+            int top = iy * lightWidth;
+            int bottom = top + lightWidth;
+            for(int i = 0; i < lightWidth; i++) {
+                scratch[i] = PixelOps.lerp(light[top + i], light[bottom + i], fy);
+            }
+
+            int d = dstOffset + row * dstStride;
+            int step = (int)columnStep;
+            for(int n = 0; n < runs; n++) {
+                int a = scratch[runColumn[n]];
+                int b = scratch[runColumn[n] + 1];
+                int fx = runWeight[n];
+                // Channels in 16.16 fixed point, stepped across the run
+                int dr = ((b >>> 16) & 0xFF) - ((a >>> 16) & 0xFF);
+                int dg = ((b >>> 8) & 0xFF) - ((a >>> 8) & 0xFF);
+                int db = (b & 0xFF) - (a & 0xFF);
+                int r = (((a >>> 16) & 0xFF) << 16) + dr * fx;
+                int g = (((a >>> 8) & 0xFF) << 16) + dg * fx;
+                int bl = ((a & 0xFF) << 16) + db * fx;
+                int sr = dr * step;
+                int sg = dg * step;
+                int sb = db * step;
+                for(int end = d + runLength[n]; d < end; d++) {
+                    int c = dst[d];
+                    int cr = PixelOps.div255(((c >>> 16) & 0xFF) * (r >>> 16));
+                    int cg = PixelOps.div255(((c >>> 8) & 0xFF) * (g >>> 16));
+                    int cb = PixelOps.div255((c & 0xFF) * (bl >>> 16));
+                    dst[d] = 0xFF000000 | (cr << 16) | (cg << 8) | cb;
+                    r += sr;
+                    g += sg;
+                    bl += sb;
+                }
+            }
+        }
+    }
+
+    /**
+     * Alpha blends a row with red and blue blended together
+     */
+    static void alphaPacked(int[] src, int s, int[] dst, int d, int n) {
+        for(int i = 0; i < n; i++) {
+            dst[d + i] = PixelOps.blend(src[s + i], dst[d + i]);
+        }
+    }
+
+    /**
+     * Alpha blends a row one channel at a time
+     */
+    static void alphaScalar(int[] src, int s, int[] dst, int d, int n) {
+        for(int i = 0; i < n; i++) {
+            int sp = src[s + i];
+            int dp = dst[d + i];
+            int a = sp >>> 24;
+            int ia = 0xFF - a;
+            int r = PixelOps.div255(((sp >>> 16) & 0xFF) * a + ((dp >>> 16) & 0xFF) * ia);
+            int g = PixelOps.div255(((sp >>> 8) & 0xFF) * a + ((dp >>> 8) & 0xFF) * ia);
+            int b = PixelOps.div255((sp & 0xFF) * a + (dp & 0xFF) * ia);
+            dst[d + i] = 0xFF000000 | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Adds a row with red and blue added together, saturating each channel
+     */
+    static void addPacked(int[] src, int s, int[] dst, int d, int n) {
+        for(int i = 0; i < n; i++) {
+            int sp = src[s + i];
+            int dp = dst[d + i];
+            int a = sp >>> 24;
+            int rb = PixelOps.div255RB((sp & RB) * a) + (dp & RB);
+            int g = (PixelOps.div255(((sp & G) >>> 8) * a) << 8) + (dp & G);
+            // Any lane that carried past 255 is filled with ones
+            int carry = rb & CARRY;
+            rb = (rb | (carry - (carry >>> 8))) & RB;
+            g = (g | ((g & 0x10000) - ((g & 0x10000) >>> 8))) & G;
+            dst[d + i] = 0xFF000000 | rb | g;
+        }
+    }
+
+    /**
+     * Adds a row one channel at a time, saturating each channel
+     */
+    static void addScalar(int[] src, int s, int[] dst, int d, int n) {
+        for(int i = 0; i < n; i++) {
+            int sp = src[s + i];
+            int dp = dst[d + i];
+            int a = sp >>> 24;
+            int r = Math.min(0xFF, ((dp >>> 16) & 0xFF) + PixelOps.div255(((sp >>> 16) & 0xFF) * a));
+            int g = Math.min(0xFF, ((dp >>> 8) & 0xFF) + PixelOps.div255(((sp >>> 8) & 0xFF) * a));
+            int b = Math.min(0xFF, (dp & 0xFF) + PixelOps.div255((sp & 0xFF) * a));
+            dst[d + i] = 0xFF000000 | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Multiplies a row. Each channel needs its own multiplier, so there is no packed form
+     */
+    static void multiply(int[] src, int s, int[] dst, int d, int n) {
+        for(int i = 0; i < n; i++) {
+            dst[d + i] = multiply(src[s + i], dst[d + i]);
+        }
+    }
+
+    /**
+     * Multiplies two colors channel by channel
+     *
+     * @param light the color to multiply by
+     * @param color the color being multiplied
+     * @return the opaque product
+     */
+    static int multiply(int light, int color) {
+        int r = PixelOps.div255(((color >>> 16) & 0xFF) * ((light >>> 16) & 0xFF));
+        int g = PixelOps.div255(((color >>> 8) & 0xFF) * ((light >>> 8) & 0xFF));
+        int b = PixelOps.div255((color & 0xFF) * (light & 0xFF));
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Sets if large frames are split across threads
+     *
+     * @param parallel true to composite bands in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Sets if the packed kernels are used. The scalar kernels exist to check the packed kernels against
+     *
+     * @param packed true to use the packed kernels
+     */
+    public void setPacked(boolean packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * A reusable task that composites a band of rows
+     */
+    private class Band extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        int from;
+        int to;
+        int[] scratch = new int[0];
+
+        @Override
+        protected void compute() {
+            if(light != null && scratch.length < lightWidth) {
+                scratch = new int[lightWidth];
+            }
+            rows(from, to, scratch);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.foley.graphic;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A recorded sequence of drawing commands for content that rarely changes, such as menus, HUD frames and background
+ * scenery. Commands are encoded into primitive arrays so replaying a list is a tight loop. A cached list is drawn into
+ * an image once, and is drawn as a single image until it is changed or invalidated. Cached and uncached lists draw the
+ * same pixels: text is antialiased either way and starts in the font the renderer has when the list is drawn, and
+ * textures, sprites and images are centered on their position rounded down to a whole pixel, as the Renderer draws
+ * sprites
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class DisplayList {
+    private static final int SET_FONT = 0;
+    private static final int DRAW_TEXT = 1;
+    private static final int DRAW_TEXTURE = 2;
+    private static final int DRAW_SPRITE = 3;
+    private static final int DRAW_IMAGE = 4;
+    private static final int TRANSLATE = 5;
+    private static final int ROTATE = 6;
+    private static final int SCALE = 7;
+    private static final int PUSH_MATRIX = 8;
+    private static final int POP_MATRIX = 9;
+
+    private final int width;
+    private final int height;
+
+    // Encoded commands. Each opcode is followed by its integer operands
+    private int[] ops;
+    private int opCount;
+    private double[] numbers;
+    private int numberCount;
+    private Object[] refs;
+    private int refCount;
+    private final IdentityHashMap<Object, Integer> refIndices;
+
+    // Replay state
+    private AffineTransform[] matrices;
+    private AffineTransform current;
+
+    // Cached image of the list
+    private boolean cached;
+    private boolean dirty;
+    private BufferedImage image;
+    private Font imageFont;
+
+    /**
+     * Creates a new display list
+     *
+     * @param width the width of the area the list draws in, used when the list is cached
+     * @param height the height of the area the list draws in, used when the list is cached
+     */
+    public DisplayList(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        ops = new int[64];
+        numbers = new double[64];
+        refs = new Object[16];
+        refIndices = new IdentityHashMap<>();
+        matrices = new AffineTransform[0];
+        current = new AffineTransform();
+        dirty = true;
+    }
+
+    /**
+     * Sets the font used by text drawn after this command
+     *
+     * @param font the font
+     */
+    public void setFont(Font font) {
+        op(SET_FONT);
+        op(ref(font));
+    }
+
+    /**
+     * Draws a string with its baseline starting at a position
+     *
+     * @param color the color to make the text
+     * @param text the text to draw
+     * @param x the x position
+     * @param y the y position
+     */
+    public void drawText(Color color, String text, int x, int y) {
+        op(DRAW_TEXT);
+        op(ref(color));
+        op(ref(text));
+        op(x);
+        op(y);
+    }
+
+    /**
+     * Draws a texture centered on a position
+     *
+     * @param texture the texture
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawTexture(Texture texture, double x, double y) {
+        op(DRAW_TEXTURE);
+        op(ref(texture));
+        number(x);
+        number(y);
+    }
+
+    /**
+     * Draws a frame of a sprite sheet centered on a position
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawSprite(SpriteSheet sheet, int frame, double x, double y) {
+        op(DRAW_SPRITE);
+        op(ref(sheet));
+        op(frame);
+        number(x);
+        number(y);
+    }
+
+    /**
+     * Draws an image centered on a position
+     *
+     * @param img the image
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawImage(Image img, double x, double y) {
+        op(DRAW_IMAGE);
+        op(ref(img));
+        number(x);
+        number(y);
+    }
+
+    /**
+     * Moves everything drawn after this command
+     *
+     * @param x the x distance
+     * @param y the y distance
+     */
+    public void translate(double x, double y) {
+        op(TRANSLATE);
+        number(x);
+        number(y);
+    }
+
+    /**
+     * Rotates everything drawn after this command around the origin
+     *
+     * @param theta the angle in radians
+     */
+    public void rotate(double theta) {
+        op(ROTATE);
+        number(theta);
+    }
+
+    /**
+     * Scales everything drawn after this command
+     *
+     * @param x the horizontal scale
+     * @param y the vertical scale
+     */
+    public void scale(double x, double y) {
+        op(SCALE);
+        number(x);
+        number(y);
+    }
+
+    /**
+     * Saves the current transformation
+     */
+    public void pushMatrix() {
+        op(PUSH_MATRIX);
+    }
+
+    /**
+     * Restores the last saved transformation
+     */
+    public void popMatrix() {
+        op(POP_MATRIX);
+    }
+
+    /**
+     * Removes every recorded command so the list can be recorded again
+     */
+    public void clear() {
+        opCount = 0;
+        numberCount = 0;
+        Arrays.fill(refs, 0, refCount, null);
+        refCount = 0;
+        refIndices.clear();
+        dirty = true;
+    }
+
+    /**
+     * Marks the cached image as out of date, for when something the list draws, such as a texture, has changed
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Sets if the list is drawn into an image once and then drawn as that image
+     *
+     * @param cached true to cache the list as an image
+     */
+    public void setCached(boolean cached) {
+        this.cached = cached;
+        if(!cached) {
+            image = null;
+            imageFont = null;
+        }
+        dirty = true;
+    }
+
+    /**
+     * Determines if the list is drawn from a cached image
+     *
+     * @return true if the list is cached
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Gets the cached image of the list, drawing it again first if it is out of date or was drawn in another font
+     *
+     * @param font the font text is drawn in until the list sets its own, as an uncached replay would start with
+     * @return the cached image
+     */
+    Image getImage(Font font) {
+        if(image == null) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        if(dirty || !font.equals(imageFont)) {
+            Graphics2D ig = image.createGraphics();
+            ig.setComposite(AlphaComposite.Clear);
+            ig.fillRect(0, 0, width, height);
+            ig.setComposite(AlphaComposite.SrcOver);
+            ig.setFont(font);
+            replay(ig, new AffineTransform());
+            ig.dispose();
+            imageFont = font;
+            dirty = false;
+        }
+        return image;
+    }
+
+    /**
+     * Runs the recorded commands against a graphics context. The transformation, font and text antialiasing of the
+     * context are restored afterwards
+     *
+     * @param g the graphics context to draw with
+     * @param base the transformation the context currently has
+     */
+    void replay(Graphics2D g, AffineTransform base) {
+        current.setTransform(base);
+        Font font = g.getFont();
+        Object textAntialiasing = g.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int depth = 0;
+        int n = 0;
+        for(int pc = 0; pc < opCount; ) {
+            switch(ops[pc++]) {
+                case SET_FONT:
+                    g.setFont((Font)refs[ops[pc++]]);
+                    break;
+                case DRAW_TEXT:
+                    g.setColor((Color)refs[ops[pc++]]);
+                    g.drawString((String)refs[ops[pc++]], ops[pc++], ops[pc++]);
+                    break;
+                case DRAW_TEXTURE: {
+                    Texture texture = (Texture)refs[ops[pc++]];
+                    int x = (int)Math.floor(numbers[n++]) - texture.getWidth() / 2;
+                    int y = (int)Math.floor(numbers[n++]) - texture.getHeight() / 2;
+                    g.drawImage(texture.getImage(), x, y, null);
+                    break;
+                }
+                case DRAW_SPRITE: {
+                    SpriteSheet sheet = (SpriteSheet)refs[ops[pc++]];
+                    int frame = ops[pc++];
+                    int w = sheet.getFrameWidth(frame);
+                    int h = sheet.getFrameHeight(frame);
+                    int sx = sheet.getFrameX(frame);
+                    int sy = sheet.getFrameY(frame);
+                    int x = (int)Math.floor(numbers[n++]) - w / 2;
+                    int y = (int)Math.floor(numbers[n++]) - h / 2;
+                    g.drawImage(sheet.getTexture().getImage(), x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+                    break;
+                }
+                case DRAW_IMAGE: {
+                    Image img = (Image)refs[ops[pc++]];
+                    int x = (int)Math.floor(numbers[n++]) - img.getWidth(null) / 2;
+                    int y = (int)Math.floor(numbers[n++]) - img.getHeight(null) / 2;
+                    g.drawImage(img, x, y, null);
+                    break;
+                }
+                case TRANSLATE:
+                    current.translate(numbers[n++], numbers[n++]);
+                    g.setTransform(current);
+                    break;
+                case ROTATE:
+                    current.rotate(numbers[n++]);
+                    g.setTransform(current);
+                    break;
+                case SCALE:
+                    current.scale(numbers[n++], numbers[n++]);
+                    g.setTransform(current);
+                    break;
+                case PUSH_MATRIX:
+                    if(depth == matrices.length) {
+                        matrices = Arrays.copyOf(matrices, Math.max(4, matrices.length * 2));
+                        for(int i = depth; i < matrices.length; i++) {
+                            matrices[i] = new AffineTransform();
+                        }
+                    }
+                    matrices[depth++].setTransform(current);
+                    break;
+                default:
+                    if(depth > 0) {
+                        current.setTransform(matrices[--depth]);
+                        g.setTransform(current);
+                    }
+                    break;
+            }
+        }
+        g.setTransform(base);
+        g.setFont(font);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, textAntialiasing);
+    }
+
+    /**
+     * Appends an integer to the command stream
+     */
+    private void op(int value) {
+        if(opCount == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+        }
+        ops[opCount++] = value;
+        dirty = true;
+    }
+
+    /**
+     * Appends a number to the operand stream
+     */
+    private void number(double value) {
+        if(numberCount == numbers.length) {
+            numbers = Arrays.copyOf(numbers, numbers.length * 2);
+        }
+        numbers[numberCount++] = value;
+    }
+
+    /**
+     * Stores an object operand, reusing the slot of an identical object already in the list
+     *
+     * @return the index of the object
+     */
+    private int ref(Object value) {
+        Integer index = refIndices.get(value);
+        if(index != null) {
+            return index;
+        }
+        if(refCount == refs.length) {
+            refs = Arrays.copyOf(refs, refs.length * 2);
+        }
+        refs[refCount] = value;
+        refIndices.put(value, refCount);
+        return refCount++;
+    }
+
+    /**
+     * Gets the width of the area the list draws in
+     *
+     * @return the width of the list
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the area the list draws in
+     *
+     * @return the height of the list
+     */
+    public int getHeight() {
+        return height;
+    }
+}
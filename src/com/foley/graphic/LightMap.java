@@ -0,0 +1,405 @@
+package com.foley.graphic;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Lights a scene with point and cone lights. Lights are added up in a light map at a fraction of the screen
+ * resolution, which is then upscaled with bilinear filtering and multiplied over the frame in a single pass. Pixels
+ * no light reaches take the ambient color
+ *
+ * Static lights are drawn into a cached map that is only drawn again when a static light changes. When the camera
+ * moves, the cached map is shifted and only the newly uncovered edge is lit again. Dynamic lights are added on top of
+ * a copy of the cached map every frame. Light positions and radii are in world coordinates
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class LightMap {
+    private static final int RB = 0x00FF00FF;
+    private static final int G = 0x0000FF00;
+    // Extra light map pixels around the screen, so bilinear filtering always has a pixel on either side
+    private static final int MARGIN = 2;
+
+    // Brightness from the center of a light out to its radius, indexed by the squared distance scaled to 0-255
+    private static final int[] FALLOFF = new int[257];
+    static {
+        for(int i = 0; i <= 256; i++) {
+            double t = 1.0 - Math.min(1.0, i / 255.0);
+            FALLOFF[i] = (int)Math.round(255.0 * t * t);
+        }
+    }
+
+    private final int downscale;
+    private int ambient;
+
+    // Lights, kept in parallel arrays. A radius of 0 marks a free slot
+    private double[] x;
+    private double[] y;
+    private double[] radius;
+    private int[] color;
+    private double[] direction;
+    private double[] cosOuter;
+    private double[] cosInner;
+    private boolean[] dynamic;
+    private boolean[] cone;
+    private int capacity;
+    private int count;
+    private int[] free;
+    private int freeCount;
+
+    // The static map, the map of the frame being drawn, and a spare for shifting the static map
+    private int[] staticMap;
+    private int[] frameMap;
+    private int[] spare;
+    private int mapWidth;
+    private int mapHeight;
+    private int originX;
+    private int originY;
+    private boolean staticDirty;
+
+    /**
+     * Creates a new light map
+     *
+     * @param downscale how many screen pixels wide and high each light map pixel covers. 4 lights a 1920x1080 screen
+     *                  with a 484x274 map
+     */
+    public LightMap(int downscale) {
+        this.downscale = Math.max(1, downscale);
+        ambient = 0xFF000000;
+        capacity = 16;
+        x = new double[capacity];
+        y = new double[capacity];
+        radius = new double[capacity];
+        color = new int[capacity];
+        direction = new double[capacity];
+        cosOuter = new double[capacity];
+        cosInner = new double[capacity];
+        dynamic = new boolean[capacity];
+        cone = new boolean[capacity];
+        free = new int[capacity];
+        staticDirty = true;
+    }
+
+    /**
+     * Sets the color of places no light reaches
+     *
+     * @param ambient the ambient color
+     */
+    public void setAmbient(Color ambient) {
+        this.ambient = 0xFF000000 | ambient.getRGB();
+        staticDirty = true;
+    }
+
+    /**
+     * Adds a light that shines in every direction
+     *
+     * @param x the x coordinate of the light
+     * @param y the y coordinate of the light
+     * @param radius the distance the light reaches
+     * @param color the color of the light at its center
+     * @param intensity the brightness of the light, where 1 is the color as given. Channels saturate at full brightness
+     * @param dynamic true if the light will move or change, false if it stays as it is
+     * @return the id of the light
+     */
+    public int addPointLight(double x, double y, double radius, Color color, double intensity, boolean dynamic) {
+        int light = allocate();
+        this.x[light] = x;
+        this.y[light] = y;
+        this.radius[light] = Math.max(1.0, radius);
+        this.color[light] = scale(color, intensity);
+        this.dynamic[light] = dynamic;
+        cone[light] = false;
+        changed(light);
+        return light;
+    }
+
+    /**
+     * Adds a light that shines in a cone. The edge of the cone fades over the outer fifth of its angle
+     *
+     * @param x the x coordinate of the light
+     * @param y the y coordinate of the light
+     * @param radius the distance the light reaches
+     * @param color the color of the light at its center
+     * @param intensity the brightness of the light, where 1 is the color as given. Channels saturate at full brightness
+     * @param direction the direction the cone points in radians, clockwise from the positive x axis
+     * @param angle the full width of the cone in radians
+     * @param dynamic true if the light will move or change, false if it stays as it is
+     * @return the id of the light
+     */
+    public int addConeLight(double x, double y, double radius, Color color, double intensity, double direction, double angle, boolean dynamic) {
+        int light = addPointLight(x, y, radius, color, intensity, dynamic);
+        double half = Math.max(0.0, Math.min(Math.PI, angle / 2));
+        cone[light] = true;
+        this.direction[light] = direction;
+        cosOuter[light] = Math.cos(half);
+        cosInner[light] = Math.cos(half * 0.8);
+        return light;
+    }
+
+    /**
+     * Moves a light
+     *
+     * @param light the id of the light
+     * @param x the new x coordinate
+     * @param y the new y coordinate
+     */
+    public void moveLight(int light, double x, double y) {
+        this.x[light] = x;
+        this.y[light] = y;
+        changed(light);
+    }
+
+    /**
+     * Points a cone light in a new direction
+     *
+     * @param light the id of the light
+     * @param direction the direction the cone points in radians, clockwise from the positive x axis
+     */
+    public void setDirection(int light, double direction) {
+        this.direction[light] = direction;
+        changed(light);
+    }
+
+    /**
+     * Changes the color of a light
+     *
+     * @param light the id of the light
+     * @param color the color of the light at its center
+     * @param intensity the brightness of the light
+     */
+    public void setColor(int light, Color color, double intensity) {
+        this.color[light] = scale(color, intensity);
+        changed(light);
+    }
+
+    /**
+     * Removes a light. Its id may be given to a light added later
+     *
+     * @param light the id of the light
+     */
+    public void removeLight(int light) {
+        if(radius[light] == 0.0) {
+            return;
+        }
+        changed(light);
+        radius[light] = 0.0;
+        free[freeCount++] = light;
+    }
+
+    /**
+     * Removes every light
+     */
+    public void clear() {
+        Arrays.fill(radius, 0.0);
+        count = 0;
+        freeCount = 0;
+        staticDirty = true;
+    }
+
+    /**
+     * Gets the number of lights
+     *
+     * @return the number of lights
+     */
+    public int getLightCount() {
+        return count - freeCount;
+    }
+
+    /**
+     * Lights the frame in the render target. Should be called after the scene is drawn and before anything that should
+     * not be lit, such as the HUD
+     *
+     * @param renderer the renderer holding the frame
+     * @param compositor the compositor that multiplies the light map over the frame
+     */
+    void render(Renderer renderer, Compositor compositor) {
+        int width = renderer.getWidth();
+        int height = renderer.getHeight();
+        int w = (width + downscale - 1) / downscale + 2 * MARGIN;
+        int h = (height + downscale - 1) / downscale + 2 * MARGIN;
+        if(w != mapWidth || h != mapHeight) {
+            mapWidth = w;
+            mapHeight = h;
+            staticMap = new int[w * h];
+            frameMap = new int[w * h];
+            spare = new int[w * h];
+            staticDirty = true;
+        }
+
+        // The map is lined up with whole light map pixels in the world, so the static map can be shifted exactly
+        int left = renderer.getCameraX() - width / 2;
+        int top = renderer.getCameraY() - height / 2;
+        int ox = Math.floorDiv(left, downscale) - MARGIN;
+        int oy = Math.floorDiv(top, downscale) - MARGIN;
+        if(staticDirty) {
+            originX = ox;
+            originY = oy;
+            Arrays.fill(staticMap, ambient);
+            drawLights(staticMap, false, 0, 0, mapWidth, mapHeight);
+            staticDirty = false;
+        } else if(ox != originX || oy != originY) {
+            shift(ox, oy);
+        }
+
+        // Dynamic lights go over a copy of the static map
+        System.arraycopy(staticMap, 0, frameMap, 0, staticMap.length);
+        drawLights(frameMap, true, 0, 0, mapWidth, mapHeight);
+
+        // Map the center of each render target pixel into the light map. Light map pixel i is centered on
+        // origin + i + 0.5 in light map units
+        int renderWidth = renderer.getRenderWidth();
+        int renderHeight = renderer.getRenderHeight();
+        double toWorldX = (double)width / renderWidth;
+        double toWorldY = (double)height / renderHeight;
+        double u0 = (0.5 * toWorldX + left) / downscale - originX - 0.5;
+        double v0 = (0.5 * toWorldY + top) / downscale - originY - 0.5;
+        long rowStart = (long)(v0 * 65536);
+        long rowStep = (long)(toWorldY / downscale * 65536);
+        compositor.multiplyScaled(frameMap, mapWidth, mapHeight, (long)(u0 * 65536), (long)(toWorldX / downscale * 65536),
+                rowStart, rowStep, renderer.getPixels(), width, renderWidth, renderHeight);
+    }
+
+    /**
+     * Moves the static map to a new origin, keeping the part still on screen and lighting only the uncovered edges
+     */
+    private void shift(int ox, int oy) {
+        int dx = ox - originX;
+        int dy = oy - originY;
+        originX = ox;
+        originY = oy;
+        if(Math.abs(dx) >= mapWidth || Math.abs(dy) >= mapHeight) {
+            Arrays.fill(staticMap, ambient);
+            drawLights(staticMap, false, 0, 0, mapWidth, mapHeight);
+            return;
+        }
+        Arrays.fill(spare, ambient);
+        int keepWidth = mapWidth - Math.abs(dx);
+        int srcX = Math.max(0, dx);
+        int dstX = Math.max(0, -dx);
+        for(int row = Math.max(0, -dy); row < Math.min(mapHeight, mapHeight - dy); row++) {
+            System.arraycopy(staticMap, (row + dy) * mapWidth + srcX, spare, row * mapWidth + dstX, keepWidth);
+        }
+        int[] old = staticMap;
+        staticMap = spare;
+        spare = old;
+
+        // Light the uncovered columns, then the uncovered rows beside the columns that were kept
+        if(dx > 0) {
+            drawLights(staticMap, false, mapWidth - dx, 0, mapWidth, mapHeight);
+        } else if(dx < 0) {
+            drawLights(staticMap, false, 0, 0, -dx, mapHeight);
+        }
+        if(dy > 0) {
+            drawLights(staticMap, false, dstX, mapHeight - dy, dstX + keepWidth, mapHeight);
+        } else if(dy < 0) {
+            drawLights(staticMap, false, dstX, 0, dstX + keepWidth, -dy);
+        }
+    }
+
+    /**
+     * Adds every static or every dynamic light to a map, within a clipping rectangle of map pixels
+     */
+    private void drawLights(int[] map, boolean dynamic, int clipX0, int clipY0, int clipX1, int clipY1) {
+        for(int i = 0; i < count; i++) {
+            if(radius[i] > 0.0 && this.dynamic[i] == dynamic) {
+                drawLight(map, i, clipX0, clipY0, clipX1, clipY1);
+            }
+        }
+    }
+
+    /**
+     * Adds one light to a map, one row span at a time so only pixels inside its circle are visited
+     */
+    private void drawLight(int[] map, int i, int clipX0, int clipY0, int clipX1, int clipY1) {
+        double cx = x[i] / downscale - originX;
+        double cy = y[i] / downscale - originY;
+        double r = radius[i] / downscale;
+        double r2 = r * r;
+        double toIndex = 255.0 / r2;
+        int rgb = color[i];
+        int rb = rgb & RB;
+        int g = (rgb & G) >>> 8;
+        boolean isCone = cone[i];
+        double dirX = Math.cos(direction[i]);
+        double dirY = Math.sin(direction[i]);
+        double outer = cosOuter[i];
+        double edge = 1.0 / Math.max(1e-6, cosInner[i] - outer);
+
+        int y0 = Math.max(clipY0, (int)Math.floor(cy - r));
+        int y1 = Math.min(clipY1, (int)Math.ceil(cy + r) + 1);
+        for(int row = y0; row < y1; row++) {
+            double dy = row + 0.5 - cy;
+            double span = r2 - dy * dy;
+            if(span <= 0.0) {
+                continue;
+            }
+            span = Math.sqrt(span);
+            int x0 = Math.max(clipX0, (int)Math.floor(cx - span));
+            int x1 = Math.min(clipX1, (int)Math.ceil(cx + span) + 1);
+            int index = row * mapWidth;
+            for(int col = x0; col < x1; col++) {
+                double dx = col + 0.5 - cx;
+                double d2 = dx * dx + dy * dy;
+                int k = (int)(d2 * toIndex);
+                if(k > 255) {
+                    continue;
+                }
+                int a = FALLOFF[k];
+                if(isCone) {
+                    double cos = (dx * dirX + dy * dirY) / Math.sqrt(Math.max(d2, 1e-6));
+                    if(cos <= outer) {
+                        continue;
+                    }
+                    if(cos < cosInner[i]) {
+                        a = (int)(a * (cos - outer) * edge);
+                    }
+                }
+                int add = PixelOps.div255RB(rb * a) | (PixelOps.div255(g * a) << 8);
+                map[index + col] = PixelOps.addSaturate(map[index + col], add);
+            }
+        }
+    }
+
+    /**
+     * Marks the map the light belongs to as needing to be drawn again
+     */
+    private void changed(int light) {
+        if(!dynamic[light]) {
+            staticDirty = true;
+        }
+    }
+
+    /**
+     * Finds a slot for a new light
+     */
+    private int allocate() {
+        if(freeCount > 0) {
+            return free[--freeCount];
+        }
+        if(count == capacity) {
+            capacity *= 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            radius = Arrays.copyOf(radius, capacity);
+            color = Arrays.copyOf(color, capacity);
+            direction = Arrays.copyOf(direction, capacity);
+            cosOuter = Arrays.copyOf(cosOuter, capacity);
+            cosInner = Arrays.copyOf(cosInner, capacity);
+            dynamic = Arrays.copyOf(dynamic, capacity);
+            cone = Arrays.copyOf(cone, capacity);
+            free = Arrays.copyOf(free, capacity);
+        }
+        return count++;
+    }
+
+    /**
+     * Scales a color by an intensity, saturating each channel
+     */
+    private static int scale(Color color, double intensity) {
+        int r = (int)Math.min(255, Math.round(color.getRed() * intensity));
+        int g = (int)Math.min(255, Math.round(color.getGreen() * intensity));
+        int b = (int)Math.min(255, Math.round(color.getBlue() * intensity));
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+}
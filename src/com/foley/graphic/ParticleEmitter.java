@@ -0,0 +1,144 @@
+package com.foley.graphic;
+
+import java.util.Random;
+
+/**
+ * Spawns particles into a particle system at a steady rate. Emitters are advanced once per update
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ParticleEmitter {
+    private final ParticleSystem system;
+    private final Random random;
+    private float x;
+    private float y;
+    private float rate;
+    private float pending;
+    private float minSpeed;
+    private float maxSpeed;
+    private float direction;
+    private float spread;
+    private int minLife;
+    private int maxLife;
+    private int colorIndex;
+    private boolean active;
+
+    /**
+     * Creates a new emitter
+     *
+     * @param system the particle system to spawn particles into
+     * @param rate the number of particles spawned per update. Fractional rates are accumulated across updates
+     */
+    public ParticleEmitter(ParticleSystem system, float rate) {
+        this.system = system;
+        this.rate = rate;
+        random = new Random();
+        minSpeed = 1.0f;
+        maxSpeed = 2.0f;
+        spread = (float)(Math.PI * 2);
+        minLife = 50;
+        maxLife = 100;
+        active = true;
+    }
+
+    /**
+     * Spawns the particles due for this update
+     */
+    public void update() {
+        if(!active) {
+            return;
+        }
+        pending += rate;
+        int n = (int)pending;
+        pending -= n;
+        burst(n);
+    }
+
+    /**
+     * Spawns a number of particles at once
+     *
+     * @param n the number of particles to spawn
+     */
+    public void burst(int n) {
+        for(int i = 0; i < n; i++) {
+            float angle = direction + (random.nextFloat() - 0.5f) * spread;
+            float speed = minSpeed + random.nextFloat() * (maxSpeed - minSpeed);
+            int ticks = minLife + (maxLife > minLife ? random.nextInt(maxLife - minLife + 1) : 0);
+            if(!system.emit(x, y, (float)Math.cos(angle) * speed, (float)Math.sin(angle) * speed, ticks, colorIndex)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the emitter
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Sets the number of particles spawned per update
+     *
+     * @param rate the spawn rate
+     */
+    public void setRate(float rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * Sets the range of speeds particles are spawned with
+     *
+     * @param min the slowest speed in pixels per update
+     * @param max the fastest speed in pixels per update
+     */
+    public void setSpeed(float min, float max) {
+        minSpeed = min;
+        maxSpeed = max;
+    }
+
+    /**
+     * Sets the range of directions particles are spawned in
+     *
+     * @param direction the center direction in radians
+     * @param spread the width of the range in radians
+     */
+    public void setDirection(float direction, float spread) {
+        this.direction = direction;
+        this.spread = spread;
+    }
+
+    /**
+     * Sets the range of lifetimes particles are spawned with
+     *
+     * @param min the shortest lifetime in updates
+     * @param max the longest lifetime in updates
+     */
+    public void setLife(int min, int max) {
+        minLife = Math.max(1, min);
+        maxLife = Math.max(minLife, max);
+    }
+
+    /**
+     * Sets the palette color particles are spawned with
+     *
+     * @param colorIndex the index of the palette color
+     */
+    public void setColor(int colorIndex) {
+        this.colorIndex = colorIndex;
+    }
+
+    /**
+     * Starts or stops the steady spawning of particles
+     *
+     * @param active true to spawn particles every update
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
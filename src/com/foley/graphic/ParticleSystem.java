@@ -0,0 +1,283 @@
+package com.foley.graphic;
+
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fixed size pool of particles. Particle state is kept in flat primitive arrays, and dead particles are removed by
+ * swapping the last live particle into their slot, so a running system never allocates. Large pools are updated in
+ * parallel slices on the common fork/join pool
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ParticleSystem {
+    // Pools smaller than this are not worth splitting across threads
+    private static final int PARALLEL_THRESHOLD = 16384;
+
+    private final int capacity;
+    private int count;
+
+    // Particle state
+    final float[] x;
+    final float[] y;
+    final float[] vx;
+    final float[] vy;
+    final int[] life;
+    final int[] maxLife;
+    final int[] color;
+
+    private final Color[] palette;
+    private boolean fadeThroughPalette;
+    private float gravity;
+    private float drag;
+    private int size;
+
+    // Reusable update tasks
+    private final ForkJoinPool pool;
+    private final Slice[] slices;
+    private final RecursiveAction root;
+
+    // Scratch space used by the renderer to draw particles grouped by color
+    final int[] order;
+    final int[] bucketStart;
+
+    /**
+     * Creates a new particle system
+     *
+     * @param capacity the maximum number of live particles
+     * @param palette the colors particles can be drawn with
+     */
+    public ParticleSystem(int capacity, Color... palette) {
+        if(capacity <= 0 || palette.length == 0) {
+            throw new IllegalArgumentException("A particle system needs a positive capacity and at least one color");
+        }
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new int[capacity];
+        maxLife = new int[capacity];
+        color = new int[capacity];
+        this.palette = palette.clone();
+        drag = 1.0f;
+        size = 2;
+        order = new int[capacity];
+        bucketStart = new int[palette.length + 1];
+
+        pool = ForkJoinPool.commonPool();
+        slices = new Slice[Math.max(1, pool.getParallelism())];
+        for(int i = 0; i < slices.length; i++) {
+            slices[i] = new Slice();
+        }
+        root = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for(int i = 1; i < slices.length; i++) {
+                    slices[i].fork();
+                }
+                slices[0].compute();
+                for(int i = 1; i < slices.length; i++) {
+                    slices[i].join();
+                }
+            }
+        };
+    }
+
+    /**
+     * Adds a particle to the system
+     *
+     * @param px the x coordinate
+     * @param py the y coordinate
+     * @param pvx the x velocity in pixels per update
+     * @param pvy the y velocity in pixels per update
+     * @param ticks the number of updates the particle lives for
+     * @param colorIndex the index of the palette color to draw the particle with
+     * @return false if the system is full and the particle was not added
+     */
+    public boolean emit(float px, float py, float pvx, float pvy, int ticks, int colorIndex) {
+        if(count == capacity || ticks <= 0) {
+            return false;
+        }
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        life[i] = ticks;
+        maxLife[i] = ticks;
+        color[i] = Math.floorMod(colorIndex, palette.length);
+        return true;
+    }
+
+    /**
+     * Advances every particle by one update and removes the particles that died
+     */
+    public void update() {
+        if(count == 0) {
+            return;
+        }
+        if(count < PARALLEL_THRESHOLD || slices.length == 1) {
+            integrate(0, count);
+        } else {
+            // Split the live range into one contiguous slice per worker
+            int per = (count + slices.length - 1) / slices.length;
+            for(int i = 0; i < slices.length; i++) {
+                slices[i].reinitialize();
+                slices[i].from = Math.min(count, i * per);
+                slices[i].to = Math.min(count, (i + 1) * per);
+            }
+            root.reinitialize();
+            pool.invoke(root);
+        }
+
+        // Swap remove dead particles
+        int i = 0;
+        while(i < count) {
+            if(life[i] > 0) {
+                i++;
+                continue;
+            }
+            int last = --count;
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            life[i] = life[last];
+            maxLife[i] = maxLife[last];
+            color[i] = color[last];
+        }
+    }
+
+    /**
+     * Moves a range of particles and ages them by one update
+     *
+     * @param from the first particle
+     * @param to one past the last particle
+     */
+    private void integrate(int from, int to) {
+        float g = gravity;
+        float d = drag;
+        for(int i = from; i < to; i++) {
+            float nvx = vx[i] * d;
+            float nvy = (vy[i] + g) * d;
+            vx[i] = nvx;
+            vy[i] = nvy;
+            x[i] += nvx;
+            y[i] += nvy;
+            life[i]--;
+        }
+    }
+
+    /**
+     * Removes every particle
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Gets the palette index a particle is drawn with. When fading through the palette, particles move from the first
+     * color to the last over their lifetime
+     *
+     * @param i the particle
+     * @return the palette index of the particle
+     */
+    int colorOf(int i) {
+        if(!fadeThroughPalette) {
+            return color[i];
+        }
+        int n = palette.length;
+        int index = color[i] + (int)((long)(maxLife[i] - life[i]) * n / maxLife[i]);
+        return index >= n ? n - 1 : index;
+    }
+
+    /**
+     * Sets the acceleration applied to the y velocity every update
+     *
+     * @param gravity the acceleration in pixels per update squared
+     */
+    public void setGravity(float gravity) {
+        this.gravity = gravity;
+    }
+
+    /**
+     * Sets the factor velocities are multiplied by every update
+     *
+     * @param drag the drag factor, where 1 is no drag
+     */
+    public void setDrag(float drag) {
+        this.drag = drag;
+    }
+
+    /**
+     * Sets the size particles are drawn at
+     *
+     * @param size the width and height of a particle in pixels
+     */
+    public void setSize(int size) {
+        this.size = Math.max(1, size);
+    }
+
+    /**
+     * Sets if particles move through the palette as they age
+     *
+     * @param fade true to move from a particle's color towards the last palette color over its lifetime
+     */
+    public void setFadeThroughPalette(boolean fade) {
+        fadeThroughPalette = fade;
+    }
+
+    /**
+     * Gets the size particles are drawn at
+     *
+     * @return the width and height of a particle in pixels
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the colors particles can be drawn with
+     *
+     * @return the palette
+     */
+    Color[] getPalette() {
+        return palette;
+    }
+
+    /**
+     * Gets the number of live particles
+     *
+     * @return the number of live particles
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the maximum number of live particles
+     *
+     * @return the capacity of the system
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * A reusable task that updates a contiguous range of particles
+     */
+    private class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        int from;
+        int to;
+
+        @Override
+        protected void compute() {
+            integrate(from, to);
+        }
+    }
+}
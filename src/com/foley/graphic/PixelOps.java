@@ -0,0 +1,174 @@
+package com.foley.graphic;
+
+/**
+ * Pixel loops shared by the software rendering paths. Colors are packed 0xAARRGGBB integers. The red and blue channels
+ * are blended together in a single multiply, and division by 255 is done with an exact rounding shift so every path
+ * that uses these loops produces identical pixels
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+final class PixelOps {
+    static final int OPAQUE = 0;
+    static final int BLEND = 1;
+    static final int BLEND_PREMULTIPLIED = 2;
+
+    private static final int RB = 0x00FF00FF;
+    private static final int G = 0x0000FF00;
+    private static final int HALF_RB = 0x00800080;
+
+    /**
+     * Not instantiable
+     */
+    private PixelOps() {}
+
+    /**
+     * Divides both 16-bit lanes of a packed red and blue product by 255, rounding to nearest
+     *
+     * @param rb the red and blue lanes, each at most 255 * 255
+     * @return the red and blue channels
+     */
+    static int div255RB(int rb) {
+        rb += HALF_RB;
+        return ((rb + ((rb >>> 8) & RB)) >>> 8) & RB;
+    }
+
+    /**
+     * Divides a green product by 255, rounding to nearest
+     *
+     * @param g the green product shifted down to the low bits, at most 255 * 255
+     * @return the green channel in the low bits
+     */
+    static int div255(int g) {
+        g += 0x80;
+        return (g + (g >>> 8)) >>> 8;
+    }
+
+    /**
+     * Blends a non-premultiplied color over an opaque color
+     *
+     * @param src the color to draw
+     * @param dst the color being drawn over
+     * @return the blended opaque color
+     */
+    static int blend(int src, int dst) {
+        int a = src >>> 24;
+        if(a == 0xFF) {
+            return src;
+        }
+        if(a == 0) {
+            return dst;
+        }
+        int ia = 0xFF - a;
+        int rb = div255RB((src & RB) * a + (dst & RB) * ia);
+        int g = div255(((src & G) >>> 8) * a + ((dst & G) >>> 8) * ia);
+        return 0xFF000000 | rb | (g << 8);
+    }
+
+    /**
+     * Blends a premultiplied color over an opaque color
+     *
+     * @param src the premultiplied color to draw
+     * @param dst the color being drawn over
+     * @return the blended opaque color
+     */
+    static int blendPremultiplied(int src, int dst) {
+        int a = src >>> 24;
+        if(a == 0xFF) {
+            return src;
+        }
+        if(a == 0) {
+            return dst;
+        }
+        int ia = 0xFF - a;
+        int rb = ((src & RB) + div255RB((dst & RB) * ia)) & RB;
+        int g = ((src & G) >>> 8) + div255(((dst & G) >>> 8) * ia);
+        return 0xFF000000 | rb | ((g & 0xFF) << 8);
+    }
+
+    /**
+     * Adds two opaque colors, saturating each channel at full brightness
+     *
+     * @param a the first color
+     * @param b the second color
+     * @return the opaque sum
+     */
+    static int addSaturate(int a, int b) {
+        int rb = (a & RB) + (b & RB);
+        int g = (a & G) + (b & G);
+        // Any lane that carried past 255 is filled with ones
+        int carry = rb & 0x01000100;
+        rb = (rb | (carry - (carry >>> 8))) & RB;
+        g = (g | ((g & 0x10000) - ((g & 0x10000) >>> 8))) & G;
+        return 0xFF000000 | rb | g;
+    }
+
+    /**
+     * Interpolates between two opaque colors
+     *
+     * @param a the color at a weight of 0
+     * @param b the color at a weight of 256
+     * @param f the weight of b, from 0 to 256
+     * @return the opaque interpolated color
+     */
+    static int lerp(int a, int b, int f) {
+        int nf = 0x100 - f;
+        int rb = (((a & RB) * nf + (b & RB) * f) >>> 8) & RB;
+        int g = (((a & G) * nf + (b & G) * f) >>> 8) & G;
+        return 0xFF000000 | rb | g;
+    }
+
+    /**
+     * Fills a rectangle of pixels. The rectangle must already be clipped to the destination
+     *
+     * @param dst the destination pixels
+     * @param stride the number of pixels in a destination row
+     * @param x the x coordinate of the rectangle
+     * @param y the y coordinate of the rectangle
+     * @param w the width of the rectangle
+     * @param h the height of the rectangle
+     * @param rgb the color to fill with
+     */
+    static void fill(int[] dst, int stride, int x, int y, int w, int h, int rgb) {
+        int row = y * stride + x;
+        for(int j = 0; j < h; j++, row += stride) {
+            for(int i = row, end = row + w; i < end; i++) {
+                dst[i] = rgb;
+            }
+        }
+    }
+
+    /**
+     * Copies a rectangle of pixels, blending them if required. The rectangle must already be clipped to both the source
+     * and the destination
+     *
+     * @param src the source pixels
+     * @param srcOffset the index of the first source pixel
+     * @param srcStride the number of pixels in a source row
+     * @param dst the destination pixels
+     * @param dstOffset the index of the first destination pixel
+     * @param dstStride the number of pixels in a destination row
+     * @param w the width of the rectangle
+     * @param h the height of the rectangle
+     * @param mode one of OPAQUE, BLEND or BLEND_PREMULTIPLIED
+     */
+    static void blit(int[] src, int srcOffset, int srcStride, int[] dst, int dstOffset, int dstStride, int w, int h, int mode) {
+        for(int j = 0; j < h; j++, srcOffset += srcStride, dstOffset += dstStride) {
+            switch(mode) {
+                case OPAQUE:
+                    System.arraycopy(src, srcOffset, dst, dstOffset, w);
+                    break;
+                case BLEND:
+                    for(int i = 0; i < w; i++) {
+                        dst[dstOffset + i] = blend(src[srcOffset + i], dst[dstOffset + i]);
+                    }
+                    break;
+                default:
+                    for(int i = 0; i < w; i++) {
+                        dst[dstOffset + i] = blendPremultiplied(src[srcOffset + i], dst[dstOffset + i]);
+                    }
+                    break;
+            }
+        }
+    }
+}
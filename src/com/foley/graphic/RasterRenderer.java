@@ -0,0 +1,302 @@
+package com.foley.graphic;
+
+import com.foley.core.Config;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * Renders by writing straight into the pixels of the internal render target instead of going through Java2D. Intended
+ * for pixel art games that draw many small images. Images are only drawn directly while the current transformation is
+ * a plain translation. Anything else, and text, is passed on to Java2D, which draws into the same pixels
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class RasterRenderer extends Renderer {
+    private int[] pixels;
+    private int width;
+    private int height;
+
+    /**
+     * Creates a new raster renderer
+     *
+     * @param screen the screen context
+     */
+    public RasterRenderer(Screen screen) {
+        super(screen);
+        setup();
+    }
+
+    /**
+     * Creates a new raster renderer
+     *
+     * @param screen the screen context
+     * @param config the config file
+     */
+    public RasterRenderer(Screen screen, Config config) {
+        super(screen, config);
+        setup();
+    }
+
+    /**
+     * Binds the renderer to the pixels of the render target
+     */
+    private void setup() {
+        // Pixel loops address the full back buffer, so the render target is not scaled
+        fixRenderScale(1.0);
+        pixels = getPixels();
+        width = getWidth();
+        height = getHeight();
+    }
+
+    @Override
+    /**
+     * Clears the screen
+     */
+    public void clearScreen() {
+        flushShapes();
+        Color clear = getClearColor();
+        Arrays.fill(pixels, clear == null ? 0xFF000000 : clear.getRGB());
+    }
+
+    @Override
+    /**
+     * Draws an image to the screen
+     *
+     * @param img The image
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawImage(Image img, double x, double y) {
+        flushShapes();
+        // Images are drawn without the current transformation, as in the Java2D renderer
+        if(!drawBufferedImage(img, (int)Math.floor(x) - img.getWidth(null) / 2, (int)Math.floor(y) - img.getHeight(null) / 2)) {
+            super.drawImage(img, x, y);
+        }
+    }
+
+    @Override
+    /**
+     * Draws a texture to the screen
+     *
+     * @param texture the texture
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawTexture(Texture texture, double x, double y) {
+        flushShapes();
+        if(!isTranslation()) {
+            super.drawTexture(texture, x, y);
+            return;
+        }
+        int w = texture.getWidth();
+        int h = texture.getHeight();
+        drawTextureRegion(texture, 0, 0, w, h, (int)Math.floor(x + translateX()) - w / 2, (int)Math.floor(y + translateY()) - h / 2);
+    }
+
+    @Override
+    /**
+     * Draws a frame of a sprite sheet centered on a position
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawSprite(SpriteSheet sheet, int frame, double x, double y) {
+        flushShapes();
+        if(!isTranslation()) {
+            super.drawSprite(sheet, frame, x, y);
+            return;
+        }
+        int w = sheet.getFrameWidth(frame);
+        int h = sheet.getFrameHeight(frame);
+        drawTextureRegion(sheet.getTexture(), sheet.getFrameX(frame), sheet.getFrameY(frame), w, h,
+                (int)Math.floor(x + translateX()) - w / 2, (int)Math.floor(y + translateY()) - h / 2);
+    }
+
+    @Override
+    /**
+     * Draws a frame of a sprite sheet with its top left corner at a position
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawTile(SpriteSheet sheet, int frame, int x, int y) {
+        flushShapes();
+        if(!isTranslation()) {
+            super.drawTile(sheet, frame, x, y);
+            return;
+        }
+        drawTextureRegion(sheet.getTexture(), sheet.getFrameX(frame), sheet.getFrameY(frame), sheet.getFrameWidth(frame),
+                sheet.getFrameHeight(frame), x + (int)Math.floor(translateX()), y + (int)Math.floor(translateY()));
+    }
+
+    @Override
+    /**
+     * Draws an image with its top left corner at a position
+     *
+     * @param img the image
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void blitImage(Image img, int x, int y) {
+        flushShapes();
+        if(!isTranslation() || !drawBufferedImage(img, x + (int)Math.floor(translateX()), y + (int)Math.floor(translateY()))) {
+            super.blitImage(img, x, y);
+        }
+    }
+
+    @Override
+    /**
+     * Draws every live particle of a particle system straight into the render target
+     *
+     * @param particles the particle system
+     */
+    public void drawParticles(ParticleSystem particles) {
+        flushShapes();
+        if(!isTranslation()) {
+            super.drawParticles(particles);
+            return;
+        }
+        Color[] palette = particles.getPalette();
+        int size = particles.getSize();
+        int half = size / 2;
+        int ox = (int)Math.floor(translateX()) - half;
+        int oy = (int)Math.floor(translateY()) - half;
+        for(int i = 0, n = particles.getCount(); i < n; i++) {
+            int x0 = (int)Math.floor(particles.x[i]) + ox;
+            int y0 = (int)Math.floor(particles.y[i]) + oy;
+            int x1 = Math.min(width, x0 + size);
+            int y1 = Math.min(height, y0 + size);
+            x0 = Math.max(0, x0);
+            y0 = Math.max(0, y0);
+            if(x0 < x1 && y0 < y1) {
+                int rgb = palette[particles.colorOf(i)].getRGB();
+                if((rgb >>> 24) == 0xFF) {
+                    PixelOps.fill(pixels, width, x0, y0, x1 - x0, y1 - y0, rgb);
+                } else {
+                    for(int y = y0; y < y1; y++) {
+                        for(int x = x0, p = y * width + x0; x < x1; x++, p++) {
+                            pixels[p] = PixelOps.blend(rgb, pixels[p]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a rectangle of a texture with its top left corner at a position in render target pixels
+     */
+    private void drawTextureRegion(Texture texture, int sx, int sy, int w, int h, int dx, int dy) {
+        int[] src = texture.getPixels();
+        blit(src, sx, sy, texture.getWidth(), w, h, dx, dy, texture.isOpaque() ? PixelOps.OPAQUE : PixelOps.BLEND);
+    }
+
+    /**
+     * Draws an image straight into the render target if its pixels are stored as integers
+     *
+     * @return false if the image has to be drawn by Java2D instead
+     */
+    private boolean drawBufferedImage(Image img, int dx, int dy) {
+        if(!(img instanceof BufferedImage)) {
+            return false;
+        }
+        BufferedImage bi = (BufferedImage)img;
+        int mode;
+        switch(bi.getType()) {
+            case BufferedImage.TYPE_INT_RGB:
+                mode = PixelOps.OPAQUE;
+                break;
+            case BufferedImage.TYPE_INT_ARGB:
+                mode = PixelOps.BLEND;
+                break;
+            case BufferedImage.TYPE_INT_ARGB_PRE:
+                mode = PixelOps.BLEND_PREMULTIPLIED;
+                break;
+            default:
+                return false;
+        }
+        WritableRaster raster = bi.getRaster();
+        if(!(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)) {
+            return false;
+        }
+        int stride = ((SinglePixelPackedSampleModel)raster.getSampleModel()).getScanlineStride();
+        DataBufferInt data = (DataBufferInt)raster.getDataBuffer();
+        int offset = data.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        int w = bi.getWidth();
+        int h = bi.getHeight();
+
+        // Clip against the render target, then copy
+        int sx = 0;
+        int sy = 0;
+        if(dx < 0) {
+            sx = -dx;
+            w += dx;
+            dx = 0;
+        }
+        if(dy < 0) {
+            sy = -dy;
+            h += dy;
+            dy = 0;
+        }
+        w = Math.min(w, width - dx);
+        h = Math.min(h, height - dy);
+        if(w > 0 && h > 0) {
+            PixelOps.blit(data.getData(), offset + sy * stride + sx, stride, pixels, dy * width + dx, width, w, h, mode);
+        }
+        return true;
+    }
+
+    /**
+     * Clips a rectangle of source pixels against the render target, then copies it
+     */
+    private void blit(int[] src, int sx, int sy, int srcStride, int w, int h, int dx, int dy, int mode) {
+        if(dx < 0) {
+            sx -= dx;
+            w += dx;
+            dx = 0;
+        }
+        if(dy < 0) {
+            sy -= dy;
+            h += dy;
+            dy = 0;
+        }
+        w = Math.min(w, width - dx);
+        h = Math.min(h, height - dy);
+        if(w > 0 && h > 0) {
+            PixelOps.blit(src, sy * srcStride + sx, srcStride, pixels, dy * width + dx, width, w, h, mode);
+        }
+    }
+
+    /**
+     * Determines if the current transformation only moves drawing, and so can be applied by offsetting pixels
+     */
+    private boolean isTranslation() {
+        return (getTransform().getType() & ~AffineTransform.TYPE_TRANSLATION) == 0;
+    }
+
+    /**
+     * Gets the x offset of the current transformation
+     */
+    private double translateX() {
+        return getTransform().getTranslateX();
+    }
+
+    /**
+     * Gets the y offset of the current transformation
+     */
+    private double translateY() {
+        return getTransform().getTranslateY();
+    }
+}
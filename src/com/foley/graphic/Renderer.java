@@ -1,15 +1,22 @@
 package com.foley.graphic;
 
 import com.foley.core.Config;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
 
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -24,17 +31,58 @@ import java.util.regex.Pattern;
  * @version 02 Jan 2021
  */
 public class Renderer {
+    private static final LogSite INVALID_RENDERER = new LogSite(Level.INFO, "[%s] is not a valid renderer. Will use default \"JAVA2D\" renderer");
+    private static final LogSite EMPTY_MATRIX_STACK = new LogSite(Level.INFO, "There is no available matrix on the stack to pop");
+    private static final LogSite INVALID_FONT_STYLE = new LogSite(Level.INFO, "[%d] is not a valid style. Valid styles are 0 for PLAIN, 1 for BOLD, and 2 for ITALIC. The default font will be used");
+    private static final LogSite INVALID_FONT_SIZE = new LogSite(Level.INFO, "[%d] is not a valid size. Size must be an integer greater than 0. The default font will be used");
+    private static final LogSite NULL_COLOR = new LogSite(Level.INFO, "Null color value passed. Defaulting to black clear color");
+    private static final LogSite UNKNOWN_COLOR = new LogSite(Level.INFO, "Could not find matching color \"%s\". Defaulting to black clear color");
+    private static final LogSite INVALID_FONT_NAME = new LogSite(Level.INFO, "'%s' is not a valid font family name and cannot be created. The default font will be used");
+    private static final LogSite INVALID_STYLE_FORMAT = new LogSite(Level.INFO, "'%s' is not a valid font style. Ensure it is in integer format. The default font will be used");
+    private static final LogSite INVALID_SIZE_FORMAT = new LogSite(Level.INFO, "'%s' is not a valid font size. Ensure it is in integer format. The default font will be used");
+
+    private static final double SCALE_STEP = 0.05;
+    private static final AffineTransform IDENTITY = new AffineTransform();
+    // Number of times a frame is presented again after the buffer contents were lost before it is dropped
+    private static final int MAX_PRESENT_ATTEMPTS = 3;
+
     private Screen screen;
     private Graphics2D g;
     private BufferStrategy strategy;
     private Color clearColor;
     private Stack<Color> colorStack;
-    private Stack<AffineTransform> matrices;
+    // The current transformation is mirrored here so it can be read and saved without allocating
+    private AffineTransform transform;
+    private AffineTransform[] matrices;
+    private int matrixDepth;
     private Map<Integer, Font> fonts;
+    private int WIDTH;
+    private int HEIGHT;
     private int HALF_WIDTH;
     private int HALF_HEIGHT;
+    private int cameraX;
+    private int cameraY;
     private Font mainFont;
 
+    // Internal render target. Only the top left renderWidth x renderHeight region is used at scales below 1
+    private BufferedImage backBuffer;
+    private AffineTransform baseTransform;
+    private ResolutionScaler scaler;
+    private int renderWidth;
+    private int renderHeight;
+    private Object upscaleFilter;
+
+    // Multiplies light maps over the frame. Created the first time lights are drawn
+    private Compositor compositor;
+
+    // Shapes waiting to be drawn, flushed before anything else is drawn or the transformation changes
+    private ShapeBatch shapes;
+
+    // Presentation statistics
+    private long lostFrames;
+    private long redrawnFrames;
+    private long droppedFrames;
+
     /**
      * Creates a new renderer
      *
@@ -42,13 +90,25 @@ public class Renderer {
      */
     public Renderer(Screen screen) {
         this.screen = screen;
-        HALF_WIDTH = screen.getWidth() / 2;
-        HALF_HEIGHT = screen.getHeight() / 2;
+        // The logical resolution is the drawable area of the window when the renderer is created
+        Rectangle area = screen.getVisibleDrawingArea();
+        WIDTH = area.width;
+        HEIGHT = area.height;
+        HALF_WIDTH = WIDTH / 2;
+        HALF_HEIGHT = HEIGHT / 2;
         colorStack = new Stack<>();
-        matrices = new Stack<>();
-        strategy = screen.getGameWindow().getBufferStrategy();
+        transform = new AffineTransform();
+        matrices = new AffineTransform[0];
+        strategy = screen.getBufferStrategy();
         fonts = new HashMap<>();
         mainFont = getNewFont("Arial", Font.PLAIN, 30);
+        scaler = new ResolutionScaler(0, 1.0, 1.0, 1.0, SCALE_STEP);
+        upscaleFilter = RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+        baseTransform = new AffineTransform();
+        backBuffer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = backBuffer.createGraphics();
+        shapes = new ShapeBatch();
+        applyScale();
     }
 
     /**
@@ -65,49 +125,340 @@ public class Renderer {
                     getCombinedInteger(config.getProperty("font-style")),
                     Integer.parseInt(config.getProperty("font-size")));
         }
+
+        // Set up the internal render target scaling
+        double minScale = Math.max(0.1, Math.min(1.0, config.getDouble("minRenderScale", 0.5)));
+        double startScale = config.getDouble("renderScale", 1.0);
+        int targetFrameRate = config.getBoolean("dynamicResolution", false) ? config.getInt("targetFrameRate", 60) : 0;
+        if(targetFrameRate <= 0) {
+            // A fixed scale is still honored when dynamic resolution is off
+            minScale = Math.max(0.1, Math.min(1.0, startScale));
+        }
+        scaler = new ResolutionScaler(targetFrameRate, startScale, minScale, 1.0, SCALE_STEP);
+        if("NEAREST".equalsIgnoreCase(config.getProperty("upscaleFilter"))) {
+            upscaleFilter = RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+        }
+        applyScale();
+    }
+
+    /**
+     * Creates the renderer backend selected by the "renderer" property of the config file. Valid values are JAVA2D
+     * and RASTER. Any other value will default to JAVA2D
+     *
+     * @param screen the screen context
+     * @param config the config file
+     * @return the created renderer
+     */
+    public static Renderer createRenderer(Screen screen, Config config) {
+        String backend = config.hasProperty("renderer") ? config.getProperty("renderer").trim() : "JAVA2D";
+        if("RASTER".equalsIgnoreCase(backend)) {
+            return new RasterRenderer(screen, config);
+        }
+        if(!"JAVA2D".equalsIgnoreCase(backend)) {
+            INVALID_RENDERER.log(backend);
+        }
+        return new Renderer(screen, config);
     }
 
     /**
      * Preps the renderer for rendering operations
      */
     public void beginRender() {
-        if(strategy != null) {
-            g = (Graphics2D) strategy.getDrawGraphics();
-            g.setFont(mainFont);
-            setToIdentity();
+        shapes.clear();
+        // Adjust the internal resolution from the measured frame time
+        if(scaler.frame(System.nanoTime())) {
+            applyScale();
         }
+        matrixDepth = 0;
+        g.setTransform(IDENTITY);
+        g.setClip(0, 0, renderWidth, renderHeight);
+        g.setFont(mainFont);
+        setToIdentity();
+        cameraX = HALF_WIDTH;
+        cameraY = HALF_HEIGHT;
     }
 
     /**
      * Displays everything that was rendered to the screen
      */
     public void endRender() {
-        strategy.show();
+        flushShapes();
+
+        // There is nothing to present to without a window
+        if(screen.isOffscreen()) {
+            return;
+        }
+
+        // The strategy is replaced whenever the screen changes window mode
+        strategy = screen.getBufferStrategy();
+        if(strategy == null) {
+            droppedFrames++;
+            return;
+        }
+
+        // Fit the render target into the drawable area of the window while keeping the aspect ratio
+        Rectangle area = screen.getVisibleDrawingArea();
+        double fit = Math.min((double)area.width / WIDTH, (double)area.height / HEIGHT);
+        int w = (int)(WIDTH * fit);
+        int h = (int)(HEIGHT * fit);
+        int x = area.x + (area.width - w) / 2;
+        int y = area.y + (area.height - h) / 2;
+
+        // The frame lives in the back buffer, so presenting it again after a loss is only a copy
+        try {
+            int attempts = 0;
+            boolean restored;
+            do {
+                do {
+                    Graphics2D sg = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        // Letterbox the unused part of the window
+                        sg.setColor(Color.BLACK);
+                        sg.fillRect(area.x, area.y, area.width, area.height);
+                        sg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, upscaleFilter);
+                        sg.drawImage(backBuffer, x, y, x + w, y + h, 0, 0, renderWidth, renderHeight, null);
+                    } finally {
+                        sg.dispose();
+                    }
+                    restored = strategy.contentsRestored();
+                    if(restored) {
+                        redrawnFrames++;
+                    }
+                } while(restored);
+                strategy.show();
+                if(!strategy.contentsLost()) {
+                    return;
+                }
+                lostFrames++;
+            } while(++attempts < MAX_PRESENT_ATTEMPTS);
+            droppedFrames++;
+        } catch(IllegalStateException e) {
+            // The window was disposed while switching modes. The next frame will use the new window
+            droppedFrames++;
+        }
+    }
+
+    /**
+     * Tells the renderer the game deliberately waited before this frame, such as while paused or throttled, so the
+     * wait does not lower the dynamic resolution
+     */
+    public void resetFrameTiming() {
+        scaler.reset();
+    }
+
+    /**
+     * Releases the resources held by the renderer
+     */
+    public void dispose() {
+        g.dispose();
+    }
+
+    /**
+     * Gets the number of frames whose buffer contents were lost after being shown and had to be presented again
+     *
+     * @return the number of lost frames
+     */
+    public long getLostFrames() {
+        return lostFrames;
+    }
+
+    /**
+     * Gets the number of frames that had to be redrawn because the buffer contents were restored while drawing
+     *
+     * @return the number of redrawn frames
+     */
+    public long getRedrawnFrames() {
+        return redrawnFrames;
+    }
+
+    /**
+     * Gets the number of frames that could not be presented at all
+     *
+     * @return the number of dropped frames
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
     }
 
     /**
      * Sets the transformation matrix in the renderer to an identity matrix
      */
     public void setToIdentity() {
-        g.setTransform(new AffineTransform());
+        flushShapes();
+        transform.setTransform(baseTransform);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Updates the render target region and base transformation to match the current scale
+     */
+    private void applyScale() {
+        double scale = scaler.getScale();
+        renderWidth = Math.max(1, (int)Math.round(WIDTH * scale));
+        renderHeight = Math.max(1, (int)Math.round(HEIGHT * scale));
+        baseTransform.setToScale((double)renderWidth / WIDTH, (double)renderHeight / HEIGHT);
+    }
+
+    /**
+     * Locks the internal render target to a single scale, turning off dynamic resolution
+     *
+     * @param scale the scale of the render target
+     */
+    void fixRenderScale(double scale) {
+        scaler = new ResolutionScaler(0, scale, scale, scale, SCALE_STEP);
+        applyScale();
+    }
+
+    /**
+     * Gets the internal render target
+     *
+     * @return the back buffer all drawing goes to
+     */
+    BufferedImage getBackBuffer() {
+        return backBuffer;
+    }
+
+    /**
+     * Gets the pixels of the internal render target. Rows are getWidth() pixels long
+     *
+     * @return the pixels of the back buffer
+     */
+    int[] getPixels() {
+        return ((DataBufferInt)backBuffer.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Gets the width of the region of the render target in use at the current scale
+     *
+     * @return the width of the render target region
+     */
+    public int getRenderWidth() {
+        return renderWidth;
+    }
+
+    /**
+     * Gets the height of the region of the render target in use at the current scale
+     *
+     * @return the height of the render target region
+     */
+    public int getRenderHeight() {
+        return renderHeight;
+    }
+
+    /**
+     * Gets the graphics context of the internal render target
+     *
+     * @return the graphics context of the back buffer
+     */
+    Graphics2D getGraphics() {
+        return g;
+    }
+
+    /**
+     * Gets the current transformation. The returned matrix is live and must not be modified
+     *
+     * @return the current transformation
+     */
+    AffineTransform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Gets the color used to clear the screen
+     *
+     * @return the clear color
+     */
+    Color getClearColor() {
+        return clearColor;
+    }
+
+    /**
+     * Gets the current scale of the internal render target
+     *
+     * @return the scale of the render target, where 1 is the full logical resolution
+     */
+    public double getRenderScale() {
+        return scaler.getScale();
+    }
+
+    /**
+     * Gets the logical width that games render at
+     *
+     * @return the logical width
+     */
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    /**
+     * Gets the logical height that games render at
+     *
+     * @return the logical height
+     */
+    public int getHeight() {
+        return HEIGHT;
     }
 
     /**
      * Pushes the current transformation matrix onto the stack
      */
     public void pushMatrix() {
-        matrices.push(g.getTransform());
+        // Saved matrices are reused between frames instead of allocated per push
+        if(matrixDepth == matrices.length) {
+            matrices = Arrays.copyOf(matrices, Math.max(8, matrices.length * 2));
+            for(int i = matrixDepth; i < matrices.length; i++) {
+                matrices[i] = new AffineTransform();
+            }
+        }
+        matrices[matrixDepth++].setTransform(transform);
     }
 
     /**
      * Loads the last saved matrix into the renderer
      */
     public void popMatrix() {
-        if(matrices.isEmpty()) {
-            System.out.println("INFORMATIONAL: There is no available matrix on the stack to pop");
+        if(matrixDepth == 0) {
+            EMPTY_MATRIX_STACK.log();
             return;
         }
-        g.setTransform(matrices.pop());
+        flushShapes();
+        transform.setTransform(matrices[--matrixDepth]);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Moves everything drawn after this call
+     *
+     * @param x the x distance
+     * @param y the y distance
+     */
+    public void translate(double x, double y) {
+        flushShapes();
+        transform.translate(x, y);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Rotates everything drawn after this call around the origin
+     *
+     * @param theta the angle in radians
+     */
+    public void rotate(double theta) {
+        flushShapes();
+        transform.rotate(theta);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Scales everything drawn after this call
+     *
+     * @param x the horizontal scale
+     * @param y the vertical scale
+     */
+    public void scale(double x, double y) {
+        flushShapes();
+        transform.scale(x, y);
+        g.setTransform(transform);
     }
 
     /**
@@ -117,7 +468,29 @@ public class Renderer {
      * @param y the y coordinate
      */
     public void lookAt(int x, int y) {
-        g.translate(HALF_WIDTH - x, HALF_HEIGHT - y);
+        flushShapes();
+        transform.translate(HALF_WIDTH - x, HALF_HEIGHT - y);
+        g.setTransform(transform);
+        cameraX = x;
+        cameraY = y;
+    }
+
+    /**
+     * Gets the x coordinate the view is centered on
+     *
+     * @return the x coordinate of the camera
+     */
+    public int getCameraX() {
+        return cameraX;
+    }
+
+    /**
+     * Gets the y coordinate the view is centered on
+     *
+     * @return the y coordinate of the camera
+     */
+    public int getCameraY() {
+        return cameraY;
     }
 
     /**
@@ -149,11 +522,11 @@ public class Renderer {
     public Font getNewFont(String name, int style, int size) {
         // Ensure style and size are positive non-zero integers. Style is also bounded
         if(style < 0 || style > 3) {
-            System.out.printf("INFORMATIONAL: [%d] is not a valid style. Valid styles are 0 for PLAIN, 1 for BOLD, and 2 for ITALIC. The default font will be used\n", style);
+            INVALID_FONT_STYLE.log(style);
             return getNewFont("Arial", Font.PLAIN, 30);
         }
         if(size <= 0) {
-            System.out.printf("INFORMATIONAL: [%d] is not a valid size. Size must be an integer greater than 0. The default font will be used\n", size);
+            INVALID_FONT_SIZE.log(size);
             return getNewFont("Arial", Font.PLAIN, 30);
         }
 
@@ -208,12 +581,13 @@ public class Renderer {
      * Clears the screen
      */
     public void clearScreen() {
+        flushShapes();
         // Save current color, and set to clear color
         colorStack.push(g.getColor());
         g.setColor(clearColor);
 
         // Clear the screen and set color back to previously saved color
-        g.fillRect(0, 0, screen.getGameWindow().getWidth(), screen.getGameWindow().getHeight());
+        g.fillRect(0, 0, WIDTH, HEIGHT);
         g.setColor(colorStack.pop());
     }
 
@@ -226,6 +600,7 @@ public class Renderer {
      * @param y the y position on the screen
      */
     public void drawText(Color color, String text, int x, int y) {
+        flushShapes();
         g.setColor(color);
         g.drawString(text, x, y);
     }
@@ -238,12 +613,14 @@ public class Renderer {
      * @param y the y coordinate
      */
     public void drawImage(Image img, double x, double y) {
+        flushShapes();
         // Push the current transformations onto the stack, and set to identity
         pushMatrix();
         setToIdentity();
 
         // Perform translations, draw, then pop the old transformation matrix off the stack
-        g.translate(x, y);
+        transform.translate(x, y);
+        g.setTransform(transform);
         g.drawImage(img, -img.getWidth(null) / 2, -img.getHeight(null) / 2, null);
         popMatrix();
     }
@@ -256,15 +633,249 @@ public class Renderer {
      * @param y the y coordinate
      */
     public void drawTexture(Texture texture, double x, double y) {
+        flushShapes();
         // Push the current transformations onto the stack, and set to identity
         pushMatrix();
-        g.translate(x, y);
+        transform.translate(x, y);
+        g.setTransform(transform);
 
         // Perform translations, draw, then pop the old transformation matrix off the stack
         g.drawImage(texture.getImage(), -texture.getWidth() / 2, -texture.getHeight() / 2, null);
         popMatrix();
     }
 
+    /**
+     * Draws a frame of a sprite sheet centered on a position. The frame is copied straight out of the sheet, so no sub
+     * image or transformation is created
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawSprite(SpriteSheet sheet, int frame, double x, double y) {
+        flushShapes();
+        int w = sheet.getFrameWidth(frame);
+        int h = sheet.getFrameHeight(frame);
+        int sx = sheet.getFrameX(frame);
+        int sy = sheet.getFrameY(frame);
+        int dx = (int)Math.floor(x) - w / 2;
+        int dy = (int)Math.floor(y) - h / 2;
+        g.drawImage(sheet.getTexture().getImage(), dx, dy, dx + w, dy + h, sx, sy, sx + w, sy + h, null);
+    }
+
+    /**
+     * Draws a frame of a sprite sheet with its top left corner at a position
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawTile(SpriteSheet sheet, int frame, int x, int y) {
+        flushShapes();
+        int w = sheet.getFrameWidth(frame);
+        int h = sheet.getFrameHeight(frame);
+        int sx = sheet.getFrameX(frame);
+        int sy = sheet.getFrameY(frame);
+        g.drawImage(sheet.getTexture().getImage(), x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+    }
+
+    /**
+     * Draws an image with its top left corner at a position
+     *
+     * @param img the image
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void blitImage(Image img, int x, int y) {
+        flushShapes();
+        g.drawImage(img, x, y, null);
+    }
+
+    /**
+     * Draws the current frame of an animation centered on a position
+     *
+     * @param animator the animator playing the animation
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawAnimation(Animator animator, double x, double y) {
+        drawSprite(animator.getAnimation().getSheet(), animator.getFrame(), x, y);
+    }
+
+    /**
+     * Draws a display list with the top left corner of its area at a position. Cached lists are drawn as a single image
+     *
+     * @param list the display list
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void drawDisplayList(DisplayList list, int x, int y) {
+        flushShapes();
+        if(list.isCached()) {
+            blitImage(list.getImage(g.getFont()), x, y);
+            return;
+        }
+        pushMatrix();
+        translate(x, y);
+        list.replay(g, transform);
+        popMatrix();
+    }
+
+    /**
+     * Draws a scene graph under the current transformation. The transformation is set once per node, from world
+     * transformations that are only recomputed for nodes that moved
+     *
+     * @param root the root node of the scene
+     */
+    public void drawScene(SceneNode root) {
+        flushShapes();
+        root.updateWorld();
+        pushMatrix();
+        drawNode(root, matrices[matrixDepth - 1]);
+        popMatrix();
+    }
+
+    /**
+     * Draws a node and its children
+     *
+     * @param node the node
+     * @param view the transformation the scene is drawn under
+     */
+    private void drawNode(SceneNode node, AffineTransform view) {
+        if(!node.isVisible()) {
+            return;
+        }
+        node.updateWorldFromParent();
+        flushShapes();
+        transform.setTransform(view);
+        transform.concatenate(node.getWorld());
+        g.setTransform(transform);
+        node.render(this);
+        for(int i = 0, n = node.getChildCount(); i < n; i++) {
+            drawNode(node.getChild(i), view);
+        }
+    }
+
+    /**
+     * Draws every live particle of a particle system. Particles are grouped by color so each color is only set once
+     *
+     * @param particles the particle system
+     */
+    public void drawParticles(ParticleSystem particles) {
+        flushShapes();
+        int count = particles.getCount();
+        Color[] palette = particles.getPalette();
+        int[] order = particles.order;
+        int[] start = particles.bucketStart;
+
+        // Counting sort of the particles by palette color
+        Arrays.fill(start, 0);
+        for(int i = 0; i < count; i++) {
+            start[particles.colorOf(i) + 1]++;
+        }
+        for(int c = 1; c < start.length; c++) {
+            start[c] += start[c - 1];
+        }
+        for(int i = 0; i < count; i++) {
+            order[start[particles.colorOf(i)]++] = i;
+        }
+
+        // Buckets now end where they used to start, so walk them back
+        int size = particles.getSize();
+        int half = size / 2;
+        int from = 0;
+        for(int c = 0; c < palette.length; c++) {
+            int to = start[c];
+            if(to > from) {
+                g.setColor(palette[c]);
+                for(int k = from; k < to; k++) {
+                    int i = order[k];
+                    g.fillRect((int)Math.floor(particles.x[i]) - half, (int)Math.floor(particles.y[i]) - half, size, size);
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Fills a rectangle. Shapes are batched by color and drawn together before anything else is drawn or the
+     * transformation changes, so among shapes drawn in between, shapes of one color may end up over or under shapes
+     * of another
+     *
+     * @param color the color to fill with
+     * @param x the x coordinate of the top left corner
+     * @param y the y coordinate of the top left corner
+     * @param width the width
+     * @param height the height
+     */
+    public void fillRect(Color color, double x, double y, double width, double height) {
+        shapes.fillRect(color, (float)x, (float)y, (float)width, (float)height);
+    }
+
+    /**
+     * Draws a line one pixel wide. Lines are batched as with fillRect
+     *
+     * @param color the color of the line
+     * @param x1 the x coordinate of the start
+     * @param y1 the y coordinate of the start
+     * @param x2 the x coordinate of the end
+     * @param y2 the y coordinate of the end
+     */
+    public void drawLine(Color color, double x1, double y1, double x2, double y2) {
+        shapes.drawLine(color, (float)x1, (float)y1, (float)x2, (float)y2);
+    }
+
+    /**
+     * Fills a circle. Circles are batched as with fillRect
+     *
+     * @param color the color to fill with
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center
+     * @param radius the radius
+     */
+    public void fillCircle(Color color, double x, double y, double radius) {
+        shapes.fillCircle(color, (float)x, (float)y, (float)radius);
+    }
+
+    /**
+     * Draws the outline of a polygon, closed from the last point back to the first. Outlines are batched as with
+     * fillRect
+     *
+     * @param color the color of the outline
+     * @param xPoints the x coordinates of the points
+     * @param yPoints the y coordinates of the points
+     * @param points the number of points
+     */
+    public void drawPolygon(Color color, double[] xPoints, double[] yPoints, int points) {
+        if(points >= 2) {
+            shapes.drawPolygon(color, xPoints, yPoints, points);
+        }
+    }
+
+    /**
+     * Draws every batched shape under the current transformation
+     */
+    void flushShapes() {
+        if(!shapes.isEmpty()) {
+            shapes.flush(g, transform, getPixels(), WIDTH, renderWidth, renderHeight);
+        }
+    }
+
+    /**
+     * Lights everything drawn so far this frame with a light map. Anything drawn afterwards, such as the HUD, is not lit
+     *
+     * @param lights the light map
+     */
+    public void drawLights(LightMap lights) {
+        flushShapes();
+        if(compositor == null) {
+            compositor = new Compositor();
+        }
+        lights.render(this, compositor);
+    }
+
     /**
      * Converts a string to a color
      *
@@ -274,7 +885,7 @@ public class Renderer {
     public static Color stringToColor(String str) {
         // Ensure a name was given to decode
         if(str == null) {
-            System.out.println("INFORMATIONAL: Null color value passed. Defaulting to black clear color");
+            NULL_COLOR.log();
             return Color.BLACK;
         }
 
@@ -287,7 +898,7 @@ public class Renderer {
                 final Field field = Color.class.getField(str);
                 return (Color)field.get(null);
             } catch(NoSuchFieldException | IllegalAccessException ex) {
-                System.out.printf("INFORMATIONAL: Could not find matching color \"%s\". Defaulting to black clear color\n", str);
+                UNKNOWN_COLOR.log(str);
                 return Color.BLACK;
             }
         }
@@ -304,17 +915,17 @@ public class Renderer {
     public boolean validateFontInfo(String name, String style, String size) {
         // Name must not be null, and must exist on the local machine
         if(name == null || !validateFontFamilyName(name)) {
-            System.out.printf("INFORMATIONAL: '%s' is not a valid font family name and cannot be created. The default font will be used\n", name);
+            INVALID_FONT_NAME.log(name);
             return false;
         }
 
         // Style and size must be numeric
         if(style == null || !Pattern.matches("([0-9])(\\s?\\|\\s?[0-9])?", style)) {
-            System.out.printf("INFORMATIONAL: '%s' is not a valid font style. Ensure it is in integer format. The default font will be used\n", style);
+            INVALID_STYLE_FORMAT.log(style);
             return false;
         }
         if(size == null || !Pattern.matches("[0-9]+", size)) {
-            System.out.printf("INFORMATIONAL: '%s' is not a valid font size. Ensure it is in integer format. The default font will be used\n", style);
+            INVALID_SIZE_FORMAT.log(size);
             return false;
         }
         return true;
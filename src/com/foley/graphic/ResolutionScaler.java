@@ -0,0 +1,109 @@
+package com.foley.graphic;
+
+/**
+ * Adjusts the scale of the internal render target to hold a target frame time
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+class ResolutionScaler {
+    // Frames to wait after a scale change before measuring again, so the average can settle
+    private static final int COOLDOWN_FRAMES = 30;
+    // Weight of the newest frame in the moving average
+    private static final double SMOOTHING = 0.1;
+    // The average must leave this band around the budget before the scale is changed
+    private static final double OVER_BUDGET = 1.05;
+    private static final double UNDER_BUDGET = 0.75;
+
+    private final long budget;
+    private final double minScale;
+    private final double maxScale;
+    private final double step;
+    private final boolean enabled;
+    private double scale;
+    private double average;
+    private long lastFrame;
+    private int cooldown;
+
+    /**
+     * Creates a new resolution scaler
+     *
+     * @param targetFrameRate the frame rate to hold. A value of 0 or less disables scaling
+     * @param scale the starting scale
+     * @param minScale the smallest scale that may be used
+     * @param maxScale the largest scale that may be used
+     * @param step the amount the scale changes by in a single adjustment
+     */
+    ResolutionScaler(int targetFrameRate, double scale, double minScale, double maxScale, double step) {
+        enabled = targetFrameRate > 0;
+        budget = enabled ? 1000000000L / targetFrameRate : 0L;
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+        this.step = step;
+        this.scale = Math.max(minScale, Math.min(maxScale, scale));
+        cooldown = COOLDOWN_FRAMES;
+    }
+
+    /**
+     * Records the start of a frame and adjusts the scale if the average frame time has left the budget
+     *
+     * @param now the current time in nanoseconds
+     * @return true if the scale was changed
+     */
+    boolean frame(long now) {
+        if(!enabled) {
+            return false;
+        }
+        if(lastFrame == 0L) {
+            lastFrame = now;
+            return false;
+        }
+        long elapsed = now - lastFrame;
+        lastFrame = now;
+        average = average == 0.0 ? elapsed : average + (elapsed - average) * SMOOTHING;
+
+        // Let the average catch up with the last change before deciding again
+        if(cooldown > 0) {
+            cooldown--;
+            return false;
+        }
+
+        double next = scale;
+        if(average > budget * OVER_BUDGET) {
+            next = Math.max(minScale, scale - step);
+        } else if(average < budget * UNDER_BUDGET) {
+            next = Math.min(maxScale, scale + step);
+        }
+        if(next == scale) {
+            return false;
+        }
+        scale = next;
+        cooldown = COOLDOWN_FRAMES;
+        return true;
+    }
+
+    /**
+     * Forgets the time of the last frame, so a deliberate wait between frames is not measured as a slow frame
+     */
+    void reset() {
+        lastFrame = 0L;
+    }
+
+    /**
+     * Gets the current scale
+     *
+     * @return the current scale of the render target
+     */
+    double getScale() {
+        return scale;
+    }
+
+    /**
+     * Gets the smoothed frame time
+     *
+     * @return the moving average of the frame time in nanoseconds
+     */
+    double getAverageFrameTime() {
+        return average;
+    }
+}
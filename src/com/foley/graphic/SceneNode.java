@@ -0,0 +1,293 @@
+package com.foley.graphic;
+
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+
+/**
+ * A node in a scene graph. Each node has a position, rotation and scale relative to its parent. World transformations
+ * are cached and only recomputed for nodes that moved, or whose parent moved, since they were last drawn. Subclasses
+ * draw themselves by overriding render, and draw around their own origin
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class SceneNode {
+    private static final SceneNode[] NO_CHILDREN = new SceneNode[0];
+
+    // Local transformation
+    private double x;
+    private double y;
+    private double rotation;
+    private double scaleX;
+    private double scaleY;
+    private boolean localDirty;
+
+    // Local matrix, recomputed from the local transformation when it changes
+    private double l00;
+    private double l01;
+    private double l02;
+    private double l10;
+    private double l11;
+    private double l12;
+
+    // World matrix, and the version of the parent's world matrix it was computed from
+    private final AffineTransform world;
+    private int version;
+    private int parentVersion;
+
+    private SceneNode parent;
+    private SceneNode[] children;
+    private int childCount;
+    private boolean visible;
+
+    /**
+     * Creates a new scene node at the origin of its parent
+     */
+    public SceneNode() {
+        scaleX = 1.0;
+        scaleY = 1.0;
+        localDirty = true;
+        world = new AffineTransform();
+        children = NO_CHILDREN;
+        visible = true;
+        // Start out of date with any parent
+        parentVersion = -1;
+    }
+
+    /**
+     * Draws the node. The renderer is already transformed so the node's origin is at (0, 0). Default behavior is to
+     * draw nothing
+     *
+     * @param renderer the renderer
+     */
+    protected void render(Renderer renderer) {}
+
+    /**
+     * Adds a child node. The child is removed from its previous parent first
+     *
+     * @param child the child node
+     */
+    public void addChild(SceneNode child) {
+        if(child.parent != null) {
+            child.parent.removeChild(child);
+        }
+        if(childCount == children.length) {
+            children = Arrays.copyOf(children, Math.max(4, children.length * 2));
+        }
+        children[childCount++] = child;
+        child.parent = this;
+        child.parentVersion = -1;
+    }
+
+    /**
+     * Removes a child node
+     *
+     * @param child the child node
+     * @return true if the node was a child of this node
+     */
+    public boolean removeChild(SceneNode child) {
+        for(int i = 0; i < childCount; i++) {
+            if(children[i] == child) {
+                // Keep the draw order of the remaining children
+                System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+                children[--childCount] = null;
+                child.parent = null;
+                child.parentVersion = -1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recomputes the world transformation if the node or any of its ancestors moved
+     */
+    void updateWorld() {
+        if(parent != null) {
+            parent.updateWorld();
+        }
+        updateWorldFromParent();
+    }
+
+    /**
+     * Recomputes the world transformation if the node or its parent moved. The parent must already be up to date
+     */
+    void updateWorldFromParent() {
+        if(localDirty) {
+            double cos = Math.cos(rotation);
+            double sin = Math.sin(rotation);
+            l00 = cos * scaleX;
+            l01 = -sin * scaleY;
+            l02 = x;
+            l10 = sin * scaleX;
+            l11 = cos * scaleY;
+            l12 = y;
+        }
+        int pv = parent == null ? 0 : parent.version;
+        if(!localDirty && pv == parentVersion) {
+            return;
+        }
+        if(parent == null) {
+            world.setTransform(l00, l10, l01, l11, l02, l12);
+        } else {
+            AffineTransform p = parent.world;
+            double p00 = p.getScaleX();
+            double p01 = p.getShearX();
+            double p02 = p.getTranslateX();
+            double p10 = p.getShearY();
+            double p11 = p.getScaleY();
+            double p12 = p.getTranslateY();
+            world.setTransform(p00 * l00 + p01 * l10, p10 * l00 + p11 * l10,
+                    p00 * l01 + p01 * l11, p10 * l01 + p11 * l11,
+                    p00 * l02 + p01 * l12 + p02, p10 * l02 + p11 * l12 + p12);
+        }
+        localDirty = false;
+        parentVersion = pv;
+        version++;
+    }
+
+    /**
+     * Gets the cached world transformation
+     *
+     * @return the world transformation
+     */
+    AffineTransform getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets a child node
+     *
+     * @param index the index of the child
+     * @return the child node
+     */
+    public SceneNode getChild(int index) {
+        if(index < 0 || index >= childCount) {
+            throw new IndexOutOfBoundsException("Child " + index + " does not exist");
+        }
+        return children[index];
+    }
+
+    /**
+     * Gets the number of child nodes
+     *
+     * @return the number of children
+     */
+    public int getChildCount() {
+        return childCount;
+    }
+
+    /**
+     * Gets the parent node
+     *
+     * @return the parent node, or null if this is a root node
+     */
+    public SceneNode getParent() {
+        return parent;
+    }
+
+    /**
+     * Moves the node relative to its parent
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void setPosition(double x, double y) {
+        if(this.x != x || this.y != y) {
+            this.x = x;
+            this.y = y;
+            localDirty = true;
+        }
+    }
+
+    /**
+     * Rotates the node relative to its parent
+     *
+     * @param rotation the angle in radians
+     */
+    public void setRotation(double rotation) {
+        if(this.rotation != rotation) {
+            this.rotation = rotation;
+            localDirty = true;
+        }
+    }
+
+    /**
+     * Scales the node relative to its parent
+     *
+     * @param scaleX the horizontal scale
+     * @param scaleY the vertical scale
+     */
+    public void setScale(double scaleX, double scaleY) {
+        if(this.scaleX != scaleX || this.scaleY != scaleY) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            localDirty = true;
+        }
+    }
+
+    /**
+     * Shows or hides the node and all of its children
+     *
+     * @param visible true to draw the node
+     */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * Determines if the node is drawn
+     *
+     * @return true if the node is visible
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Gets the x coordinate relative to the parent
+     *
+     * @return the local x coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the y coordinate relative to the parent
+     *
+     * @return the local y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Gets the rotation relative to the parent
+     *
+     * @return the local rotation in radians
+     */
+    public double getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Gets the x coordinate of the node's origin in the scene
+     *
+     * @return the world x coordinate
+     */
+    public double getWorldX() {
+        updateWorld();
+        return world.getTranslateX();
+    }
+
+    /**
+     * Gets the y coordinate of the node's origin in the scene
+     *
+     * @return the world y coordinate
+     */
+    public double getWorldY() {
+        updateWorld();
+        return world.getTranslateY();
+    }
+}
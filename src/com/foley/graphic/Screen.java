@@ -2,10 +2,17 @@ package com.foley.graphic;
 
 import com.foley.core.Config;
 import com.foley.core.Game;
+import com.foley.event.EventBus;
+import com.foley.event.Topic;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
 
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.ImageCapabilities;
 import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.Window;
@@ -13,11 +20,8 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
 
-import java.io.InputStream;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -30,10 +34,24 @@ import java.util.concurrent.CountDownLatch;
  * @version 02 Jan 2021
  */
 public class Screen {
+    private static final LogSite INVALID_MODE = new LogSite(Level.INFO, "Invalid window mode. Will use default \"WINDOWED\" mode");
+    private static final LogSite MISSING_ICON = new LogSite(Level.INFO, "Could not find image \"%s\". Window will have default Java icon");
+    private static final LogSite NO_FULLSCREEN = new LogSite(Level.INFO, "Fullscreen is not supported on this device. Defaulting to windowed mode");
+    private static final LogSite BUFFERS_CREATED = new LogSite(Level.INFO, "Using %d buffers with %s");
+    private static final LogSite BUFFERS_UNSUPPORTED = new LogSite(Level.INFO, "%d buffers with %s are not supported on this device");
+    private static final LogSite BUFFERS_FALLBACK = new LogSite(Level.INFO, "Falling back to the default buffer strategy with %d buffers");
+    private static final LogSite OFFSCREEN_MODE_CHANGE = new LogSite(Level.INFO, "An offscreen screen cannot change window mode. No further action will be taken");
+    private static final LogSite SAME_MODE = new LogSite(Level.INFO, "Selected window mode [%s] is the current mode of the screen. No further action will be taken");
+    private static final LogSite MODE_CHANGE = new LogSite(Level.INFO, "Changing mode to %s");
+
     private JFrame frame;
     private WindowMode windowMode;
     private Game game;
-    private Rectangle bounds;
+    private Topic<ScreenEvent> events;
+    private volatile Rectangle bounds;
+    private boolean resizable;
+    private int bufferCount = 2;
+    private boolean pageFlipping;
 
     /**
      * Allows for different window modes to be used
@@ -41,7 +59,9 @@ public class Screen {
     public enum WindowMode {
         WINDOWED,
         BORDERLESS,
-        FULLSCREEN;
+        FULLSCREEN,
+        // Renders without a window, for automated runs
+        OFFSCREEN;
     }
 
     /**
@@ -89,22 +109,38 @@ public class Screen {
      * @param g the game object
      */
     public Screen(Config config, Game g) {
+        this(config, g, null);
+    }
+
+    /**
+     * Creates a new screen that publishes its window events on a bus instead of calling the game from the event
+     * dispatch thread
+     *
+     * @param config the config file
+     * @param g the game object
+     * @param bus the bus to create the screen topic on, or null to call the game directly
+     */
+    public Screen(Config config, Game g, EventBus bus) {
         // Ensure proper window mode is obtained
         windowMode = WindowMode.WINDOWED;
         try {
             windowMode = WindowMode.valueOf(config.getProperty("mode"));
         } catch(IllegalArgumentException e) {
-            System.out.println("INFORMATIONAL: Invalid window mode. Will use default \"WINDOWED\" mode");
+            INVALID_MODE.log();
         }
 
         game = g;
+        if(bus != null) {
+            events = bus.createTopic("screen", config.getInt("eventCapacity", 256), ScreenEvent::new);
+        }
+        resizable = config.getBoolean("resizable", false);
+        bufferCount = Math.max(1, config.getInt("bufferCount", 2));
+        pageFlipping = config.getBoolean("pageFlipping", false);
 
         // Attempt to find a custom window icon
-        Image img = null;
-        try(InputStream is = this.getClass().getClassLoader().getResourceAsStream("images/icons/" + config.getProperty("windowIcon"))) {
-            img = ImageIO.read(is);
-        } catch(IOException | IllegalArgumentException e) {
-            System.out.printf("INFORMATIONAL: Could not find image \"%s\". Window will have default Java icon\n", config.getProperty("windowIcon"));
+        Image img = Texture.getImage("images/icons/" + config.getProperty("windowIcon"));
+        if(img == null) {
+            MISSING_ICON.log(config.getProperty("windowIcon"));
         }
 
         // Parse display width
@@ -178,11 +214,16 @@ public class Screen {
 
         // Setup basic window parameters
         windowMode = mode;
+        if(windowMode == WindowMode.OFFSCREEN) {
+            frame = null;
+            bounds = new Rectangle(0, 0, Math.max(1, width), Math.max(1, height));
+            return;
+        }
         frame = new JFrame(title);
         frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE); // WindowListener that is added will properly stop game loop and close the window
         frame.setIgnoreRepaint(true);
         frame.setSize(width, height);
-        frame.setResizable(false);
+        frame.setResizable(resizable);
         frame.setLocationRelativeTo(null);
 
         // Attempt to set the window icon
@@ -201,39 +242,57 @@ public class Screen {
                 if(device.isFullScreenSupported()) {
                     device.setFullScreenWindow(frame);
                 } else {
-                    System.out.println("INFORMATIONAL: Fullscreen is not supported on this device. Defaulting to windowed mode");
+                    NO_FULLSCREEN.log();
                     windowMode = WindowMode.WINDOWED;
                     frame.setUndecorated(false);
                 }
             }
         }
 
-        // Ensure game thread is stopped if window is closed
+        // Ensure game thread is stopped if window is closed, and slow the game down while it is in the background
         frame.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                game.stop();
+                signal(ScreenEvent.Type.CLOSING);
+            }
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                signal(ScreenEvent.Type.BACKGROUND);
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                signal(e.getWindow().isActive() ? ScreenEvent.Type.FOREGROUND : ScreenEvent.Type.BACKGROUND);
+            }
+
+            @Override
+            public void windowActivated(WindowEvent e) {
+                signal(ScreenEvent.Type.FOREGROUND);
+            }
+
+            @Override
+            public void windowDeactivated(WindowEvent e) {
+                signal(ScreenEvent.Type.BACKGROUND);
             }
         });
 
-        // Handle window resize events
+        // Handle window resize events. The renderer letterboxes into the new drawing area to keep the aspect ratio
         frame.addComponentListener(new ComponentAdapter() {
             public void componentResized(ComponentEvent e) {
-                // Fix up aspect ratio here
+                updateBounds();
+                signal(ScreenEvent.Type.RESIZED);
             }
         });
 
-        // Get the drawing area bounds. Insets are the border and title bar for a decorated window. Getting the insets will ensure you can draw on a visible surface
-        Insets insets = frame.getInsets();
-        bounds = new Rectangle(insets.left, insets.top, frame.getWidth() - (insets.left + insets.right), frame.getHeight() - (insets.top + insets.bottom));
-
-        // Display the window
+        // Display the window. Insets are only known once the window is displayable
         frame.setVisible(true);
+        updateBounds();
 
         // Ensure buffer strategy is created before window is drawn to
         CountDownLatch latch = new CountDownLatch(1);
         SwingUtilities.invokeLater(() -> {
-            frame.createBufferStrategy(2);
+            createBufferStrategy();
             latch.countDown();
         });
 
@@ -246,17 +305,91 @@ public class Screen {
         }
     }
 
+    /**
+     * Creates the buffer strategy for the window. The requested capabilities are tried first, then fewer buffers, then
+     * plain blitting if the display cannot provide them
+     */
+    private void createBufferStrategy() {
+        // Only request page flipping if the display can actually do it
+        boolean flip = pageFlipping && frame.getGraphicsConfiguration().getBufferCapabilities().isPageFlipping();
+        for(int count = bufferCount; count >= 2; count--) {
+            BufferCapabilities caps = new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true),
+                    flip ? BufferCapabilities.FlipContents.UNDEFINED : null);
+            try {
+                frame.createBufferStrategy(count, caps);
+                BUFFERS_CREATED.log(count, flip ? "page flipping" : "accelerated blitting");
+                return;
+            } catch(AWTException e) {
+                BUFFERS_UNSUPPORTED.log(count, flip ? "page flipping" : "accelerated blitting");
+            }
+        }
+
+        // Let AWT pick the best strategy it can for the requested number of buffers
+        frame.createBufferStrategy(bufferCount);
+        BUFFERS_FALLBACK.log(bufferCount);
+    }
+
+    /**
+     * Passes a window event on to the game. With a bus the event is published on the screen topic and handled on the
+     * game thread; without one, or when the topic is full and the event is a close, the game is called straight from
+     * the event dispatch thread
+     *
+     * @param type the kind of event
+     */
+    private void signal(ScreenEvent.Type type) {
+        if(events != null) {
+            long seq = events.claim();
+            if(seq >= 0L) {
+                // Focus events can arrive while the window is first shown, before the bounds are known
+                Rectangle area = bounds;
+                events.get(seq).set(type, area == null ? 0 : area.width, area == null ? 0 : area.height);
+                events.publish(seq);
+                return;
+            }
+            // A full topic means the game thread is stalled, which is when a close request matters most, so a close is
+            // never dropped and stops the game straight away instead
+            if(type != ScreenEvent.Type.CLOSING) {
+                return;
+            }
+        }
+        switch(type) {
+            case CLOSING:
+                game.stop();
+                break;
+            case BACKGROUND:
+                game.throttle(true);
+                break;
+            case FOREGROUND:
+                game.throttle(false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Recalculates the drawing area bounds. Insets are the border and title bar for a decorated window. Getting the insets will ensure you can draw on a visible surface
+     */
+    private void updateBounds() {
+        Insets insets = frame.getInsets();
+        bounds = new Rectangle(insets.left, insets.top, Math.max(1, frame.getWidth() - (insets.left + insets.right)), Math.max(1, frame.getHeight() - (insets.top + insets.bottom)));
+    }
+
     /**
      * Change the window mode
      *
      * @param mode the mode to switch to
      */
     public boolean changeMode(WindowMode mode) {
+        if(windowMode == WindowMode.OFFSCREEN || mode == WindowMode.OFFSCREEN) {
+            OFFSCREEN_MODE_CHANGE.log();
+            return false;
+        }
         if(windowMode == mode) {
-            System.out.printf("INFORMATIONAL: Selected window mode [%s] is the current mode of the screen. No further action will be taken\n", mode.toString());
+            SAME_MODE.log(mode.toString());
             return false;
         }
-        System.out.printf("INFORMATIONAL: Changing mode to %s\n", mode.toString());
+        MODE_CHANGE.log(mode.toString());
 
         // Come out of fullscreen mode if necessary
         if(windowMode == WindowMode.FULLSCREEN) {
@@ -284,6 +417,9 @@ public class Screen {
      * @return true if the screen is currently in full screen mode
      */
     public boolean isFullScreen() {
+        if(frame == null) {
+            return false;
+        }
         GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
         return device.getFullScreenWindow() != null;
     }
@@ -292,6 +428,9 @@ public class Screen {
      * Closes down the screen
      */
     public void closeScreen() {
+        if(frame == null) {
+            return;
+        }
         // Shut down full screen is necessary
         if(isFullScreen()) {
             GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
@@ -307,7 +446,7 @@ public class Screen {
      * @return the width of the screen
      */
     public int getWidth() {
-        return frame.getWidth();
+        return frame == null ? bounds.width : frame.getWidth();
     }
 
     /**
@@ -316,18 +455,45 @@ public class Screen {
      * @return the height of the screen
      */
     public int getHeight() {
-        return frame.getHeight();
+        return frame == null ? bounds.height : frame.getHeight();
+    }
+
+    /**
+     * Gets the topic the screen publishes its window events on
+     *
+     * @return the screen topic, or null if the screen calls the game directly
+     */
+    public Topic<ScreenEvent> getEvents() {
+        return events;
     }
 
     /**
      * Gets the game window the screen is using
      *
-     * @return the game window
+     * @return the game window, or null if the screen is offscreen
      */
     public Window getGameWindow() {
         return frame;
     }
 
+    /**
+     * Gets the buffer strategy of the current game window. The strategy changes whenever the window mode changes
+     *
+     * @return the buffer strategy used to present frames, or null if the screen is offscreen
+     */
+    public BufferStrategy getBufferStrategy() {
+        return frame == null ? null : frame.getBufferStrategy();
+    }
+
+    /**
+     * Determines if the screen renders without a window
+     *
+     * @return true if the screen is offscreen
+     */
+    public boolean isOffscreen() {
+        return windowMode == WindowMode.OFFSCREEN;
+    }
+
     /**
      * Gets the portion of the window that can be drawn on and not be hidden by decorations
      *
@@ -0,0 +1,64 @@
+package com.foley.graphic;
+
+/**
+ * Something that happened to the game window, published by the screen from the event dispatch thread. Events are
+ * reused slots of the screen topic, so they are only good until the handler returns
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class ScreenEvent {
+    /**
+     * The kinds of window events
+     */
+    public enum Type {
+        // The user asked to close the window
+        CLOSING,
+        // The window was minimized or lost focus
+        BACKGROUND,
+        // The window was restored or regained focus
+        FOREGROUND,
+        // The drawing area of the window changed size
+        RESIZED
+    }
+
+    private Type type;
+    private int width;
+    private int height;
+
+    /**
+     * Gets the kind of event
+     *
+     * @return the type of the event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the width of the drawing area when the event happened
+     *
+     * @return the width of the drawing area
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the drawing area when the event happened
+     *
+     * @return the height of the drawing area
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Fills in the event before it is published
+     */
+    void set(Type type, int width, int height) {
+        this.type = type;
+        this.width = width;
+        this.height = height;
+    }
+}
@@ -0,0 +1,535 @@
+package com.foley.graphic;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Collects simple shapes drawn by a renderer and draws them all at once, grouped by color. Each color keeps its own
+ * buffers of coordinates, which are reused from frame to frame, so recording a shape allocates nothing once the buffers
+ * have grown to fit a frame
+ *
+ * When drawn, colors go in the order they were first used, and within a color the filled shapes go before the
+ * outlines. As long as the transformation neither rotates nor shears, shapes are written straight into the pixels of the
+ * render target. Otherwise each color is set once and its shapes are passed to Java2D, with every outline of a color
+ * stroked as a single path
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+final class ShapeBatch {
+    private static final int INITIAL_COLORS = 16;
+    private static final int INITIAL_COORDINATES = 64;
+    // Lines are trimmed to this many pixels either side of the origin before they are walked
+    private static final double LINE_LIMIT = 1 << 29;
+
+    // Colors in the order they were first used, and the buffers of each
+    private Color[] colors = new Color[INITIAL_COLORS];
+    private float[][] rects = new float[INITIAL_COLORS][];
+    private float[][] circles = new float[INITIAL_COLORS][];
+    private float[][] lines = new float[INITIAL_COLORS][];
+    private float[][] points = new float[INITIAL_COLORS][];
+    private int[][] polygons = new int[INITIAL_COLORS][];
+    private int[] rectSize = new int[INITIAL_COLORS];
+    private int[] circleSize = new int[INITIAL_COLORS];
+    private int[] lineSize = new int[INITIAL_COLORS];
+    private int[] pointSize = new int[INITIAL_COLORS];
+    private int[] polygonCount = new int[INITIAL_COLORS];
+    private int colorCount;
+    private int shapeCount;
+
+    // Open addressed table from ARGB value to color index plus one. Zero marks an empty entry
+    private int[] tableKey = new int[INITIAL_COLORS * 4];
+    private int[] tableIndex = new int[INITIAL_COLORS * 4];
+    private int lastColor = -1;
+
+    // Reused by the raster and Java2D paths
+    private final RasterTarget target = new RasterTarget();
+    private final Rectangle2D.Float rect = new Rectangle2D.Float();
+    private final Ellipse2D.Float ellipse = new Ellipse2D.Float();
+    private final Path2D.Float outline = new Path2D.Float();
+
+    /**
+     * Determines if there is nothing waiting to be drawn
+     *
+     * @return true if no shapes have been added since the last flush
+     */
+    boolean isEmpty() {
+        return shapeCount == 0;
+    }
+
+    /**
+     * Adds a filled rectangle
+     */
+    void fillRect(Color color, float x, float y, float w, float h) {
+        int c = indexOf(color);
+        float[] buffer = rects[c] = fit(rects[c], rectSize[c] + 4);
+        int n = rectSize[c];
+        buffer[n] = x;
+        buffer[n + 1] = y;
+        buffer[n + 2] = w;
+        buffer[n + 3] = h;
+        rectSize[c] = n + 4;
+        shapeCount++;
+    }
+
+    /**
+     * Adds a filled circle
+     */
+    void fillCircle(Color color, float x, float y, float radius) {
+        int c = indexOf(color);
+        float[] buffer = circles[c] = fit(circles[c], circleSize[c] + 3);
+        int n = circleSize[c];
+        buffer[n] = x;
+        buffer[n + 1] = y;
+        buffer[n + 2] = radius;
+        circleSize[c] = n + 3;
+        shapeCount++;
+    }
+
+    /**
+     * Adds a line
+     */
+    void drawLine(Color color, float x1, float y1, float x2, float y2) {
+        int c = indexOf(color);
+        float[] buffer = lines[c] = fit(lines[c], lineSize[c] + 4);
+        int n = lineSize[c];
+        buffer[n] = x1;
+        buffer[n + 1] = y1;
+        buffer[n + 2] = x2;
+        buffer[n + 3] = y2;
+        lineSize[c] = n + 4;
+        shapeCount++;
+    }
+
+    /**
+     * Adds the outline of a closed polygon
+     */
+    void drawPolygon(Color color, double[] xPoints, double[] yPoints, int count) {
+        int c = indexOf(color);
+        float[] buffer = points[c] = fit(points[c], pointSize[c] + count * 2);
+        int n = pointSize[c];
+        for(int i = 0; i < count; i++) {
+            buffer[n++] = (float)xPoints[i];
+            buffer[n++] = (float)yPoints[i];
+        }
+        pointSize[c] = n;
+        int[] sizes = polygons[c];
+        if(sizes == null || polygonCount[c] == sizes.length) {
+            polygons[c] = sizes = sizes == null ? new int[INITIAL_COORDINATES] : Arrays.copyOf(sizes, sizes.length * 2);
+        }
+        sizes[polygonCount[c]++] = count;
+        shapeCount++;
+    }
+
+    /**
+     * Draws every shape added since the last flush, then empties the batch
+     *
+     * @param g the graphics of the render target
+     * @param transform the transformation the shapes were added under
+     * @param pixels the pixels of the render target
+     * @param stride the length of a row of pixels
+     * @param width the width of the region of the render target in use
+     * @param height the height of the region of the render target in use
+     */
+    void flush(Graphics2D g, AffineTransform transform, int[] pixels, int stride, int width, int height) {
+        if(transform.getShearX() == 0.0 && transform.getShearY() == 0.0) {
+            target.bind(pixels, stride, width, height, transform);
+            for(int c = 0; c < colorCount; c++) {
+                target.draw(c);
+            }
+        } else {
+            Color previous = g.getColor();
+            for(int c = 0; c < colorCount; c++) {
+                drawJava2D(g, c);
+            }
+            g.setColor(previous);
+        }
+        clear();
+    }
+
+    /**
+     * Drops every shape added since the last flush
+     */
+    void clear() {
+        for(int c = 0; c < colorCount; c++) {
+            colors[c] = null;
+            rectSize[c] = 0;
+            circleSize[c] = 0;
+            lineSize[c] = 0;
+            pointSize[c] = 0;
+            polygonCount[c] = 0;
+        }
+        Arrays.fill(tableIndex, 0);
+        colorCount = 0;
+        shapeCount = 0;
+        lastColor = -1;
+    }
+
+    /**
+     * Draws the shapes of a color through Java2D
+     */
+    private void drawJava2D(Graphics2D g, int c) {
+        g.setColor(colors[c]);
+        float[] buffer = rects[c];
+        for(int i = 0, n = rectSize[c]; i < n; i += 4) {
+            rect.setRect(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3]);
+            g.fill(rect);
+        }
+        buffer = circles[c];
+        for(int i = 0, n = circleSize[c]; i < n; i += 3) {
+            float r = buffer[i + 2];
+            ellipse.setFrame(buffer[i] - r, buffer[i + 1] - r, r * 2, r * 2);
+            g.fill(ellipse);
+        }
+        if(lineSize[c] == 0 && polygonCount[c] == 0) {
+            return;
+        }
+        outline.reset();
+        buffer = lines[c];
+        for(int i = 0, n = lineSize[c]; i < n; i += 4) {
+            outline.moveTo(buffer[i], buffer[i + 1]);
+            outline.lineTo(buffer[i + 2], buffer[i + 3]);
+        }
+        buffer = points[c];
+        for(int p = 0, i = 0; p < polygonCount[c]; p++) {
+            int end = i + polygons[c][p] * 2;
+            outline.moveTo(buffer[i], buffer[i + 1]);
+            for(i += 2; i < end; i += 2) {
+                outline.lineTo(buffer[i], buffer[i + 1]);
+            }
+            outline.closePath();
+        }
+        g.draw(outline);
+    }
+
+    /**
+     * Finds the index of a color, adding it if it has not been used since the last flush
+     */
+    private int indexOf(Color color) {
+        if(lastColor >= 0 && colors[lastColor] == color) {
+            return lastColor;
+        }
+        int argb = color.getRGB();
+        int mask = tableKey.length - 1;
+        int slot = (argb * 0x9E3779B9) >>> 16 & mask;
+        while(tableIndex[slot] != 0) {
+            if(tableKey[slot] == argb) {
+                return lastColor = tableIndex[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if(colorCount == colors.length) {
+            growColors();
+            return indexOf(color);
+        }
+        int c = colorCount++;
+        colors[c] = color;
+        tableKey[slot] = argb;
+        tableIndex[slot] = c + 1;
+        return lastColor = c;
+    }
+
+    /**
+     * Doubles the number of colors a batch can hold
+     */
+    private void growColors() {
+        int size = colors.length * 2;
+        colors = Arrays.copyOf(colors, size);
+        rects = Arrays.copyOf(rects, size);
+        circles = Arrays.copyOf(circles, size);
+        lines = Arrays.copyOf(lines, size);
+        points = Arrays.copyOf(points, size);
+        polygons = Arrays.copyOf(polygons, size);
+        rectSize = Arrays.copyOf(rectSize, size);
+        circleSize = Arrays.copyOf(circleSize, size);
+        lineSize = Arrays.copyOf(lineSize, size);
+        pointSize = Arrays.copyOf(pointSize, size);
+        polygonCount = Arrays.copyOf(polygonCount, size);
+
+        // Rebuild the table at four entries per color so probes stay short
+        tableKey = new int[size * 4];
+        tableIndex = new int[size * 4];
+        int mask = tableKey.length - 1;
+        for(int c = 0; c < colorCount; c++) {
+            int argb = colors[c].getRGB();
+            int slot = (argb * 0x9E3779B9) >>> 16 & mask;
+            while(tableIndex[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            tableKey[slot] = argb;
+            tableIndex[slot] = c + 1;
+        }
+        lastColor = -1;
+    }
+
+    /**
+     * Makes sure a buffer can hold a number of coordinates
+     */
+    private static float[] fit(float[] buffer, int size) {
+        if(buffer == null) {
+            return new float[Math.max(INITIAL_COORDINATES, size)];
+        }
+        if(size > buffer.length) {
+            return Arrays.copyOf(buffer, Math.max(size, buffer.length * 2));
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes the shapes of a batch straight into pixels under a transformation that only moves and scales. Rectangles
+     * cover the same pixels Java2D would fill; circles and lines may differ from Java2D at their edges
+     */
+    private final class RasterTarget {
+        private int[] pixels;
+        private int stride;
+        private int width;
+        private int height;
+        private double scaleX;
+        private double scaleY;
+        private double moveX;
+        private double moveY;
+        private int rgb;
+        private boolean opaque;
+        // Part of the line being clipped that is inside the clip box, as fractions of its length
+        private double clipStart;
+        private double clipEnd;
+
+        /**
+         * Points the target at the pixels and transformation of a flush
+         */
+        void bind(int[] pixels, int stride, int width, int height, AffineTransform transform) {
+            this.pixels = pixels;
+            this.stride = stride;
+            this.width = width;
+            this.height = height;
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+            moveX = transform.getTranslateX();
+            moveY = transform.getTranslateY();
+        }
+
+        /**
+         * Draws the shapes of a color
+         */
+        void draw(int c) {
+            rgb = colors[c].getRGB();
+            opaque = (rgb >>> 24) == 0xFF;
+            if((rgb >>> 24) == 0) {
+                return;
+            }
+            float[] buffer = rects[c];
+            for(int i = 0, n = rectSize[c]; i < n; i += 4) {
+                double x0 = buffer[i] * scaleX + moveX;
+                double y0 = buffer[i + 1] * scaleY + moveY;
+                double x1 = x0 + buffer[i + 2] * scaleX;
+                double y1 = y0 + buffer[i + 3] * scaleY;
+                fillRect(first(Math.min(x0, x1)), first(Math.min(y0, y1)), first(Math.max(x0, x1)), first(Math.max(y0, y1)));
+            }
+            buffer = circles[c];
+            for(int i = 0, n = circleSize[c]; i < n; i += 3) {
+                fillEllipse(buffer[i] * scaleX + moveX, buffer[i + 1] * scaleY + moveY,
+                        Math.abs(buffer[i + 2] * scaleX), Math.abs(buffer[i + 2] * scaleY));
+            }
+            buffer = lines[c];
+            for(int i = 0, n = lineSize[c]; i < n; i += 4) {
+                drawLine(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3]);
+            }
+            buffer = points[c];
+            for(int p = 0, i = 0; p < polygonCount[c]; p++) {
+                int start = i;
+                int end = i + polygons[c][p] * 2;
+                for(; i < end; i += 2) {
+                    int next = i + 2 < end ? i + 2 : start;
+                    drawLine(buffer[i], buffer[i + 1], buffer[next], buffer[next + 1]);
+                }
+            }
+        }
+
+        /**
+         * Gets the first pixel at or past a device coordinate, with coordinates snapped to a quarter pixel as Java2D
+         * does for shapes drawn without antialiasing
+         */
+        private int first(double coordinate) {
+            return (int)Math.floor(coordinate + 0.25);
+        }
+
+        /**
+         * Fills the pixels from x0, y0 up to but not including x1, y1
+         */
+        private void fillRect(int x0, int y0, int x1, int y1) {
+            x0 = Math.max(0, x0);
+            y0 = Math.max(0, y0);
+            x1 = Math.min(width, x1);
+            y1 = Math.min(height, y1);
+            for(int y = y0; y < y1; y++) {
+                span(y * stride, x0, x1);
+            }
+        }
+
+        /**
+         * Fills an axis aligned ellipse one row at a time. The bounds are snapped as with rectangles, then a pixel is
+         * filled when its center is inside
+         */
+        private void fillEllipse(double cx, double cy, double rx, double ry) {
+            double left = snap(cx - rx);
+            double top = snap(cy - ry);
+            rx = (snap(cx + rx) - left) * 0.5;
+            ry = (snap(cy + ry) - top) * 0.5;
+            if(rx <= 0.0 || ry <= 0.0) {
+                return;
+            }
+            cx = left + rx;
+            cy = top + ry;
+            int y0 = Math.max(0, center(top));
+            int y1 = Math.min(height, center(top + ry * 2));
+            for(int y = y0; y < y1; y++) {
+                double dy = (y + 0.5 - cy) / ry;
+                double half = rx * Math.sqrt(Math.max(0.0, 1.0 - dy * dy));
+                span(y * stride, Math.max(0, center(cx - half)), Math.min(width, center(cx + half)));
+            }
+        }
+
+        /**
+         * Snaps a device coordinate to a quarter past a pixel edge
+         */
+        private double snap(double coordinate) {
+            return Math.floor(coordinate + 0.25) + 0.25;
+        }
+
+        /**
+         * Gets the first pixel whose center is at or past a device coordinate
+         */
+        private int center(double coordinate) {
+            return (int)Math.ceil(coordinate - 0.5);
+        }
+
+        /**
+         * Draws a one pixel wide line between two points with Bresenham's algorithm. The line is clipped with
+         * Liang-Barsky to the steps that come within a pixel of the render target, and the walk starts straight at
+         * the first of them, so it draws the same pixels as walking the whole line
+         */
+        private void drawLine(float ux1, float uy1, float ux2, float uy2) {
+            double fx = ux1 * scaleX + moveX;
+            double fy = uy1 * scaleY + moveY;
+            double fdx = ux2 * scaleX + moveX - fx;
+            double fdy = uy2 * scaleY + moveY - fy;
+            // Trim lines reaching far off the target, so pixel coordinates stay small enough for the step math
+            if(!clip(fx, fy, fdx, fdy, -LINE_LIMIT, -LINE_LIMIT, LINE_LIMIT, LINE_LIMIT)) {
+                return;
+            }
+            long x = (long)Math.floor(fx + clipStart * fdx);
+            long y = (long)Math.floor(fy + clipStart * fdy);
+            long tx = (long)Math.floor(fx + clipEnd * fdx);
+            long ty = (long)Math.floor(fy + clipEnd * fdy);
+            long dx = Math.abs(tx - x);
+            long dy = Math.abs(ty - y);
+            long steps = Math.max(dx, dy);
+            int sx = x < tx ? 1 : -1;
+            int sy = y < ty ? 1 : -1;
+
+            // Every step moves one pixel along the major axis, so clipping gives the range of steps to walk
+            if(!clip(x, y, tx - x, ty - y, -1.0, -1.0, width, height)) {
+                return;
+            }
+            long first = Math.max(0L, (long)Math.floor(clipStart * steps));
+            long last = Math.min(steps, (long)Math.ceil(clipEnd * steps));
+
+            // By the first step the line has moved first * minor / major pixels along its minor axis, rounded
+            long error;
+            if(dx >= dy) {
+                long minor = dx == 0L ? 0L : (2L * first * dy + dx) / (2L * dx);
+                x += sx * first;
+                y += sy * minor;
+                error = dx - dy - first * dy + minor * dx;
+            } else {
+                long minor = (2L * first * dx + dy) / (2L * dy);
+                x += sx * minor;
+                y += sy * first;
+                error = dx - dy + first * dx - minor * dy;
+            }
+            dy = -dy;
+            for(long step = first; ; step++) {
+                if(x >= 0 && x < width && y >= 0 && y < height) {
+                    plot((int)y * stride + (int)x);
+                }
+                if(step == last) {
+                    return;
+                }
+                long e2 = error * 2;
+                if(e2 >= dy) {
+                    error += dy;
+                    x += sx;
+                }
+                if(e2 <= dx) {
+                    error += dx;
+                    y += sy;
+                }
+            }
+        }
+
+        /**
+         * Clips a line to a box with Liang-Barsky, leaving the part of the line inside the box in clipStart and clipEnd
+         *
+         * @return false if none of the line is inside the box
+         */
+        private boolean clip(double x, double y, double dx, double dy, double left, double top, double right, double bottom) {
+            clipStart = 0.0;
+            clipEnd = 1.0;
+            return edge(-dx, x - left) && edge(dx, right - x) && edge(-dy, y - top) && edge(dy, bottom - y);
+        }
+
+        /**
+         * Clips the line being clipped against one edge of the box
+         *
+         * @param p the change in distance from the edge along the line, negative when the line heads out of the box
+         * @param q the distance of the start of the line inside the edge
+         * @return false if none of the line is left inside the box
+         */
+        private boolean edge(double p, double q) {
+            if(p == 0.0) {
+                return q >= 0.0;
+            }
+            double t = q / p;
+            if(p < 0.0) {
+                if(t > clipEnd) {
+                    return false;
+                }
+                clipStart = Math.max(clipStart, t);
+            } else {
+                if(t < clipStart) {
+                    return false;
+                }
+                clipEnd = Math.min(clipEnd, t);
+            }
+            return true;
+        }
+
+        /**
+         * Fills the pixels of a row from x0 up to but not including x1
+         */
+        private void span(int row, int x0, int x1) {
+            if(x0 >= x1) {
+                return;
+            }
+            if(opaque) {
+                Arrays.fill(pixels, row + x0, row + x1, rgb);
+            } else {
+                for(int p = row + x0, end = row + x1; p < end; p++) {
+                    pixels[p] = PixelOps.blend(rgb, pixels[p]);
+                }
+            }
+        }
+
+        /**
+         * Fills a single pixel
+         */
+        private void plot(int p) {
+            pixels[p] = opaque ? rgb : PixelOps.blend(rgb, pixels[p]);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.foley.graphic;
+
+/**
+ * A scene node that draws a sprite sheet frame, or the current frame of an animation, centered on its origin
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class SpriteNode extends SceneNode {
+    private SpriteSheet sheet;
+    private int frame;
+    private Animator animator;
+
+    /**
+     * Creates a new sprite node that draws a single frame
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     */
+    public SpriteNode(SpriteSheet sheet, int frame) {
+        setFrame(sheet, frame);
+    }
+
+    /**
+     * Creates a new sprite node that draws an animation
+     *
+     * @param animator the animator playing the animation
+     */
+    public SpriteNode(Animator animator) {
+        setAnimator(animator);
+    }
+
+    /**
+     * Sets the frame to draw
+     *
+     * @param sheet the sprite sheet
+     * @param frame the frame to draw
+     */
+    public void setFrame(SpriteSheet sheet, int frame) {
+        this.sheet = sheet;
+        this.frame = frame;
+        animator = null;
+    }
+
+    /**
+     * Sets the animation to draw
+     *
+     * @param animator the animator playing the animation
+     */
+    public void setAnimator(Animator animator) {
+        this.animator = animator;
+        sheet = null;
+    }
+
+    @Override
+    /**
+     * Draws the sprite centered on the node's origin
+     *
+     * @param renderer the renderer
+     */
+    protected void render(Renderer renderer) {
+        if(animator != null) {
+            renderer.drawAnimation(animator, 0, 0);
+        } else {
+            renderer.drawSprite(sheet, frame, 0, 0);
+        }
+    }
+}
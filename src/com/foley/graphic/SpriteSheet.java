@@ -0,0 +1,150 @@
+package com.foley.graphic;
+
+/**
+ * A texture divided into frames. Frame rectangles are computed once and kept in primitive arrays so drawing a frame
+ * never creates a sub image
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class SpriteSheet {
+    private final Texture texture;
+    private final int[] frameX;
+    private final int[] frameY;
+    private final int[] frameWidth;
+    private final int[] frameHeight;
+
+    /**
+     * Creates a new sprite sheet from a grid of equally sized frames. Frames are numbered left to right, top to bottom
+     *
+     * @param texture the texture holding the frames
+     * @param width the width of a frame
+     * @param height the height of a frame
+     */
+    public SpriteSheet(Texture texture, int width, int height) {
+        this(texture, width, height, 0, 0);
+    }
+
+    /**
+     * Creates a new sprite sheet from a grid of equally sized frames. Frames are numbered left to right, top to bottom
+     *
+     * @param texture the texture holding the frames
+     * @param width the width of a frame
+     * @param height the height of a frame
+     * @param margin the space between the edge of the texture and the first frame
+     * @param spacing the space between neighboring frames
+     */
+    public SpriteSheet(Texture texture, int width, int height, int margin, int spacing) {
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Frame width and height must be greater than 0");
+        }
+        this.texture = texture;
+        int columns = Math.max(0, (texture.getWidth() - 2 * margin + spacing) / (width + spacing));
+        int rows = Math.max(0, (texture.getHeight() - 2 * margin + spacing) / (height + spacing));
+        int count = columns * rows;
+        frameX = new int[count];
+        frameY = new int[count];
+        frameWidth = new int[count];
+        frameHeight = new int[count];
+        for(int i = 0; i < count; i++) {
+            frameX[i] = margin + (i % columns) * (width + spacing);
+            frameY[i] = margin + (i / columns) * (height + spacing);
+            frameWidth[i] = width;
+            frameHeight[i] = height;
+        }
+    }
+
+    /**
+     * Creates a new sprite sheet from packed frame rectangles
+     *
+     * @param texture the texture holding the frames
+     * @param rects the frame rectangles as consecutive x, y, width, height values
+     * @throws IllegalArgumentException if a rectangle is empty or does not fit inside the texture
+     */
+    public SpriteSheet(Texture texture, int[] rects) {
+        if(rects.length % 4 != 0) {
+            throw new IllegalArgumentException("Frame rectangles must be given as groups of x, y, width, height");
+        }
+        this.texture = texture;
+        int count = rects.length / 4;
+        frameX = new int[count];
+        frameY = new int[count];
+        frameWidth = new int[count];
+        frameHeight = new int[count];
+        for(int i = 0; i < count; i++) {
+            int x = rects[i * 4];
+            int y = rects[i * 4 + 1];
+            int w = rects[i * 4 + 2];
+            int h = rects[i * 4 + 3];
+            // Frames are copied straight out of the texture pixels, so every frame must lie inside the texture
+            if(w <= 0 || h <= 0) {
+                throw new IllegalArgumentException("Frame " + i + " must have a width and height greater than 0");
+            }
+            if(x < 0 || y < 0 || x > texture.getWidth() - w || y > texture.getHeight() - h) {
+                throw new IllegalArgumentException("Frame " + i + " does not fit inside the texture");
+            }
+            frameX[i] = x;
+            frameY[i] = y;
+            frameWidth[i] = w;
+            frameHeight[i] = h;
+        }
+    }
+
+    /**
+     * Gets the texture the frames are drawn from
+     *
+     * @return the texture of the sheet
+     */
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * Gets the number of frames in the sheet
+     *
+     * @return the number of frames
+     */
+    public int getFrameCount() {
+        return frameX.length;
+    }
+
+    /**
+     * Gets the x coordinate of a frame within the texture
+     *
+     * @param frame the frame
+     * @return the x coordinate of the frame
+     */
+    public int getFrameX(int frame) {
+        return frameX[frame];
+    }
+
+    /**
+     * Gets the y coordinate of a frame within the texture
+     *
+     * @param frame the frame
+     * @return the y coordinate of the frame
+     */
+    public int getFrameY(int frame) {
+        return frameY[frame];
+    }
+
+    /**
+     * Gets the width of a frame
+     *
+     * @param frame the frame
+     * @return the width of the frame
+     */
+    public int getFrameWidth(int frame) {
+        return frameWidth[frame];
+    }
+
+    /**
+     * Gets the height of a frame
+     *
+     * @param frame the frame
+     * @return the height of the frame
+     */
+    public int getFrameHeight(int frame) {
+        return frameHeight[frame];
+    }
+}
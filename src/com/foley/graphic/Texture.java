@@ -1,5 +1,7 @@
 package com.foley.graphic;
 
+import com.foley.asset.AssetPack;
+
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -13,7 +15,11 @@ import javax.imageio.ImageIO;
  * @version 05 Jan 2021
  */
 public class Texture {
+    private static volatile AssetPack pack;
+
     private BufferedImage img;
+    private int[] pixels;
+    private boolean opaque;
 
     /**
      * Creates a new texture
@@ -51,6 +57,38 @@ public class Texture {
         return img.getHeight();
     }
 
+    /**
+     * Gets the pixels of the texture as non-premultiplied ARGB values, row by row. The pixels are converted once and
+     * cached, so changes made to the image afterwards are not seen
+     *
+     * @return the pixels of the texture
+     */
+    int[] getPixels() {
+        if(pixels == null) {
+            int w = img.getWidth();
+            int h = img.getHeight();
+            pixels = img.getRGB(0, 0, w, h, null, 0, w);
+            opaque = true;
+            for(int p : pixels) {
+                if((p >>> 24) != 0xFF) {
+                    opaque = false;
+                    break;
+                }
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Determines if every pixel of the texture is fully opaque
+     *
+     * @return true if the texture has no transparent pixels
+     */
+    boolean isOpaque() {
+        getPixels();
+        return opaque;
+    }
+
     /**
      * Gets a smaller image from the parent image
      *
@@ -64,20 +102,46 @@ public class Texture {
         return img.getSubimage(x, y, w, h);
     }
 
+    /**
+     * Sets the asset pack images are loaded from before falling back to decoding them from the class path
+     *
+     * @param assets the pack to use, or null to always decode images
+     */
+    public static void setAssetPack(AssetPack assets) {
+        pack = assets;
+    }
+
     /**
      * Gets an image from a path
      *
      * @param path the path to the image
-     * @return the image stored at the specified path
+     * @return the image stored at the specified path, or null if it cannot be found
      */
     public static BufferedImage getImage(String path) {
+        AssetPack assets = pack;
+        if(assets != null && assets.contains(path)) {
+            return assets.getImage(path);
+        }
         try (InputStream is = Texture.class.getClassLoader().getResourceAsStream(path)){
+            if(is == null) {
+                return null;
+            }
             return ImageIO.read(is);
         } catch (IOException e) {
             return null;
         }
     }
 
+    /**
+     * Gets a texture that uses an image already in memory
+     *
+     * @param img the image
+     * @return a texture that uses the image
+     */
+    public static Texture getTexture(BufferedImage img) {
+        return new Texture(img);
+    }
+
     /**
      * Gets a texture from a path
      *
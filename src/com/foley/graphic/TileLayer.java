@@ -0,0 +1,162 @@
+package com.foley.graphic;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A single layer of tile IDs in a tile map. Baked layers keep a cached image per chunk of tiles which is only redrawn
+ * after a tile in that chunk changes
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class TileLayer {
+    private final short[] tiles;
+    private final boolean baked;
+    private boolean visible;
+
+    // Chunk cache. Only used by baked layers
+    private final BufferedImage[] chunks;
+    private final boolean[] dirty;
+    private final boolean[] empty;
+    private final int[] lastUsed;
+
+    /**
+     * Creates a new tile layer
+     *
+     * @param tileCount the number of tiles in the layer
+     * @param chunkCount the number of chunks in the layer
+     * @param baked true if the layer should be drawn from cached chunk images
+     */
+    TileLayer(int tileCount, int chunkCount, boolean baked) {
+        tiles = new short[tileCount];
+        this.baked = baked;
+        visible = true;
+        chunks = baked ? new BufferedImage[chunkCount] : null;
+        dirty = baked ? new boolean[chunkCount] : null;
+        empty = baked ? new boolean[chunkCount] : null;
+        lastUsed = baked ? new int[chunkCount] : null;
+        if(baked) {
+            Arrays.fill(dirty, true);
+        }
+    }
+
+    /**
+     * Determines if the layer is drawn from cached chunk images
+     *
+     * @return true if the layer is baked
+     */
+    public boolean isBaked() {
+        return baked;
+    }
+
+    /**
+     * Determines if the layer is drawn
+     *
+     * @return true if the layer is visible
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Shows or hides the layer
+     *
+     * @param visible true to draw the layer
+     */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * Gets the tile ID at an index
+     *
+     * @param index the index of the tile
+     * @return the tile ID
+     */
+    int get(int index) {
+        return tiles[index] & 0xFFFF;
+    }
+
+    /**
+     * Sets the tile ID at an index
+     *
+     * @param index the index of the tile
+     * @param id the tile ID
+     * @param chunk the chunk the tile belongs to
+     * @return true if the tile changed
+     */
+    boolean set(int index, int id, int chunk) {
+        if(get(index) == id) {
+            return false;
+        }
+        tiles[index] = (short)id;
+        if(baked) {
+            dirty[chunk] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the cached image of a chunk
+     *
+     * @param chunk the chunk
+     * @return the cached image, or null if the chunk has not been baked
+     */
+    BufferedImage getChunk(int chunk) {
+        return chunks[chunk];
+    }
+
+    /**
+     * Sets the cached image of a chunk
+     *
+     * @param chunk the chunk
+     * @param img the baked image, or null to release the cache for the chunk
+     * @param isEmpty true if the chunk contains no tiles
+     */
+    void setChunk(int chunk, BufferedImage img, boolean isEmpty) {
+        chunks[chunk] = img;
+        empty[chunk] = isEmpty;
+        dirty[chunk] = img == null && !isEmpty;
+    }
+
+    /**
+     * Determines if a chunk needs to be baked before it can be drawn
+     *
+     * @param chunk the chunk
+     * @return true if the chunk changed since it was last baked, or was evicted from the cache
+     */
+    boolean isDirty(int chunk) {
+        return dirty[chunk];
+    }
+
+    /**
+     * Determines if a baked chunk has no tiles to draw
+     *
+     * @param chunk the chunk
+     * @return true if the chunk is empty
+     */
+    boolean isEmpty(int chunk) {
+        return empty[chunk];
+    }
+
+    /**
+     * Records the frame a chunk was last drawn in
+     *
+     * @param chunk the chunk
+     * @param frame the frame number
+     */
+    void touch(int chunk, int frame) {
+        lastUsed[chunk] = frame;
+    }
+
+    /**
+     * Gets the frame a chunk was last drawn in
+     *
+     * @param chunk the chunk
+     * @return the frame number
+     */
+    int getLastUsed(int chunk) {
+        return lastUsed[chunk];
+    }
+}
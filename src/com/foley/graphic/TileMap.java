@@ -0,0 +1,360 @@
+package com.foley.graphic;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A grid of tiles drawn from a sprite sheet. Tile ID 0 is empty, and any other ID draws sheet frame ID - 1.
+ * Baked layers are drawn as one image per chunk of CHUNK_SIZE x CHUNK_SIZE tiles, so a frame only draws a handful of
+ * chunk images instead of every tile. A chunk is baked again the next time it is drawn after one of its tiles changes
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class TileMap {
+    public static final int CHUNK_SIZE = 16;
+    public static final int EMPTY = 0;
+    private static final int DEFAULT_MAX_CACHED_CHUNKS = 256;
+
+    private final SpriteSheet tiles;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int columns;
+    private final int rows;
+    private final int chunkColumns;
+    private final int chunkRows;
+    private final List<TileLayer> layers;
+
+    // Chunk image cache shared by all baked layers
+    private final ArrayDeque<BufferedImage> freeImages;
+    // Baked chunks holding an image, keyed by layer and chunk, from least to most recently drawn
+    private final LinkedHashMap<Long, TileLayer> bakedChunks;
+    private int maxCachedChunks;
+    private int cachedChunks;
+    private int frame;
+
+    /**
+     * Creates a new tile map. The tile size is taken from the first frame of the sprite sheet
+     *
+     * @param tiles the sprite sheet holding the tiles
+     * @param columns the number of tile columns
+     * @param rows the number of tile rows
+     */
+    public TileMap(SpriteSheet tiles, int columns, int rows) {
+        if(columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("A tile map must have at least one row and column");
+        }
+        if(tiles.getFrameCount() > 0xFFFF) {
+            throw new IllegalArgumentException("A tile map supports at most 65535 tiles");
+        }
+        this.tiles = tiles;
+        tileWidth = tiles.getFrameWidth(0);
+        tileHeight = tiles.getFrameHeight(0);
+        this.columns = columns;
+        this.rows = rows;
+        chunkColumns = (columns + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunkRows = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        layers = new ArrayList<>();
+        freeImages = new ArrayDeque<>();
+        bakedChunks = new LinkedHashMap<>(16, 0.75f, true);
+        maxCachedChunks = DEFAULT_MAX_CACHED_CHUNKS;
+    }
+
+    /**
+     * Adds a new empty layer on top of the existing layers
+     *
+     * @param baked true if the layer rarely changes and should be drawn from cached chunk images
+     * @return the index of the new layer
+     */
+    public int addLayer(boolean baked) {
+        layers.add(new TileLayer(columns * rows, chunkColumns * chunkRows, baked));
+        return layers.size() - 1;
+    }
+
+    /**
+     * Gets a layer of the map
+     *
+     * @param layer the index of the layer
+     * @return the layer
+     */
+    public TileLayer getLayer(int layer) {
+        return layers.get(layer);
+    }
+
+    /**
+     * Gets the number of layers in the map
+     *
+     * @return the number of layers
+     */
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    /**
+     * Gets the tile ID at a position
+     *
+     * @param layer the index of the layer
+     * @param column the column of the tile
+     * @param row the row of the tile
+     * @return the tile ID
+     */
+    public int getTile(int layer, int column, int row) {
+        checkBounds(column, row);
+        return layers.get(layer).get(row * columns + column);
+    }
+
+    /**
+     * Sets the tile ID at a position. Changing a tile in a baked layer invalidates its chunk
+     *
+     * @param layer the index of the layer
+     * @param column the column of the tile
+     * @param row the row of the tile
+     * @param id the tile ID, or EMPTY to clear the tile
+     */
+    public void setTile(int layer, int column, int row, int id) {
+        checkBounds(column, row);
+        if(id < 0 || id > tiles.getFrameCount()) {
+            throw new IllegalArgumentException("Tile " + id + " is not in the sprite sheet");
+        }
+        layers.get(layer).set(row * columns + column, id, chunkOf(column, row));
+    }
+
+    /**
+     * Sets the most chunk images that are kept cached at once. Chunks that have gone the longest without being drawn
+     * are evicted first, and are baked again when they come back into view
+     *
+     * @param max the maximum number of cached chunk images
+     */
+    public void setMaxCachedChunks(int max) {
+        maxCachedChunks = Math.max(1, max);
+    }
+
+    /**
+     * Draws the visible part of the map
+     *
+     * @param renderer the renderer
+     * @param x the x coordinate of the top left corner of the map
+     * @param y the y coordinate of the top left corner of the map
+     */
+    public void render(Renderer renderer, int x, int y) {
+        frame++;
+
+        // Find the tiles covered by the view
+        int left = renderer.getCameraX() - renderer.getWidth() / 2 - x;
+        int top = renderer.getCameraY() - renderer.getHeight() / 2 - y;
+        int firstColumn = Math.max(0, Math.floorDiv(left, tileWidth));
+        int firstRow = Math.max(0, Math.floorDiv(top, tileHeight));
+        int lastColumn = Math.min(columns - 1, Math.floorDiv(left + renderer.getWidth(), tileWidth));
+        int lastRow = Math.min(rows - 1, Math.floorDiv(top + renderer.getHeight(), tileHeight));
+        if(firstColumn > lastColumn || firstRow > lastRow) {
+            return;
+        }
+
+        for(int i = 0; i < layers.size(); i++) {
+            TileLayer layer = layers.get(i);
+            if(!layer.isVisible()) {
+                continue;
+            }
+            if(layer.isBaked()) {
+                renderChunks(renderer, i, x, y, firstColumn / CHUNK_SIZE, firstRow / CHUNK_SIZE,
+                        lastColumn / CHUNK_SIZE, lastRow / CHUNK_SIZE);
+            } else {
+                renderTiles(renderer, layer, x, y, firstColumn, firstRow, lastColumn, lastRow);
+            }
+        }
+    }
+
+    /**
+     * Draws a range of chunks from a baked layer, baking any that are out of date
+     */
+    private void renderChunks(Renderer renderer, int layerIndex, int x, int y, int firstChunkColumn, int firstChunkRow, int lastChunkColumn, int lastChunkRow) {
+        TileLayer layer = layers.get(layerIndex);
+        int chunkWidth = CHUNK_SIZE * tileWidth;
+        int chunkHeight = CHUNK_SIZE * tileHeight;
+        for(int cr = firstChunkRow; cr <= lastChunkRow; cr++) {
+            for(int cc = firstChunkColumn; cc <= lastChunkColumn; cc++) {
+                int chunk = cr * chunkColumns + cc;
+                layer.touch(chunk, frame);
+                if(layer.getChunk(chunk) != null) {
+                    // Looking the chunk up moves it to the most recently drawn end of the cache
+                    bakedChunks.get(key(layerIndex, chunk));
+                }
+                if(layer.isDirty(chunk)) {
+                    bake(layer, layerIndex, chunk, cc, cr);
+                }
+                if(!layer.isEmpty(chunk)) {
+                    renderer.blitImage(layer.getChunk(chunk), x + cc * chunkWidth, y + cr * chunkHeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a range of tiles from a layer one tile at a time
+     */
+    private void renderTiles(Renderer renderer, TileLayer layer, int x, int y, int firstColumn, int firstRow, int lastColumn, int lastRow) {
+        for(int r = firstRow; r <= lastRow; r++) {
+            int index = r * columns + firstColumn;
+            for(int c = firstColumn; c <= lastColumn; c++, index++) {
+                int id = layer.get(index);
+                if(id != EMPTY) {
+                    renderer.drawTile(tiles, id - 1, x + c * tileWidth, y + r * tileHeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the tiles of a chunk into its cached image
+     */
+    private void bake(TileLayer layer, int layerIndex, int chunk, int chunkColumn, int chunkRow) {
+        int firstColumn = chunkColumn * CHUNK_SIZE;
+        int firstRow = chunkRow * CHUNK_SIZE;
+        int lastColumn = Math.min(columns, firstColumn + CHUNK_SIZE);
+        int lastRow = Math.min(rows, firstRow + CHUNK_SIZE);
+
+        // Chunks without any tiles do not need an image
+        boolean isEmpty = true;
+        for(int r = firstRow; r < lastRow && isEmpty; r++) {
+            for(int c = firstColumn; c < lastColumn; c++) {
+                if(layer.get(r * columns + c) != EMPTY) {
+                    isEmpty = false;
+                    break;
+                }
+            }
+        }
+        BufferedImage img = layer.getChunk(chunk);
+        if(isEmpty) {
+            if(img != null) {
+                bakedChunks.remove(key(layerIndex, chunk));
+                release(img);
+            }
+            layer.setChunk(chunk, null, true);
+            return;
+        }
+        if(img == null) {
+            img = acquire();
+        }
+
+        Graphics2D cg = img.createGraphics();
+        cg.setComposite(AlphaComposite.Clear);
+        cg.fillRect(0, 0, img.getWidth(), img.getHeight());
+        cg.setComposite(AlphaComposite.SrcOver);
+        for(int r = firstRow; r < lastRow; r++) {
+            for(int c = firstColumn; c < lastColumn; c++) {
+                int id = layer.get(r * columns + c);
+                if(id == EMPTY) {
+                    continue;
+                }
+                int tile = id - 1;
+                int dx = (c - firstColumn) * tileWidth;
+                int dy = (r - firstRow) * tileHeight;
+                int sx = tiles.getFrameX(tile);
+                int sy = tiles.getFrameY(tile);
+                cg.drawImage(tiles.getTexture().getImage(), dx, dy, dx + tileWidth, dy + tileHeight, sx, sy, sx + tileWidth, sy + tileHeight, null);
+            }
+        }
+        cg.dispose();
+        layer.setChunk(chunk, img, false);
+        bakedChunks.put(key(layerIndex, chunk), layer);
+    }
+
+    /**
+     * Gets an image to bake a chunk into, evicting the least recently drawn chunk if the cache is full
+     */
+    private BufferedImage acquire() {
+        if(!freeImages.isEmpty()) {
+            cachedChunks++;
+            return freeImages.pop();
+        }
+        if(cachedChunks >= maxCachedChunks && !bakedChunks.isEmpty()) {
+            Iterator<Map.Entry<Long, TileLayer>> oldest = bakedChunks.entrySet().iterator();
+            Map.Entry<Long, TileLayer> entry = oldest.next();
+            TileLayer oldestLayer = entry.getValue();
+            int oldestChunk = (int)(long)entry.getKey();
+            // Never evict a chunk that is drawn this frame
+            if(oldestLayer.getLastUsed(oldestChunk) != frame) {
+                oldest.remove();
+                BufferedImage img = oldestLayer.getChunk(oldestChunk);
+                oldestLayer.setChunk(oldestChunk, null, false);
+                return img;
+            }
+        }
+        cachedChunks++;
+        return new BufferedImage(CHUNK_SIZE * tileWidth, CHUNK_SIZE * tileHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Returns a chunk image to the cache for reuse
+     */
+    private void release(BufferedImage img) {
+        cachedChunks--;
+        freeImages.push(img);
+    }
+
+    /**
+     * Gets the key of a baked chunk in the chunk cache
+     */
+    private static long key(int layer, int chunk) {
+        return (long)layer << 32 | chunk & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Gets the chunk a tile belongs to
+     */
+    private int chunkOf(int column, int row) {
+        return (row / CHUNK_SIZE) * chunkColumns + column / CHUNK_SIZE;
+    }
+
+    /**
+     * Ensures a tile position is within the map
+     */
+    private void checkBounds(int column, int row) {
+        if(column < 0 || column >= columns || row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Tile (" + column + ", " + row + ") is outside of the map");
+        }
+    }
+
+    /**
+     * Gets the width of a tile
+     *
+     * @return the width of a tile
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Gets the height of a tile
+     *
+     * @return the height of a tile
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Gets the number of tile columns
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of tile rows
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+}
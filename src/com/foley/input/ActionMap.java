@@ -0,0 +1,302 @@
+package com.foley.input;
+
+import com.foley.core.Config;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps named actions to the keys bound to them. Each binding is a chord of one or more keys that must be held
+ * together, and an action may have several bindings. Bindings are compiled into masks over the words of an input, so
+ * checking an action costs an AND for each word its keys fall in, rather than a call for each key
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ActionMap {
+    private static final LogSite UNKNOWN_KEY = new LogSite(Level.INFO, "'%s' is not a key name. It will not be bound to action \"%s\"");
+    private static final LogSite UNBOUND_ACTION = new LogSite(Level.INFO, "No keys are bound to action \"%s\"");
+
+    // Prefix of the config properties that bind actions
+    private static final String PREFIX = "action.";
+
+    private final Input input;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<List<int[]>> bindings = new ArrayList<>();
+
+    // Compiled bindings. Each action owns a range of chords, and each chord owns a range of (word, mask) parts
+    private int[] actionStart = new int[1];
+    private int[] chordStart = new int[1];
+    private int[] partWord = new int[0];
+    private long[] partMask = new long[0];
+
+    /**
+     * Creates a new action map with no bindings
+     *
+     * @param input the input the actions are read from
+     */
+    public ActionMap(Input input) {
+        this.input = input;
+    }
+
+    /**
+     * Creates an action map from the action properties of a config
+     *
+     * @param input the input the actions are read from
+     * @param config the config to read the bindings from
+     * @return the action map
+     */
+    public static ActionMap fromConfig(Input input, Config config) {
+        ActionMap map = new ActionMap(input);
+        for(String key : config.getPropertyNames()) {
+            if(key.startsWith(PREFIX)) {
+                map.bind(key.substring(PREFIX.length()), config.getProperty(key));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Gets the id of an action, which is used to check it each tick. An action that has not been bound yet is created
+     * with no bindings
+     *
+     * @param action the name of the action
+     * @return the id of the action
+     */
+    public int getAction(String action) {
+        Integer id = ids.get(action);
+        if(id == null) {
+            UNBOUND_ACTION.log(action);
+            return create(action);
+        }
+        return id;
+    }
+
+    /**
+     * Binds a chord of keys to an action
+     *
+     * @param action the name of the action
+     * @param keyCodes the KeyEvent codes of the keys that must be held together
+     * @throws IllegalArgumentException if no keys are given or a key code is not a tracked key
+     */
+    public void bind(String action, int... keyCodes) {
+        if(keyCodes.length == 0) {
+            throw new IllegalArgumentException("A chord must have at least one key");
+        }
+        for(int code : keyCodes) {
+            if(!Input.isTracked(code)) {
+                throw new IllegalArgumentException("Key code " + code + " is not a tracked key");
+            }
+        }
+        Integer id = ids.get(action);
+        bindings.get(id == null ? create(action) : id).add(keyCodes.clone());
+        compile();
+    }
+
+    /**
+     * Binds keys to an action from a description such as "CONTROL+S, F5". Keys are named as in KeyEvent without the
+     * VK_ prefix, keys joined with + must be held together, and bindings separated with , are alternatives
+     *
+     * @param action the name of the action
+     * @param description the keys to bind
+     */
+    public void bind(String action, String description) {
+        Integer id = ids.get(action);
+        List<int[]> chords = bindings.get(id == null ? create(action) : id);
+        for(String chord : description.split(",")) {
+            String[] names = chord.split("\\+");
+            int[] codes = new int[names.length];
+            int count = 0;
+            for(String name : names) {
+                name = name.trim();
+                if(name.isEmpty()) {
+                    continue;
+                }
+                int code = getKeyCode(name);
+                if(code < 0) {
+                    UNKNOWN_KEY.log(name, action);
+                    count = 0;
+                    break;
+                }
+                codes[count++] = code;
+            }
+            if(count > 0) {
+                chords.add(Arrays.copyOf(codes, count));
+            }
+        }
+        compile();
+    }
+
+    /**
+     * Removes every binding from an action
+     *
+     * @param action the name of the action
+     */
+    public void clear(String action) {
+        Integer id = ids.get(action);
+        if(id != null) {
+            bindings.get(id).clear();
+            compile();
+        }
+    }
+
+    /**
+     * Returns true if any binding of an action is held this tick
+     *
+     * @param action the id of the action
+     * @return true if the action is active
+     */
+    public boolean isActive(int action) {
+        long[] current = input.getCurrentWords();
+        for(int c = actionStart[action]; c < actionStart[action + 1]; c++) {
+            if(isHeld(current, c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if a binding of an action became held this tick, because the last of its keys went down
+     *
+     * @param action the id of the action
+     * @return true if the action was triggered this tick
+     */
+    public boolean wasTriggered(int action) {
+        long[] current = input.getCurrentWords();
+        long[] pressed = input.getPressedWords();
+        for(int c = actionStart[action]; c < actionStart[action + 1]; c++) {
+            if(isHeld(current, c) && touches(pressed, c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if a binding of an action stopped being held this tick, because one of its keys went up
+     *
+     * @param action the id of the action
+     * @return true if the action was released this tick
+     */
+    public boolean wasReleased(int action) {
+        long[] current = input.getCurrentWords();
+        long[] pressed = input.getPressedWords();
+        long[] released = input.getReleasedWords();
+        for(int c = actionStart[action]; c < actionStart[action + 1]; c++) {
+            if(!isHeld(current, c) && touches(released, c)) {
+                // The chord must also have been held last tick, which is this tick undone by the edges
+                boolean held = true;
+                for(int p = chordStart[c]; p < chordStart[c + 1] && held; p++) {
+                    int w = partWord[p];
+                    long previous = (current[w] & ~pressed[w]) | released[w];
+                    held = (previous & partMask[p]) == partMask[p];
+                }
+                if(held) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if every key of a chord is set in a set of words
+     */
+    private boolean isHeld(long[] words, int chord) {
+        for(int p = chordStart[chord]; p < chordStart[chord + 1]; p++) {
+            if((words[partWord[p]] & partMask[p]) != partMask[p]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if any key of a chord is set in a set of words
+     */
+    private boolean touches(long[] words, int chord) {
+        for(int p = chordStart[chord]; p < chordStart[chord + 1]; p++) {
+            if((words[partWord[p]] & partMask[p]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an action with no bindings
+     */
+    private int create(String action) {
+        int id = bindings.size();
+        ids.put(action, id);
+        bindings.add(new ArrayList<>());
+        compile();
+        return id;
+    }
+
+    /**
+     * Flattens the bindings into the compiled arrays, merging the keys of each chord that share a word into one mask
+     */
+    private void compile() {
+        int chords = 0;
+        int parts = 0;
+        for(List<int[]> list : bindings) {
+            chords += list.size();
+            for(int[] chord : list) {
+                parts += chord.length;
+            }
+        }
+        int[] actions = new int[bindings.size() + 1];
+        int[] starts = new int[chords + 1];
+        int[] words = new int[parts];
+        long[] masks = new long[parts];
+        int c = 0;
+        int p = 0;
+        for(int a = 0; a < bindings.size(); a++) {
+            actions[a] = c;
+            for(int[] chord : bindings.get(a)) {
+                starts[c++] = p;
+                int first = p;
+                for(int code : chord) {
+                    int word = code >>> 6;
+                    int part = first;
+                    while(part < p && words[part] != word) {
+                        part++;
+                    }
+                    if(part == p) {
+                        words[p++] = word;
+                    }
+                    masks[part] |= 1L << code;
+                }
+            }
+        }
+        actions[bindings.size()] = c;
+        starts[chords] = p;
+        actionStart = actions;
+        chordStart = starts;
+        partWord = words;
+        partMask = masks;
+    }
+
+    /**
+     * Looks up the code of a key from its name in KeyEvent
+     *
+     * @param name the name of the key without the VK_ prefix
+     * @return the key code, or -1 if there is no key with the name
+     */
+    private static int getKeyCode(String name) {
+        try {
+            int code = KeyEvent.class.getField("VK_" + name.toUpperCase()).getInt(null);
+            return Input.isTracked(code) ? code : -1;
+        } catch(NoSuchFieldException | IllegalAccessException e) {
+            return -1;
+        }
+    }
+}
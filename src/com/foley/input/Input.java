@@ -2,13 +2,18 @@ package com.foley.input;
 
 import com.foley.graphic.Screen;
 
+import java.awt.Window;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
-import java.util.BitSet;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Arrays;
 
 /**
- * Handles input for a window
+ * Handles input for a window. Key events are recorded as they arrive, and update takes a snapshot of every key once
+ * per tick, so the state stays the same for the whole tick. Keys are held as bits in words of 64, covering every
+ * KeyEvent code
  *
  * @author Evan Foley
  * @version 02 Jan 2021
@@ -16,16 +21,24 @@ import java.util.BitSet;
 public class Input extends KeyAdapter {
     // TODO: Add Mouse capability
     // TODO: Add MouseMotion capability
-    // TODO: Add input timing capability
-    private BitSet currentKeys;
-    private BitSet previousKeys;
+    // Key codes are at most 16 bits, so every code fits in 1024 words
+    static final int KEY_CODES = 1 << 16;
+    static final int WORDS = KEY_CODES >>> 6;
+
+    // Written by the event thread. Keys pressed since the last snapshot are latched, so a tap between ticks is seen
+    private final long[] live = new long[WORDS];
+    private final long[] latched = new long[WORDS];
+    private final Object lock = new Object();
+
+    // The snapshot of the current tick, and the keys that went down or up since the previous one
+    private final long[] current = new long[WORDS];
+    private final long[] pressed = new long[WORDS];
+    private final long[] released = new long[WORDS];
 
     /**
      * Creates a new input
      */
     public Input(Screen screen) {
-        currentKeys = new BitSet(600);
-        previousKeys = new BitSet(600);
         listenToScreen(screen);
     }
 
@@ -35,7 +48,19 @@ public class Input extends KeyAdapter {
      * @param screen the screen to listen to
      */
     public void listenToScreen(Screen screen) {
-        screen.getGameWindow().addKeyListener(this);
+        Window window = screen.getGameWindow();
+        if(window != null) {
+            window.addKeyListener(this);
+            // Releases are not delivered to a window without focus, so let go of everything when focus is lost
+            window.addWindowFocusListener(new WindowAdapter() {
+                @Override
+                public void windowLostFocus(WindowEvent e) {
+                    synchronized(lock) {
+                        Arrays.fill(live, 0L);
+                    }
+                }
+            });
+        }
     }
 
     /**
@@ -45,7 +70,7 @@ public class Input extends KeyAdapter {
      * @return true if the key is currently being pressed
      */
     public boolean isKeyPressed(Keys key) {
-        return currentKeys.get(key.getKeyCode());
+        return isKeyDown(key.getKeyCode());
     }
 
     /**
@@ -55,51 +80,159 @@ public class Input extends KeyAdapter {
      * @return true if the key is not currently being pressed
      */
     public boolean isKeyReleased(Keys key) {
-        return !currentKeys.get(key.getKeyCode());
+        return !isKeyDown(key.getKeyCode());
     }
 
     /**
-     * Returns true if a key is not currently pressed, but was being held down the previous frame
+     * Returns true if a key went down this tick, having been up the previous tick
      *
      * @param key the key to test
-     * @return true if the key is not pressed, but was being held down the previous frame
+     * @return true if the key was pressed this tick
      */
     public boolean wasKeyPressed(Keys key) {
-        return !currentKeys.get(key.getKeyCode()) && previousKeys.get(key.getKeyCode());
+        return wasKeyPressed(key.getKeyCode());
     }
 
     /**
-     * Returns true if a key is currently pressed, but was not being held down the previous frame
+     * Returns true if a key went up this tick, having been down the previous tick
      *
      * @param key the key to test
-     * @return true if the key is pressed, but was not being held down the previous frame
+     * @return true if the key was released this tick
      */
     public boolean wasKeyReleased(Keys key) {
-        return currentKeys.get(key.getKeyCode()) && !previousKeys.get(key.getKeyCode());
+        return wasKeyReleased(key.getKeyCode());
+    }
+
+    /**
+     * Returns true if the key with a KeyEvent code is currently being pressed
+     *
+     * @param keyCode the KeyEvent code of the key
+     * @return true if the key is currently being pressed
+     */
+    public boolean isKeyDown(int keyCode) {
+        return (current[(keyCode >>> 6) & (WORDS - 1)] & (1L << keyCode)) != 0L;
+    }
+
+    /**
+     * Returns true if the key with a KeyEvent code went down this tick
+     *
+     * @param keyCode the KeyEvent code of the key
+     * @return true if the key was pressed this tick
+     */
+    public boolean wasKeyPressed(int keyCode) {
+        return (pressed[(keyCode >>> 6) & (WORDS - 1)] & (1L << keyCode)) != 0L;
+    }
+
+    /**
+     * Returns true if the key with a KeyEvent code went up this tick
+     *
+     * @param keyCode the KeyEvent code of the key
+     * @return true if the key was released this tick
+     */
+    public boolean wasKeyReleased(int keyCode) {
+        return (released[(keyCode >>> 6) & (WORDS - 1)] & (1L << keyCode)) != 0L;
+    }
+
+    /**
+     * Sets the state of a key as if it had been pressed or released, so input can be scripted or replayed
+     *
+     * @param key the key
+     * @param down true to press the key, false to release it
+     */
+    public void inject(Keys key, boolean down) {
+        inject(key.getKeyCode(), down);
+    }
+
+    /**
+     * Sets the state of the key with a KeyEvent code as if it had been pressed or released
+     *
+     * @param keyCode the KeyEvent code of the key
+     * @param down true to press the key, false to release it
+     * @throws IllegalArgumentException if the key code is not a tracked key
+     */
+    public void inject(int keyCode, boolean down) {
+        if(!isTracked(keyCode)) {
+            throw new IllegalArgumentException("Key code " + keyCode + " is not a tracked key");
+        }
+        set(keyCode, down);
     }
 
     /**
-     * Updates the state of the input
+     * Sets the state of a tracked key
+     */
+    private void set(int keyCode, boolean down) {
+        int word = (keyCode >>> 6) & (WORDS - 1);
+        long bit = 1L << keyCode;
+        synchronized(lock) {
+            if(down) {
+                live[word] |= bit;
+                latched[word] |= bit;
+            } else {
+                live[word] &= ~bit;
+            }
+        }
+    }
+
+    /**
+     * Takes the snapshot of the keys for this tick and works out which keys went down or up since the last one.
+     * Should be called once at the start of each tick, before input is checked
      */
     public void update() {
-        // Clear the previous state, and set it to the current state
-        previousKeys.clear();
-        for(int i = currentKeys.nextSetBit(0); i != -1; i = currentKeys.nextSetBit(i + 1)) {
-            previousKeys.set(i);
+        synchronized(lock) {
+            for(int i = 0; i < WORDS; i++) {
+                long now = live[i] | latched[i];
+                long before = current[i];
+                long changed = now ^ before;
+                latched[i] = 0L;
+                current[i] = now;
+                pressed[i] = changed & now;
+                released[i] = changed & before;
+            }
         }
     }
 
+    /**
+     * Determines if a key code is within the range of keys the snapshot words hold
+     */
+    static boolean isTracked(int keyCode) {
+        return keyCode > KeyEvent.VK_UNDEFINED && keyCode < KEY_CODES;
+    }
+
+    /**
+     * Gets the keys held this tick. Used by action maps
+     */
+    long[] getCurrentWords() {
+        return current;
+    }
+
+    /**
+     * Gets the keys that went down this tick. Used by action maps
+     */
+    long[] getPressedWords() {
+        return pressed;
+    }
+
+    /**
+     * Gets the keys that went up this tick. Used by action maps
+     */
+    long[] getReleasedWords() {
+        return released;
+    }
+
     @Override
     public void keyPressed(KeyEvent e) {
-        if(!currentKeys.get(e.getKeyCode())) {
-            currentKeys.set(e.getKeyCode());
+        // Keys without a code, or with one past the tracked range, are ignored rather than aliased onto another key
+        if(isTracked(e.getKeyCode())) {
+            set(e.getKeyCode(), true);
         }
         e.consume();
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        currentKeys.clear(e.getKeyCode());
+        if(isTracked(e.getKeyCode())) {
+            set(e.getKeyCode(), false);
+        }
         e.consume();
     }
 
@@ -111,7 +244,9 @@ public class Input extends KeyAdapter {
         G (KeyEvent.VK_G), H (KeyEvent.VK_H), I (KeyEvent.VK_I), J (KeyEvent.VK_J), K (KeyEvent.VK_K), L (KeyEvent.VK_L),
         M (KeyEvent.VK_M), N (KeyEvent.VK_N), O (KeyEvent.VK_O), P (KeyEvent.VK_P), Q (KeyEvent.VK_Q), R (KeyEvent.VK_R),
         S (KeyEvent.VK_S), T (KeyEvent.VK_T), U (KeyEvent.VK_U), V (KeyEvent.VK_V), W (KeyEvent.VK_W), X (KeyEvent.VK_X),
-        Y (KeyEvent.VK_Y), Z (KeyEvent.VK_Z), ENTER (KeyEvent.VK_ENTER), SPACE (KeyEvent.VK_SPACE), ESCAPE (KeyEvent.VK_ESCAPE);
+        Y (KeyEvent.VK_Y), Z (KeyEvent.VK_Z), ENTER (KeyEvent.VK_ENTER), SPACE (KeyEvent.VK_SPACE), ESCAPE (KeyEvent.VK_ESCAPE),
+        UP (KeyEvent.VK_UP), DOWN (KeyEvent.VK_DOWN), LEFT (KeyEvent.VK_LEFT), RIGHT (KeyEvent.VK_RIGHT),
+        SHIFT (KeyEvent.VK_SHIFT), CONTROL (KeyEvent.VK_CONTROL), ALT (KeyEvent.VK_ALT), TAB (KeyEvent.VK_TAB);
 
         private final int key;
 
@@ -0,0 +1,34 @@
+package com.foley.log;
+
+/**
+ * The importance of a log message. Messages below the level set on the Log are discarded at the call site
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public enum Level {
+    DEBUG("DEBUG"),
+    INFO("INFORMATIONAL"),
+    WARNING("WARNING"),
+    ERROR("ERROR");
+
+    private final String prefix;
+
+    /**
+     * Creates a new level
+     *
+     * @param prefix the text written before messages of the level
+     */
+    Level(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Gets the text written before messages of the level
+     *
+     * @return the prefix of the level
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+}
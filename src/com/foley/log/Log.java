@@ -0,0 +1,194 @@
+package com.foley.log;
+
+import com.foley.core.Config;
+
+import java.io.PrintStream;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log messages on a background thread. Messages are logged through LogSites into a preallocated ring that any
+ * thread may write to. A full ring drops the message rather than wait, so logging never blocks the caller. The writer
+ * polls the ring, formats each message and prints it, and once a second reports what the sites had to drop
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class Log {
+    private static final int CAPACITY = 1024;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    // Read by every site on every call
+    static volatile int threshold = Level.INFO.ordinal();
+
+    private static final CopyOnWriteArrayList<LogSite> SITES = new CopyOnWriteArrayList<>();
+
+    // The ring. A slot is published by storing its sequence number once the message is in place
+    private static final LogSite[] sites = new LogSite[CAPACITY];
+    private static final Object[] argA = new Object[CAPACITY];
+    private static final Object[] argB = new Object[CAPACITY];
+    private static final Object[] argC = new Object[CAPACITY];
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile long written;
+
+    private static volatile PrintStream out = System.out;
+
+    private static final LogSite INVALID_LEVEL = new LogSite(Level.WARNING, "[%s] is not a valid log level. Valid levels are DEBUG, INFO, WARNING and ERROR");
+
+    static {
+        for(int i = 0; i < CAPACITY; i++) {
+            published.set(i, -1L);
+        }
+        Thread writer = new Thread(Log::write, "Log Writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "Log Flush"));
+    }
+
+    /**
+     * Not instantiable
+     */
+    private Log() {}
+
+    /**
+     * Sets the lowest level written
+     *
+     * @param level the lowest level written
+     */
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Gets the lowest level written
+     *
+     * @return the lowest level written
+     */
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    /**
+     * Sets the level from the logLevel key of the configuration
+     *
+     * @param config the configuration
+     */
+    public static void configure(Config config) {
+        if(!config.hasProperty("logLevel")) {
+            return;
+        }
+        String value = config.getProperty("logLevel").trim();
+        try {
+            setLevel(Level.valueOf(value.toUpperCase()));
+        } catch(IllegalArgumentException e) {
+            INVALID_LEVEL.log(value);
+        }
+    }
+
+    /**
+     * Sets where messages are written
+     *
+     * @param stream the stream to write to
+     */
+    public static void setOutput(PrintStream stream) {
+        out = stream;
+    }
+
+    /**
+     * Gets the number of messages dropped because the ring was full
+     *
+     * @return the number of dropped messages
+     */
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits up to a second for every message logged so far to be written
+     */
+    public static void flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + SECOND;
+        while(written < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(POLL_NANOS / 10L);
+        }
+        out.flush();
+    }
+
+    /**
+     * Adds a site so the writer can reset its limit every second
+     */
+    static void register(LogSite site) {
+        SITES.add(site);
+    }
+
+    /**
+     * Copies a message into the ring
+     */
+    static void publish(LogSite site, Object a, Object b, Object c) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if(seq - written >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while(!claimed.compareAndSet(seq, seq + 1));
+        int slot = (int)(seq & (CAPACITY - 1));
+        sites[slot] = site;
+        argA[slot] = a;
+        argB[slot] = b;
+        argC[slot] = c;
+        published.lazySet(slot, seq);
+    }
+
+    /**
+     * The body of the writer thread
+     */
+    private static void write() {
+        long next = 0L;
+        long secondStart = System.nanoTime();
+        StringBuilder line = new StringBuilder(256);
+        while(true) {
+            // Write every message published in order
+            int slot = (int)(next & (CAPACITY - 1));
+            if(published.get(slot) == next) {
+                LogSite site = sites[slot];
+                String message = site.format(argA[slot], argB[slot], argC[slot]);
+                sites[slot] = null;
+                argA[slot] = null;
+                argB[slot] = null;
+                argC[slot] = null;
+                site.lastWritten = message;
+                line.setLength(0);
+                line.append(site.getLevel().getPrefix()).append(": ").append(message);
+                out.println(line);
+                written = ++next;
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if(now - secondStart >= SECOND) {
+                secondStart = now;
+                for(LogSite site : SITES) {
+                    int count = site.reset();
+                    if(count > 0 && site.lastWritten != null) {
+                        out.printf("%s: %d more messages like \"%s\" were suppressed\n", site.getLevel().getPrefix(), count, site.lastWritten);
+                    }
+                }
+                long lost = dropped.getAndSet(0L);
+                if(lost > 0L) {
+                    out.printf("WARNING: %d log messages were dropped because the log could not keep up\n", lost);
+                }
+            }
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.foley.log;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single place in the code that logs. Sites should be static final fields, so each one is created once and keeps
+ * its own rate limit. Logging through a site only checks the level and the limit and copies the arguments into the
+ * Log's ring. Formatting and output happen on the log writer thread
+ *
+ * Within each second, a site writes at most its limit of messages, and a message identical to the one before it is
+ * dropped. Dropped messages are counted and reported by the writer once the second is over. When several threads log
+ * through the same site at once, a repeat may slip through the check, but the limit and the counts are always exact
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class LogSite {
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final Level level;
+    private final String format;
+    private final int limit;
+
+    // Shared between the logging threads and the writer thread, which resets them every second
+    private final AtomicInteger budget;
+    private final AtomicInteger suppressed;
+    // The arguments of the last message logged, or null if none was logged this second
+    private volatile Object[] last;
+    // The last message written for the site. Only used by the writer thread
+    String lastWritten;
+
+    /**
+     * Creates a new log site that writes at most 10 messages a second
+     *
+     * @param level the level of the messages
+     * @param format the message, as a String.format pattern of up to three arguments
+     */
+    public LogSite(Level level, String format) {
+        this(level, format, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Creates a new log site
+     *
+     * @param level the level of the messages
+     * @param format the message, as a String.format pattern of up to three arguments
+     * @param limit the most messages written each second
+     */
+    public LogSite(Level level, String format, int limit) {
+        this.level = level;
+        this.format = format;
+        this.limit = Math.max(1, limit);
+        budget = new AtomicInteger(this.limit);
+        suppressed = new AtomicInteger();
+        Log.register(this);
+    }
+
+    /**
+     * Gets the level of the site
+     *
+     * @return the level of the site
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Determines if messages from the site are currently written. Useful to skip building expensive arguments
+     *
+     * @return true if the level of the site is enabled
+     */
+    public boolean isEnabled() {
+        return level.ordinal() >= Log.threshold;
+    }
+
+    /**
+     * Logs the message
+     */
+    public void log() {
+        log(null, null, null);
+    }
+
+    /**
+     * Logs the message
+     *
+     * @param a the first argument
+     */
+    public void log(Object a) {
+        log(a, null, null);
+    }
+
+    /**
+     * Logs the message
+     *
+     * @param a the first argument
+     * @param b the second argument
+     */
+    public void log(Object a, Object b) {
+        log(a, b, null);
+    }
+
+    /**
+     * Logs the message
+     *
+     * @param a the first argument
+     * @param b the second argument
+     * @param c the third argument
+     */
+    public void log(Object a, Object b, Object c) {
+        if(level.ordinal() < Log.threshold) {
+            return;
+        }
+        // Drop repeats and anything over the limit until the writer starts the next second
+        Object[] previous = last;
+        if(previous != null && Objects.equals(a, previous[0]) && Objects.equals(b, previous[1]) && Objects.equals(c, previous[2])) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        if(budget.get() <= 0 || budget.getAndDecrement() <= 0) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        // At most limit arrays are made each second, so this does not allocate in a hot loop
+        last = new Object[] {a, b, c};
+        Log.publish(this, a, b, c);
+    }
+
+    /**
+     * Starts a new second. Called by the writer thread
+     *
+     * @return the number of messages dropped during the second that ended
+     */
+    int reset() {
+        last = null;
+        budget.set(limit);
+        return suppressed.getAndSet(0);
+    }
+
+    /**
+     * Formats a message of the site
+     */
+    String format(Object a, Object b, Object c) {
+        try {
+            return String.format(format, a, b, c);
+        } catch(RuntimeException e) {
+            return format;
+        }
+    }
+}
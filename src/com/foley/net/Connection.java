@@ -0,0 +1,390 @@
+package com.foley.net;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * One end of a connection. Tracks sequence numbers and acknowledgements, keeps the recent states used as delta
+ * baselines, and measures round trip time, packet loss and bandwidth. Only used by the game thread
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Connection {
+    // Sent packets remembered for acknowledgement. Must be a power of two
+    private static final int WINDOW = 1024;
+    // States remembered as baselines. Must be a power of two
+    static final int HISTORY = 64;
+    // Weight of the newest sample in the round trip time average
+    private static final double SMOOTHING = 0.1;
+    private static final long STATS_PERIOD = 1000000000L;
+
+    private final SocketAddress address;
+    private int id;
+
+    // Sequence numbers
+    private int localSequence;
+    private int remoteSequence = -1;
+    private int ackBits;
+    private final int[] sentSequence = new int[WINDOW];
+    private final long[] sentTime = new long[WINDOW];
+    private final int[] sentTick = new int[WINDOW];
+    private int ackedTick = -1;
+    // The oldest sent sequence not yet known to be acknowledged or lost
+    private int lossCursor;
+    private long lastReceive;
+
+    // States by tick, used as delta baselines
+    private final byte[][] states = new byte[HISTORY][];
+    private final ByteBuffer[] stateViews = new ByteBuffer[HISTORY];
+    private final int[] stateLength = new int[HISTORY];
+    private final int[] stateTick = new int[HISTORY];
+
+    // The newest input tick the server has applied
+    int lastInputTick = -1;
+
+    // Statistics
+    private double rtt;
+    private long packetsSent;
+    private long packetsReceived;
+    private long packetsLost;
+    private long packetsAcked;
+    private long bytesSent;
+    private long bytesReceived;
+    private long windowStart;
+    private long windowSent;
+    private long windowReceived;
+    private double sendRate;
+    private double receiveRate;
+
+    /**
+     * Creates a new connection
+     *
+     * @param address the address of the other end
+     * @param id the ID the server gave the connection
+     * @param now the current time in nanoseconds
+     */
+    Connection(SocketAddress address, int id, long now) {
+        this.address = address;
+        this.id = id;
+        lastReceive = now;
+        windowStart = now;
+        for(int i = 0; i < HISTORY; i++) {
+            stateTick[i] = -1;
+        }
+    }
+
+    /**
+     * Gets the address of the other end
+     *
+     * @return the address of the other end
+     */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the ID the server gave the connection
+     *
+     * @return the ID of the connection
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID once the server has given one
+     *
+     * @param id the ID of the connection
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the smoothed round trip time
+     *
+     * @return the round trip time in milliseconds
+     */
+    public double getRoundTripTime() {
+        return rtt / 1000000.0;
+    }
+
+    /**
+     * Gets the fraction of sent packets that were never acknowledged
+     *
+     * @return the packet loss, from 0 to 1
+     */
+    public double getPacketLoss() {
+        long resolved = packetsAcked + packetsLost;
+        return resolved == 0L ? 0.0 : (double)packetsLost / resolved;
+    }
+
+    /**
+     * Gets the number of bytes sent per second, measured over the last second
+     *
+     * @return the send rate in bytes per second
+     */
+    public double getSendRate() {
+        return sendRate;
+    }
+
+    /**
+     * Gets the number of bytes received per second, measured over the last second
+     *
+     * @return the receive rate in bytes per second
+     */
+    public double getReceiveRate() {
+        return receiveRate;
+    }
+
+    /**
+     * Gets the number of packets sent
+     *
+     * @return the number of packets sent
+     */
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    /**
+     * Gets the number of packets received
+     *
+     * @return the number of packets received
+     */
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    /**
+     * Gets the total number of bytes sent
+     *
+     * @return the number of bytes sent
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Gets the total number of bytes received
+     *
+     * @return the number of bytes received
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Gets the newest state tick the other end has acknowledged
+     *
+     * @return the acknowledged tick, or -1 if none has been
+     */
+    public int getAckedTick() {
+        return ackedTick;
+    }
+
+    /**
+     * Writes a packet header and records the packet as sent
+     *
+     * @param out the buffer to write to
+     * @param type the type of packet
+     * @param tick the tick of the state carried by the packet, or -1 if it carries none
+     * @param now the current time in nanoseconds
+     */
+    void writeHeader(ByteBuffer out, byte type, int tick, long now) {
+        int seq = localSequence;
+        int slot = seq & (WINDOW - 1);
+        if(sentTime[slot] != 0L) {
+            packetsLost++;
+        }
+        sentSequence[slot] = seq;
+        sentTime[slot] = now;
+        sentTick[slot] = tick;
+        localSequence = (seq + 1) & 0xFFFF;
+
+        out.putInt(Protocol.MAGIC);
+        out.put((byte)(remoteSequence < 0 ? type | Protocol.NO_ACK : type));
+        out.putShort((short)seq);
+        out.putShort((short)Math.max(remoteSequence, 0));
+        out.putInt(ackBits);
+        out.putInt(tick);
+    }
+
+    /**
+     * Records a sent packet in the statistics
+     *
+     * @param bytes the size of the packet
+     * @param now the current time in nanoseconds
+     */
+    void sent(int bytes, long now) {
+        packetsSent++;
+        bytesSent += bytes;
+        windowSent += bytes;
+        updateRates(now);
+    }
+
+    /**
+     * Reads the sequence fields of a received packet header
+     *
+     * @param in the packet, positioned just after the type
+     * @param hasAck false if the sender had not received anything yet
+     * @param bytes the size of the packet
+     * @param now the current time in nanoseconds
+     * @return false if the packet is a duplicate or too old to track
+     */
+    boolean received(ByteBuffer in, boolean hasAck, int bytes, long now) {
+        int seq = in.getShort() & 0xFFFF;
+        int ack = in.getShort() & 0xFFFF;
+        int bits = in.getInt();
+        lastReceive = now;
+        packetsReceived++;
+        bytesReceived += bytes;
+        windowReceived += bytes;
+        updateRates(now);
+
+        if(hasAck) {
+            acknowledge(ack, now);
+            for(int i = 0; bits != 0 && i < 32; i++) {
+                if((bits & (1 << i)) != 0) {
+                    acknowledge((ack - 1 - i) & 0xFFFF, now);
+                }
+            }
+
+            // Packets older than the ack bits reach can no longer be acknowledged
+            int end = (ack - 32) & 0xFFFF;
+            for(int n = 0; n < WINDOW && Protocol.newer(end, lossCursor); n++) {
+                int slot = lossCursor & (WINDOW - 1);
+                if(sentSequence[slot] == lossCursor && sentTime[slot] != 0L) {
+                    sentTime[slot] = 0L;
+                    packetsLost++;
+                }
+                lossCursor = (lossCursor + 1) & 0xFFFF;
+            }
+        }
+
+        if(remoteSequence < 0) {
+            remoteSequence = seq;
+            return true;
+        }
+        if(Protocol.newer(seq, remoteSequence)) {
+            int d = (seq - remoteSequence) & 0xFFFF;
+            if(d < 32) {
+                ackBits = (ackBits << d) | (1 << (d - 1));
+            } else {
+                ackBits = d == 32 ? 1 << 31 : 0;
+            }
+            remoteSequence = seq;
+            return true;
+        }
+        int d = (remoteSequence - seq) & 0xFFFF;
+        if(d == 0 || d > 32 || (ackBits & (1 << (d - 1))) != 0) {
+            return false;
+        }
+        ackBits |= 1 << (d - 1);
+        return true;
+    }
+
+    /**
+     * Handles the acknowledgement of a sent packet
+     */
+    private void acknowledge(int seq, long now) {
+        int slot = seq & (WINDOW - 1);
+        if(sentSequence[slot] != seq || sentTime[slot] == 0L) {
+            return;
+        }
+        long sample = now - sentTime[slot];
+        rtt = rtt == 0.0 ? sample : rtt + (sample - rtt) * SMOOTHING;
+        sentTime[slot] = 0L;
+        packetsAcked++;
+        if(sentTick[slot] > ackedTick) {
+            ackedTick = sentTick[slot];
+        }
+    }
+
+    /**
+     * Recomputes the bandwidth once per period
+     */
+    private void updateRates(long now) {
+        long elapsed = now - windowStart;
+        if(elapsed >= STATS_PERIOD) {
+            sendRate = windowSent * 1e9 / elapsed;
+            receiveRate = windowReceived * 1e9 / elapsed;
+            windowSent = 0L;
+            windowReceived = 0L;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Gets the time the last packet was received
+     *
+     * @return the time in nanoseconds
+     */
+    long getLastReceive() {
+        return lastReceive;
+    }
+
+    /**
+     * Gets the slot a state is stored in, creating or growing its buffer
+     *
+     * @param tick the tick of the state
+     * @param capacity the space the state needs
+     * @return the buffer of the slot, cleared
+     */
+    ByteBuffer stateBuffer(int tick, int capacity) {
+        int slot = tick & (HISTORY - 1);
+        if(states[slot] == null || states[slot].length < capacity) {
+            states[slot] = new byte[capacity];
+            stateViews[slot] = ByteBuffer.wrap(states[slot]);
+        }
+        stateTick[slot] = -1;
+        stateViews[slot].clear();
+        return stateViews[slot];
+    }
+
+    /**
+     * Marks the state of a tick as complete
+     *
+     * @param tick the tick of the state
+     * @param length the length of the state
+     */
+    void stateWritten(int tick, int length) {
+        int slot = tick & (HISTORY - 1);
+        stateTick[slot] = tick;
+        stateLength[slot] = length;
+    }
+
+    /**
+     * Gets a stored state
+     *
+     * @param tick the tick of the state
+     * @return the state, or null if it is no longer stored
+     */
+    byte[] state(int tick) {
+        int slot = tick & (HISTORY - 1);
+        return tick >= 0 && stateTick[slot] == tick ? states[slot] : null;
+    }
+
+    /**
+     * Gets the length of a stored state
+     *
+     * @param tick the tick of the state
+     * @return the length of the state
+     */
+    int stateLength(int tick) {
+        return stateLength[tick & (HISTORY - 1)];
+    }
+
+    /**
+     * Gets a read view of a stored state
+     *
+     * @param tick the tick of the state
+     * @return a buffer holding the state from position to limit
+     */
+    ByteBuffer stateView(int tick) {
+        int slot = tick & (HISTORY - 1);
+        ByteBuffer view = stateViews[slot];
+        view.limit(stateLength[slot]).position(0);
+        return view;
+    }
+}
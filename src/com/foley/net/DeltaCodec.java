@@ -0,0 +1,136 @@
+package com.foley.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a state against a baseline the other end already has. The state is XORed with the baseline, so unchanged
+ * bytes become zero, and the result is run length encoded as [unchanged count][changed count][changed bytes] runs with
+ * variable length counts. A state with no baseline is encoded against zeros
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+final class DeltaCodec {
+    // Unchanged runs shorter than this are cheaper to send as part of the changed bytes around them
+    private static final int MIN_RUN = 4;
+
+    /**
+     * Not instantiable
+     */
+    private DeltaCodec() {}
+
+    /**
+     * Encodes a state
+     *
+     * @param state the state to encode
+     * @param length the length of the state
+     * @param base the baseline, or null to encode against zeros
+     * @param baseLength the length of the baseline
+     * @param out where the encoded state is written
+     * @return false if the encoded state did not fit
+     */
+    static boolean encode(byte[] state, int length, byte[] base, int baseLength, ByteBuffer out) {
+        int i = 0;
+        while(i < length) {
+            int start = i;
+            while(i < length && state[i] == at(base, baseLength, i)) {
+                i++;
+            }
+            int same = i - start;
+
+            // Extend the changed run until a long enough unchanged run is found
+            int changedStart = i;
+            while(i < length) {
+                if(state[i] != at(base, baseLength, i)) {
+                    i++;
+                    continue;
+                }
+                int j = i;
+                while(j < length && j - i < MIN_RUN && state[j] == at(base, baseLength, j)) {
+                    j++;
+                }
+                if(j - i >= MIN_RUN || j == length) {
+                    break;
+                }
+                i = j;
+            }
+            int changed = i - changedStart;
+
+            if(out.remaining() < 10 + changed) {
+                return false;
+            }
+            putVarint(out, same);
+            putVarint(out, changed);
+            for(int k = changedStart; k < i; k++) {
+                out.put((byte)(state[k] ^ at(base, baseLength, k)));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a state
+     *
+     * @param in the encoded state, which is consumed
+     * @param length the length of the state
+     * @param base the baseline, or null if the state was encoded against zeros
+     * @param baseLength the length of the baseline
+     * @param state where the state is written
+     * @return false if the encoded state is damaged
+     */
+    static boolean decode(ByteBuffer in, int length, byte[] base, int baseLength, byte[] state) {
+        int i = 0;
+        while(i < length) {
+            int same = getVarint(in);
+            int changed = getVarint(in);
+            if(same < 0 || changed < 0 || same > length - i || changed > length - i - same || changed > in.remaining()) {
+                return false;
+            }
+            for(int end = i + same; i < end; i++) {
+                state[i] = at(base, baseLength, i);
+            }
+            for(int end = i + changed; i < end; i++) {
+                state[i] = (byte)(in.get() ^ at(base, baseLength, i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a byte of the baseline, which is zero past its end
+     */
+    private static byte at(byte[] base, int baseLength, int i) {
+        return i < baseLength ? base[i] : 0;
+    }
+
+    /**
+     * Writes a non-negative value 7 bits at a time
+     */
+    private static void putVarint(ByteBuffer out, int value) {
+        while((value & ~0x7F) != 0) {
+            out.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte)value);
+    }
+
+    /**
+     * Reads a value written by putVarint
+     *
+     * @return the value, or -1 if it is damaged
+     */
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for(int shift = 0; shift < 32; shift += 7) {
+            if(!in.hasRemaining()) {
+                return -1;
+            }
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
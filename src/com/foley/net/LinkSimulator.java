@@ -0,0 +1,68 @@
+package com.foley.net;
+
+import com.foley.core.Config;
+
+import java.util.Random;
+
+/**
+ * Simulates a poor connection on received packets, so games can be tested over loopback. Packets may be dropped, and
+ * the rest are held back by a fixed latency plus a random jitter, which can also reorder them
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class LinkSimulator {
+    private final double loss;
+    private final long latency;
+    private final long jitter;
+    private final Random random;
+
+    /**
+     * Creates a new link simulator
+     *
+     * @param loss the fraction of packets to drop, from 0 to 1
+     * @param latencyMs the delay added to every packet in milliseconds
+     * @param jitterMs the most random delay added on top of the latency in milliseconds
+     * @param seed the seed of the random numbers, so a run can be repeated
+     */
+    public LinkSimulator(double loss, int latencyMs, int jitterMs, long seed) {
+        this.loss = Math.max(0.0, Math.min(1.0, loss));
+        latency = Math.max(0, latencyMs) * 1000000L;
+        jitter = Math.max(0, jitterMs) * 1000000L;
+        random = new Random(seed);
+    }
+
+    /**
+     * Creates a link simulator from the Network section of the configuration
+     *
+     * @param config the configuration
+     * @return the simulator, or null if the configuration does not ask for one
+     */
+    public static LinkSimulator fromConfig(Config config) {
+        double loss = config.getDouble("netLoss", 0.0);
+        int latency = config.getInt("netLatency", 0);
+        int jitter = config.getInt("netJitter", 0);
+        if(loss <= 0.0 && latency <= 0 && jitter <= 0) {
+            return null;
+        }
+        return new LinkSimulator(loss, latency, jitter, System.nanoTime());
+    }
+
+    /**
+     * Decides if the next packet is dropped
+     *
+     * @return true if the packet should be dropped
+     */
+    boolean drop() {
+        return loss > 0.0 && random.nextDouble() < loss;
+    }
+
+    /**
+     * Picks the delay of the next packet
+     *
+     * @return the delay in nanoseconds
+     */
+    long delay() {
+        return jitter == 0L ? latency : latency + (long)(random.nextDouble() * jitter);
+    }
+}
@@ -0,0 +1,310 @@
+package com.foley.net;
+
+import com.foley.core.Config;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * The client end of the state sync. Each tick the game calls update to take in the newest state from the server, and
+ * sendInput to predict and send the local input. Recent inputs are repeated in every packet until the server has
+ * applied them, so a lost packet does not lose input
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class NetClient implements AutoCloseable {
+    private static final LogSite CONNECTION_LOST = new LogSite(Level.INFO, "Lost connection to the server");
+    private static final LogSite SERVER_FULL = new LogSite(Level.INFO, "The server is full");
+    private static final LogSite SERVER_CLOSED = new LogSite(Level.INFO, "The server closed the connection");
+
+    private static final long RETRY = 250000000L;
+    // Inputs remembered for replay. Must be a power of two
+    private static final int INPUT_HISTORY = 64;
+    private static final int MAX_INPUT = 256;
+    // The most inputs repeated in a single packet
+    private static final int REDUNDANCY = 16;
+
+    private final Transport transport;
+    private final SocketAddress server;
+    private final Predictor predictor;
+    private final Transport.Receiver receiver = this::receive;
+    private Connection connection;
+    private boolean connected;
+    private boolean rejected;
+    private long lastAttempt;
+
+    // Local inputs by tick
+    private final ByteBuffer[] inputs = new ByteBuffer[INPUT_HISTORY];
+    private final int[] inputTick = new int[INPUT_HISTORY];
+    private int latestInput = -1;
+
+    // The newest state received and the newest input the server had applied to it
+    private int snapshotTick = -1;
+    private int serverInputTick = -1;
+    private boolean restorePending;
+
+    /**
+     * Creates a new client and starts connecting
+     *
+     * @param server the address of the server
+     * @param predictor the game side of the client
+     * @throws IOException if the socket cannot be opened
+     */
+    public NetClient(SocketAddress server, Predictor predictor) throws IOException {
+        this.server = server;
+        this.predictor = predictor;
+        for(int i = 0; i < INPUT_HISTORY; i++) {
+            inputs[i] = ByteBuffer.allocate(MAX_INPUT);
+            inputTick[i] = -1;
+        }
+        transport = new Transport(0, "Net Client");
+        long now = System.nanoTime();
+        connection = new Connection(server, -1, now);
+        sendConnect(now);
+    }
+
+    /**
+     * Creates a client from the Network section of the configuration
+     *
+     * @param config the configuration
+     * @param predictor the game side of the client
+     * @return the client
+     * @throws IOException if the socket cannot be opened
+     */
+    public static NetClient fromConfig(Config config, Predictor predictor) throws IOException {
+        String host = config.hasProperty("serverAddress") ? config.getProperty("serverAddress").trim() : "localhost";
+        NetClient client = new NetClient(new InetSocketAddress(host, config.getInt("port", 27015)), predictor);
+        client.setLinkSimulator(LinkSimulator.fromConfig(config));
+        return client;
+    }
+
+    /**
+     * Sets the simulator applied to packets from the server
+     *
+     * @param sim the simulator, or null for none
+     */
+    public void setLinkSimulator(LinkSimulator sim) {
+        transport.setSimulator(sim);
+    }
+
+    /**
+     * Determines if the server has accepted the client
+     *
+     * @return true if connected
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Determines if the server turned the client away because it was full
+     *
+     * @return true if rejected
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the connection to the server, which holds the round trip time and bandwidth statistics
+     *
+     * @return the connection to the server
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the newest server tick received
+     *
+     * @return the newest server tick, or -1 if no state has arrived
+     */
+    public int getSnapshotTick() {
+        return snapshotTick;
+    }
+
+    /**
+     * Handles every packet received since the last update. If a new state arrived, the predictor is restored to it
+     * and the inputs the server has not applied yet are replayed. Should be called once at the start of each tick
+     */
+    public void update() {
+        long now = System.nanoTime();
+        transport.poll(receiver, now);
+        if(!connected) {
+            if(!rejected && now - lastAttempt > RETRY) {
+                sendConnect(now);
+            }
+            return;
+        }
+        if(now - connection.getLastReceive() > Protocol.TIMEOUT) {
+            CONNECTION_LOST.log();
+            connected = false;
+            return;
+        }
+
+        if(restorePending) {
+            restorePending = false;
+            predictor.restore(snapshotTick, connection.stateView(snapshotTick));
+            for(int t = Math.max(serverInputTick + 1, latestInput - INPUT_HISTORY + 1); t <= latestInput; t++) {
+                ByteBuffer input = input(t);
+                if(input != null) {
+                    predictor.applyInput(t, input);
+                }
+            }
+        }
+    }
+
+    /**
+     * Samples, predicts and sends the local input for a tick
+     *
+     * @param tick the client tick, which should increase by one each call
+     */
+    public void sendInput(int tick) {
+        if(!connected) {
+            return;
+        }
+        int slot = tick & (INPUT_HISTORY - 1);
+        ByteBuffer input = inputs[slot];
+        input.clear();
+        predictor.writeInput(tick, input);
+        input.flip();
+        inputTick[slot] = tick;
+        latestInput = tick;
+        predictor.applyInput(tick, input);
+
+        // Repeat every input the server has not applied yet, as far as the packet allows
+        long now = System.nanoTime();
+        ByteBuffer out = transport.begin();
+        connection.writeHeader(out, Protocol.INPUT, -1, now);
+        int first = Math.max(serverInputTick + 1, tick - REDUNDANCY + 1);
+        int countAt = out.position();
+        out.put((byte)0);
+        out.putInt(first);
+        int count = 0;
+        for(int t = first; t <= tick; t++) {
+            ByteBuffer in = input(t);
+            if(in == null || out.remaining() < 2 + in.remaining()) {
+                break;
+            }
+            out.putShort((short)in.remaining());
+            out.put(in);
+            count++;
+        }
+        out.put(countAt, (byte)count);
+        connection.sent(transport.send(server), now);
+    }
+
+    /**
+     * Gets a stored input ready to read
+     */
+    private ByteBuffer input(int tick) {
+        int slot = tick & (INPUT_HISTORY - 1);
+        if(inputTick[slot] != tick) {
+            return null;
+        }
+        ByteBuffer in = inputs[slot];
+        in.rewind();
+        return in;
+    }
+
+    /**
+     * Asks the server to connect
+     */
+    private void sendConnect(long now) {
+        lastAttempt = now;
+        connection.writeHeader(transport.begin(), Protocol.CONNECT, -1, now);
+        connection.sent(transport.send(server), now);
+    }
+
+    /**
+     * Handles a single packet
+     */
+    private void receive(SocketAddress from, ByteBuffer in, long now) {
+        int bytes = in.remaining();
+        if(!server.equals(from) || bytes < Protocol.HEADER || in.getInt() != Protocol.MAGIC) {
+            return;
+        }
+        int type = in.get() & 0xFF;
+        boolean hasAck = (type & Protocol.NO_ACK) == 0;
+        type &= ~Protocol.NO_ACK;
+
+        if(type == Protocol.REJECT) {
+            rejected = true;
+            SERVER_FULL.log();
+            return;
+        }
+        if(type == Protocol.ACCEPT) {
+            connection.received(in, hasAck, bytes, now);
+            in.getInt();
+            int id = in.getInt();
+            if(!connected) {
+                connection.setId(id);
+                connected = true;
+            }
+            return;
+        }
+        if(!connected) {
+            return;
+        }
+        connection.received(in, hasAck, bytes, now);
+        int tick = in.getInt();
+
+        if(type == Protocol.SNAPSHOT) {
+            readSnapshot(tick, in);
+        } else if(type == Protocol.DISCONNECT) {
+            SERVER_CLOSED.log();
+            connected = false;
+        }
+    }
+
+    /**
+     * Decodes a state and queues it to be restored if it is the newest one
+     */
+    private void readSnapshot(int tick, ByteBuffer in) {
+        if(tick <= snapshotTick || in.remaining() < 12) {
+            return;
+        }
+        int baseline = in.getInt();
+        int inputTick = in.getInt();
+        int length = in.getInt();
+        byte[] base = null;
+        int baseLength = 0;
+        if(baseline >= 0) {
+            base = connection.state(baseline);
+            if(base == null) {
+                return;
+            }
+            baseLength = connection.stateLength(baseline);
+        }
+        if(length < 0 || length > 1 << 20) {
+            return;
+        }
+        ByteBuffer state = connection.stateBuffer(tick, length);
+        if(!DeltaCodec.decode(in, length, base, baseLength, state.array())) {
+            return;
+        }
+        connection.stateWritten(tick, length);
+        snapshotTick = tick;
+        serverInputTick = inputTick;
+        restorePending = true;
+    }
+
+    /**
+     * Tells the server the client is leaving, then closes the socket
+     */
+    @Override
+    public void close() {
+        if(connected) {
+            long now = System.nanoTime();
+            connection.writeHeader(transport.begin(), Protocol.DISCONNECT, -1, now);
+            transport.send(server);
+            connected = false;
+        }
+        transport.close();
+    }
+}
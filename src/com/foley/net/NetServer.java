@@ -0,0 +1,267 @@
+package com.foley.net;
+
+import com.foley.core.Config;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The server end of the state sync. Each tick the game calls update to take in client input and broadcast to send
+ * every client its state, delta encoded against the newest state that client has acknowledged
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class NetServer implements AutoCloseable {
+    private final Transport transport;
+    private final ServerHandler handler;
+    private final int maxClients;
+    private final Map<SocketAddress, Connection> clients = new HashMap<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<Connection> view = Collections.unmodifiableList(connections);
+    private final Transport.Receiver receiver = this::receive;
+    private final ByteBuffer state;
+    private int nextId;
+    private long oversizedStates;
+
+    /**
+     * Creates a new server
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param maxClients the most clients that may be connected at once
+     * @param maxStateSize the largest state a client can be sent, before encoding
+     * @param handler the game side of the server
+     * @throws IOException if the socket cannot be opened
+     */
+    public NetServer(int port, int maxClients, int maxStateSize, ServerHandler handler) throws IOException {
+        this.maxClients = maxClients;
+        this.handler = handler;
+        state = ByteBuffer.allocate(maxStateSize);
+        transport = new Transport(port, "Net Server");
+    }
+
+    /**
+     * Creates a server from the Network section of the configuration
+     *
+     * @param config the configuration
+     * @param handler the game side of the server
+     * @return the server
+     * @throws IOException if the socket cannot be opened
+     */
+    public static NetServer fromConfig(Config config, ServerHandler handler) throws IOException {
+        NetServer server = new NetServer(config.getInt("port", 27015), config.getInt("maxClients", 64), 64 * 1024, handler);
+        server.setLinkSimulator(LinkSimulator.fromConfig(config));
+        return server;
+    }
+
+    /**
+     * Sets the simulator applied to packets from clients
+     *
+     * @param sim the simulator, or null for none
+     */
+    public void setLinkSimulator(LinkSimulator sim) {
+        transport.setSimulator(sim);
+    }
+
+    /**
+     * Gets the port the server listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return transport.getPort();
+    }
+
+    /**
+     * Gets the connected clients
+     *
+     * @return a read only view of the connected clients
+     */
+    public List<Connection> getConnections() {
+        return view;
+    }
+
+    /**
+     * Gets the number of states that could not be sent because they did not fit in a packet
+     *
+     * @return the number of oversized states
+     */
+    public long getOversizedStates() {
+        return oversizedStates;
+    }
+
+    /**
+     * Handles every packet received since the last update, and drops clients that have timed out. Should be called
+     * once at the start of each tick
+     */
+    public void update() {
+        long now = System.nanoTime();
+        transport.poll(receiver, now);
+        for(int i = connections.size() - 1; i >= 0; i--) {
+            Connection c = connections.get(i);
+            if(now - c.getLastReceive() > Protocol.TIMEOUT) {
+                remove(c);
+            }
+        }
+    }
+
+    /**
+     * Sends every client the state of a tick
+     *
+     * @param tick the server tick
+     */
+    public void broadcast(int tick) {
+        long now = System.nanoTime();
+        for(int i = 0; i < connections.size(); i++) {
+            Connection c = connections.get(i);
+            state.clear();
+            try {
+                handler.writeState(c, tick, state);
+            } catch(BufferOverflowException e) {
+                oversizedStates++;
+                continue;
+            }
+            int length = state.position();
+            c.stateBuffer(tick, length).put(state.array(), 0, length);
+            c.stateWritten(tick, length);
+
+            // Encode against the newest state the client has, if it is still stored
+            int baseline = c.getAckedTick();
+            byte[] base = tick - baseline < Connection.HISTORY && baseline != tick ? c.state(baseline) : null;
+            if(base == null) {
+                baseline = -1;
+            }
+            // Encode the body first and only fill in the header once it fits, so a dropped state uses no sequence
+            ByteBuffer out = transport.begin();
+            out.position(Protocol.HEADER);
+            out.putInt(baseline);
+            out.putInt(c.lastInputTick);
+            out.putInt(length);
+            if(!DeltaCodec.encode(c.state(tick), length, base, base == null ? 0 : c.stateLength(baseline), out)) {
+                oversizedStates++;
+                continue;
+            }
+            int end = out.position();
+            out.position(0);
+            c.writeHeader(out, Protocol.SNAPSHOT, tick, now);
+            out.position(end);
+            c.sent(transport.send(c.getAddress()), now);
+        }
+    }
+
+    /**
+     * Handles a single packet
+     */
+    private void receive(SocketAddress from, ByteBuffer in, long now) {
+        int bytes = in.remaining();
+        if(bytes < Protocol.HEADER || in.getInt() != Protocol.MAGIC) {
+            return;
+        }
+        int type = in.get() & 0xFF;
+        boolean hasAck = (type & Protocol.NO_ACK) == 0;
+        type &= ~Protocol.NO_ACK;
+        Connection c = clients.get(from);
+
+        if(type == Protocol.CONNECT) {
+            if(c == null) {
+                if(connections.size() >= maxClients) {
+                    reject(from);
+                    return;
+                }
+                c = new Connection(from, nextId++, now);
+                clients.put(from, c);
+                connections.add(c);
+                handler.connected(c);
+            }
+            c.received(in, hasAck, bytes, now);
+            // Answered every time, since the client retries until an accept gets through
+            ByteBuffer out = transport.begin();
+            c.writeHeader(out, Protocol.ACCEPT, -1, now);
+            out.putInt(c.getId());
+            c.sent(transport.send(from), now);
+            return;
+        }
+        if(c == null) {
+            return;
+        }
+        c.received(in, hasAck, bytes, now);
+        in.getInt();
+
+        if(type == Protocol.INPUT) {
+            readInputs(c, in);
+        } else if(type == Protocol.DISCONNECT) {
+            remove(c);
+        }
+    }
+
+    /**
+     * Hands the handler every input newer than the last one applied. Clients resend recent inputs in every packet,
+     * so most inputs arrive several times
+     */
+    private void readInputs(Connection c, ByteBuffer in) {
+        if(in.remaining() < 5) {
+            return;
+        }
+        int count = in.get() & 0xFF;
+        int first = in.getInt();
+        int limit = in.limit();
+        for(int k = 0; k < count && in.remaining() >= 2; k++) {
+            int length = in.getShort() & 0xFFFF;
+            int start = in.position();
+            if(length > limit - start) {
+                return;
+            }
+            int tick = first + k;
+            if(tick > c.lastInputTick) {
+                in.limit(start + length);
+                handler.input(c, tick, in);
+                in.limit(limit);
+                c.lastInputTick = tick;
+            }
+            in.position(start + length);
+        }
+    }
+
+    /**
+     * Tells a client the server is full
+     */
+    private void reject(SocketAddress to) {
+        ByteBuffer out = transport.begin();
+        out.putInt(Protocol.MAGIC);
+        out.put((byte)(Protocol.REJECT | Protocol.NO_ACK));
+        out.putShort((short)0);
+        out.putShort((short)0);
+        out.putInt(0);
+        out.putInt(-1);
+        transport.send(to);
+    }
+
+    /**
+     * Drops a client
+     */
+    private void remove(Connection c) {
+        clients.remove(c.getAddress());
+        connections.remove(c);
+        handler.disconnected(c);
+    }
+
+    /**
+     * Tells every client the server is closing, then closes the socket
+     */
+    @Override
+    public void close() {
+        long now = System.nanoTime();
+        for(Connection c : connections) {
+            c.writeHeader(transport.begin(), Protocol.DISCONNECT, -1, now);
+            transport.send(c.getAddress());
+        }
+        transport.close();
+    }
+}
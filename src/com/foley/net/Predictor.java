@@ -0,0 +1,37 @@
+package com.foley.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The game side of a client. Local input is applied immediately so the player does not wait for the server. When an
+ * authoritative state arrives, the game is restored to it and the inputs the server has not applied yet are replayed
+ * on top. Every method is called on the game thread
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface Predictor {
+    /**
+     * Writes the local input for a tick
+     *
+     * @param tick the client tick
+     * @param out where the input is written
+     */
+    void writeInput(int tick, ByteBuffer out);
+
+    /**
+     * Simulates one tick of local input. Called once when the input is sampled and again for each replay
+     *
+     * @param tick the client tick of the input
+     * @param input the input written by writeInput, from position to limit
+     */
+    void applyInput(int tick, ByteBuffer input);
+
+    /**
+     * Replaces the predicted state with an authoritative state from the server
+     *
+     * @param tick the server tick of the state
+     * @param state the state written by the server's ServerHandler, from position to limit
+     */
+    void restore(int tick, ByteBuffer state);
+}
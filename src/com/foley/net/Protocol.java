@@ -0,0 +1,46 @@
+package com.foley.net;
+
+/**
+ * Constants and helpers shared by both ends of a connection
+ *
+ * Every packet starts with [magic][type][sequence][ack][ack bits][tick]. The sequence numbers are 16 bits and wrap,
+ * the ack is the newest sequence received from the other end, and each set ack bit n acknowledges ack - n - 1
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+final class Protocol {
+    static final int MAGIC = 0x464E4554;
+    // Small enough to avoid fragmentation on almost every path
+    static final int MAX_PACKET = 1400;
+    static final int HEADER = 4 + 1 + 2 + 2 + 4 + 4;
+    // Set on the type when the sender has not received anything yet, so the ack fields mean nothing
+    static final int NO_ACK = 0x80;
+
+    static final byte CONNECT = 1;
+    static final byte ACCEPT = 2;
+    static final byte REJECT = 3;
+    static final byte SNAPSHOT = 4;
+    static final byte INPUT = 5;
+    static final byte DISCONNECT = 6;
+
+    // Nanoseconds without a packet before a connection is dropped
+    static final long TIMEOUT = 5000000000L;
+
+    /**
+     * Not instantiable
+     */
+    private Protocol() {}
+
+    /**
+     * Determines if one sequence number is newer than another, allowing for wrap around
+     *
+     * @param a the first sequence number
+     * @param b the second sequence number
+     * @return true if a is newer than b
+     */
+    static boolean newer(int a, int b) {
+        int d = (a - b) & 0xFFFF;
+        return d != 0 && d < 0x8000;
+    }
+}
@@ -0,0 +1,45 @@
+package com.foley.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The game side of a server. Every method is called on the game thread from NetServer.update or NetServer.broadcast
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface ServerHandler {
+    /**
+     * Called when a client connects
+     *
+     * @param client the new client
+     */
+    void connected(Connection client);
+
+    /**
+     * Called when a client disconnects or times out
+     *
+     * @param client the client that left
+     */
+    void disconnected(Connection client);
+
+    /**
+     * Called with the input of a client for one of its ticks. Inputs arrive in tick order and each tick at most once,
+     * but ticks lost on the way are skipped
+     *
+     * @param client the client
+     * @param tick the client tick the input was sampled on
+     * @param input the input as written by the client's Predictor, from position to limit
+     */
+    void input(Connection client, int tick, ByteBuffer input);
+
+    /**
+     * Writes the state a client should see. Called once per client per broadcast, so the state may be limited to
+     * what is relevant to that client. The encoded state must fit in a single packet
+     *
+     * @param client the client
+     * @param tick the server tick being sent
+     * @param out where the state is written
+     */
+    void writeState(Connection client, int tick, ByteBuffer out);
+}
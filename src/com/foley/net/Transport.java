@@ -0,0 +1,332 @@
+package com.foley.net;
+
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A non-blocking UDP socket read by a selector thread. Received packets are copied into a ring of pooled direct
+ * buffers and handed to the game thread when it polls, so packets are only ever handled at tick boundaries. Packets
+ * are sent straight from the game thread
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+class Transport implements AutoCloseable {
+    private static final LogSite RECEIVE_FAILED = new LogSite(Level.INFO, "Network receive failed: %s");
+    private static final LogSite CLOSE_FAILED = new LogSite(Level.INFO, "Could not close network socket");
+
+    private static final int RING = 1024;
+    private static final int DELAYED = 1024;
+
+    /**
+     * Handles a received packet
+     */
+    interface Receiver {
+        /**
+         * Handles a received packet. The buffer is reused once this returns
+         *
+         * @param from the sender
+         * @param packet the packet, from position to limit
+         * @param now the time of the poll in nanoseconds
+         */
+        void receive(SocketAddress from, ByteBuffer packet, long now);
+    }
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile LinkSimulator simulator;
+
+    // Received packets. Written by the selector thread only, read by the game thread only
+    private final ByteBuffer[] buffers = new ByteBuffer[RING];
+    private final SocketAddress[] senders = new SocketAddress[RING];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long droppedPackets;
+
+    // Packets held back by the simulator, kept in a heap ordered by release time. Only touched by the selector thread
+    private final ByteBuffer[] delayed = new ByteBuffer[DELAYED];
+    private final SocketAddress[] delayedSenders = new SocketAddress[DELAYED];
+    private final long[] release = new long[DELAYED];
+    private final int[] heap = new int[DELAYED];
+    private final int[] free = new int[DELAYED];
+    private int heapSize;
+    private int freeSize;
+
+    private final ByteBuffer discard = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+
+    /**
+     * Opens a socket
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param name the name of the selector thread
+     * @throws IOException if the socket cannot be opened
+     */
+    Transport(int port, String name) throws IOException {
+        channel = DatagramChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 1 << 20);
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, 1 << 20);
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch(IOException e) {
+            channel.close();
+            throw e;
+        }
+        for(int i = 0; i < RING; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+        }
+        for(int i = 0; i < DELAYED; i++) {
+            delayed[i] = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+            free[i] = i;
+        }
+        freeSize = DELAYED;
+
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Sets the simulator applied to received packets
+     *
+     * @param sim the simulator, or null for none
+     */
+    void setSimulator(LinkSimulator sim) {
+        simulator = sim;
+        selector.wakeup();
+    }
+
+    /**
+     * Gets the port the socket is bound to
+     *
+     * @return the local port
+     */
+    int getPort() {
+        try {
+            return ((InetSocketAddress)channel.getLocalAddress()).getPort();
+        } catch(IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the number of packets dropped because the game thread fell behind
+     *
+     * @return the number of dropped packets
+     */
+    long getDroppedPackets() {
+        return droppedPackets;
+    }
+
+    /**
+     * Clears and returns the buffer packets are built in. Only used by the game thread
+     *
+     * @return the send buffer
+     */
+    ByteBuffer begin() {
+        out.clear();
+        return out;
+    }
+
+    /**
+     * Sends the contents of the send buffer. A full socket buffer drops the packet, as UDP would
+     *
+     * @param to where to send the packet
+     * @return the number of bytes sent
+     */
+    int send(SocketAddress to) {
+        out.flip();
+        try {
+            return channel.send(out, to);
+        } catch(IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Hands every received packet to a receiver
+     *
+     * @param receiver the receiver
+     * @param now the current time in nanoseconds
+     * @return the number of packets handled
+     */
+    int poll(Receiver receiver, long now) {
+        long h = head.get();
+        long t = tail.get();
+        int count = (int)(t - h);
+        for(; h < t; h++) {
+            int slot = (int)(h & (RING - 1));
+            receiver.receive(senders[slot], buffers[slot], now);
+            senders[slot] = null;
+            head.lazySet(h + 1);
+        }
+        return count;
+    }
+
+    /**
+     * The body of the selector thread
+     */
+    private void run() {
+        while(running) {
+            try {
+                long timeout = 0L;
+                if(heapSize > 0) {
+                    timeout = Math.max(1L, (release[heap[0]] - System.nanoTime()) / 1000000L + 1L);
+                }
+                selector.select(timeout);
+                selector.selectedKeys().clear();
+                receiveAll();
+                releaseDue(System.nanoTime());
+            } catch(IOException e) {
+                if(running) {
+                    RECEIVE_FAILED.log(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every packet waiting on the socket
+     */
+    private void receiveAll() throws IOException {
+        LinkSimulator sim = simulator;
+        while(true) {
+            if(sim == null) {
+                long t = tail.get();
+                boolean full = t - head.get() >= RING;
+                ByteBuffer buf = full ? discard : buffers[(int)(t & (RING - 1))];
+                buf.clear();
+                SocketAddress from = channel.receive(buf);
+                if(from == null) {
+                    return;
+                }
+                if(full) {
+                    droppedPackets++;
+                    continue;
+                }
+                buf.flip();
+                senders[(int)(t & (RING - 1))] = from;
+                tail.lazySet(t + 1);
+            } else {
+                int index = freeSize > 0 ? free[freeSize - 1] : -1;
+                ByteBuffer buf = index < 0 ? discard : delayed[index];
+                buf.clear();
+                SocketAddress from = channel.receive(buf);
+                if(from == null) {
+                    return;
+                }
+                if(index < 0) {
+                    droppedPackets++;
+                    continue;
+                }
+                if(sim.drop()) {
+                    continue;
+                }
+                buf.flip();
+                freeSize--;
+                delayedSenders[index] = from;
+                release[index] = System.nanoTime() + sim.delay();
+                push(index);
+            }
+        }
+    }
+
+    /**
+     * Moves held back packets whose time has come into the ring
+     */
+    private void releaseDue(long now) {
+        while(heapSize > 0 && release[heap[0]] <= now) {
+            long t = tail.get();
+            if(t - head.get() >= RING) {
+                return;
+            }
+            int index = pop();
+            int slot = (int)(t & (RING - 1));
+            ByteBuffer buf = buffers[slot];
+            buf.clear();
+            buf.put(delayed[index]);
+            buf.flip();
+            senders[slot] = delayedSenders[index];
+            delayedSenders[index] = null;
+            free[freeSize++] = index;
+            tail.lazySet(t + 1);
+        }
+    }
+
+    /**
+     * Adds a held back packet to the heap
+     */
+    private void push(int index) {
+        int i = heapSize++;
+        while(i > 0) {
+            int parent = (i - 1) >>> 1;
+            if(release[heap[parent]] <= release[index]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = index;
+    }
+
+    /**
+     * Removes the held back packet due first from the heap
+     */
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int i = 0;
+        while(true) {
+            int child = 2 * i + 1;
+            if(child >= heapSize) {
+                break;
+            }
+            if(child + 1 < heapSize && release[heap[child + 1]] < release[heap[child]]) {
+                child++;
+            }
+            if(release[heap[child]] >= release[last]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    /**
+     * Stops the selector thread and closes the socket
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000L);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            selector.close();
+            channel.close();
+        } catch(IOException e) {
+            CLOSE_FAILED.log();
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.foley.path;
+
+import java.util.Arrays;
+
+/**
+ * A* with jump point search over an 8 connected grid, where a diagonal step needs both of the cells beside it open.
+ * Straight runs and diagonals are skipped over until a cell with a forced neighbour, so only jump points enter the
+ * open set. Every array is sized to the grid once and marked per search, so a search allocates nothing but its path.
+ * Each search object belongs to a single thread
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+final class JumpPointSearch {
+    private static final int STRAIGHT = 10;
+    private static final int DIAGONAL = 14;
+
+    private final int columns;
+    private final int rows;
+    private final int regionColumns;
+    private final int maxExpansions;
+    private long[] bits;
+    private int goal;
+
+    // Per cell search state. A cell has been seen or closed in this search when its stamp matches
+    private final int[] g;
+    private final int[] parent;
+    private final int[] seen;
+    private final int[] closed;
+    private int search;
+
+    // Binary heap of open cells ordered by f
+    private final int[] heap;
+    private final int[] f;
+    private final int[] heapIndex;
+    private int heapSize;
+
+    private final int[] neighbours = new int[16];
+
+    /**
+     * Creates a new search for a grid size
+     *
+     * @param columns the number of columns in the grid
+     * @param rows the number of rows in the grid
+     * @param maxExpansions the most jump points a search may expand before giving up
+     */
+    JumpPointSearch(int columns, int rows, int maxExpansions) {
+        this.columns = columns;
+        this.rows = rows;
+        this.maxExpansions = maxExpansions;
+        regionColumns = (columns + NavGrid.REGION_SIZE - 1) / NavGrid.REGION_SIZE;
+        int cells = columns * rows;
+        g = new int[cells];
+        parent = new int[cells];
+        seen = new int[cells];
+        closed = new int[cells];
+        heap = new int[cells];
+        f = new int[cells];
+        heapIndex = new int[cells];
+    }
+
+    /**
+     * Finds the shortest path between two cells
+     *
+     * @param bits the blocked bits of the grid
+     * @param start the index of the start cell
+     * @param goal the index of the goal cell
+     * @return the path, or null if there is none
+     */
+    Path solve(long[] bits, int start, int goal) {
+        this.bits = bits;
+        this.goal = goal;
+        int sx = start % columns;
+        int sy = start / columns;
+        if(!open(sx, sy) || !open(goal % columns, goal / columns)) {
+            return null;
+        }
+        if(++search == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            search = 1;
+        }
+        heapSize = 0;
+        g[start] = 0;
+        parent[start] = -1;
+        seen[start] = search;
+        push(start, heuristic(start));
+        int expanded = 0;
+        while(heapSize > 0) {
+            int n = pop();
+            if(n == goal) {
+                return build(n);
+            }
+            closed[n] = search;
+            if(++expanded > maxExpansions) {
+                return null;
+            }
+            int x = n % columns;
+            int y = n / columns;
+            int count = findNeighbours(n, x, y);
+            for(int i = 0; i < count; i += 2) {
+                int nx = neighbours[i];
+                int ny = neighbours[i + 1];
+                int jump = jump(nx, ny, nx - x, ny - y);
+                if(jump < 0 || closed[jump] == search) {
+                    continue;
+                }
+                int cost = g[n] + distance(n, jump);
+                if(seen[jump] != search) {
+                    seen[jump] = search;
+                    g[jump] = cost;
+                    parent[jump] = n;
+                    push(jump, cost + heuristic(jump));
+                } else if(cost < g[jump]) {
+                    g[jump] = cost;
+                    parent[jump] = n;
+                    decrease(jump, cost + heuristic(jump));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists the neighbours of a cell worth searching, given the direction it was reached from, as column and row pairs
+     *
+     * @return the number of entries written, twice the number of neighbours
+     */
+    private int findNeighbours(int n, int x, int y) {
+        int count = 0;
+        int p = parent[n];
+        if(p < 0) {
+            for(int dy = -1; dy <= 1; dy++) {
+                for(int dx = -1; dx <= 1; dx++) {
+                    if((dx != 0 || dy != 0) && open(x + dx, y + dy) && open(x + dx, y) && open(x, y + dy)) {
+                        neighbours[count++] = x + dx;
+                        neighbours[count++] = y + dy;
+                    }
+                }
+            }
+            return count;
+        }
+        int dx = Integer.signum(x - p % columns);
+        int dy = Integer.signum(y - p / columns);
+        if(dx != 0 && dy != 0) {
+            boolean vertical = open(x, y + dy);
+            boolean horizontal = open(x + dx, y);
+            if(vertical) {
+                neighbours[count++] = x;
+                neighbours[count++] = y + dy;
+            }
+            if(horizontal) {
+                neighbours[count++] = x + dx;
+                neighbours[count++] = y;
+            }
+            if(vertical && horizontal) {
+                neighbours[count++] = x + dx;
+                neighbours[count++] = y + dy;
+            }
+        } else if(dx != 0) {
+            // Moving along a row, the rows beside are only worth a look just past the end of a wall beside us
+            boolean next = open(x + dx, y);
+            if(next) {
+                neighbours[count++] = x + dx;
+                neighbours[count++] = y;
+            }
+            for(int side = -1; side <= 1; side += 2) {
+                if(open(x, y + side) && !open(x - dx, y + side)) {
+                    neighbours[count++] = x;
+                    neighbours[count++] = y + side;
+                    if(next) {
+                        neighbours[count++] = x + dx;
+                        neighbours[count++] = y + side;
+                    }
+                }
+            }
+        } else {
+            boolean next = open(x, y + dy);
+            if(next) {
+                neighbours[count++] = x;
+                neighbours[count++] = y + dy;
+            }
+            for(int side = -1; side <= 1; side += 2) {
+                if(open(x + side, y) && !open(x + side, y - dy)) {
+                    neighbours[count++] = x + side;
+                    neighbours[count++] = y;
+                    if(next) {
+                        neighbours[count++] = x + side;
+                        neighbours[count++] = y + dy;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves from a cell in a direction until reaching a jump point
+     *
+     * @return the index of the jump point, or -1 if the way is blocked first
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        if(dx != 0 && dy != 0) {
+            while(open(x, y)) {
+                int cell = y * columns + x;
+                if(cell == goal || jumpHorizontal(x + dx, y, dx) >= 0 || jumpVertical(x, y + dy, dy) >= 0) {
+                    return cell;
+                }
+                if(!open(x + dx, y) || !open(x, y + dy)) {
+                    return -1;
+                }
+                x += dx;
+                y += dy;
+            }
+            return -1;
+        }
+        return dx != 0 ? jumpHorizontal(x, y, dx) : jumpVertical(x, y, dy);
+    }
+
+    /**
+     * Moves along a row until reaching a cell with a forced neighbour
+     */
+    private int jumpHorizontal(int x, int y, int dx) {
+        while(open(x, y)) {
+            int cell = y * columns + x;
+            if(cell == goal || (open(x, y - 1) && !open(x - dx, y - 1)) || (open(x, y + 1) && !open(x - dx, y + 1))) {
+                return cell;
+            }
+            x += dx;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves along a column until reaching a cell with a forced neighbour
+     */
+    private int jumpVertical(int x, int y, int dy) {
+        while(open(x, y)) {
+            int cell = y * columns + x;
+            if(cell == goal || (open(x - 1, y) && !open(x - 1, y - dy)) || (open(x + 1, y) && !open(x + 1, y - dy))) {
+                return cell;
+            }
+            y += dy;
+        }
+        return -1;
+    }
+
+    /**
+     * Builds the path that ends at a cell by following parents back to the start
+     */
+    private Path build(int end) {
+        int length = 0;
+        for(int n = end; n >= 0; n = parent[n]) {
+            length++;
+        }
+        int[] cells = new int[length];
+        for(int n = end, i = length - 1; n >= 0; n = parent[n], i--) {
+            cells[i] = n;
+        }
+        // Walk every cell of the path to find the regions it passes through
+        int[] regions = new int[16];
+        int count = 0;
+        int last = -1;
+        for(int i = 0; i < length; i++) {
+            int x = cells[i] % columns;
+            int y = cells[i] / columns;
+            int tx = i + 1 < length ? cells[i + 1] % columns : x;
+            int ty = i + 1 < length ? cells[i + 1] / columns : y;
+            int dx = Integer.signum(tx - x);
+            int dy = Integer.signum(ty - y);
+            while(true) {
+                int region = (y / NavGrid.REGION_SIZE) * regionColumns + x / NavGrid.REGION_SIZE;
+                if(region != last) {
+                    if(count == regions.length) {
+                        regions = Arrays.copyOf(regions, count * 2);
+                    }
+                    regions[count++] = region;
+                    last = region;
+                }
+                if(x == tx && y == ty) {
+                    break;
+                }
+                x += dx;
+                y += dy;
+            }
+        }
+        Arrays.sort(regions, 0, count);
+        int unique = 0;
+        for(int i = 0; i < count; i++) {
+            if(unique == 0 || regions[unique - 1] != regions[i]) {
+                regions[unique++] = regions[i];
+            }
+        }
+        return new Path(cells, columns, g[end], Arrays.copyOf(regions, unique));
+    }
+
+    /**
+     * Determines if a cell is inside the grid and open
+     */
+    private boolean open(int x, int y) {
+        if(x < 0 || x >= columns || y < 0 || y >= rows) {
+            return false;
+        }
+        int cell = y * columns + x;
+        return (bits[cell >>> 6] & (1L << cell)) == 0L;
+    }
+
+    /**
+     * Gets the cost of moving between two cells on a straight or diagonal line, or the least possible cost for any two
+     * cells
+     */
+    private int distance(int a, int b) {
+        int dx = Math.abs(a % columns - b % columns);
+        int dy = Math.abs(a / columns - b / columns);
+        return STRAIGHT * Math.max(dx, dy) + (DIAGONAL - STRAIGHT) * Math.min(dx, dy);
+    }
+
+    /**
+     * Estimates the cost from a cell to the goal. Never more than the true cost, so the first path found is the shortest
+     */
+    private int heuristic(int n) {
+        return distance(n, goal);
+    }
+
+    /**
+     * Adds a cell to the open heap with a priority
+     */
+    private void push(int n, int key) {
+        f[n] = key;
+        heapIndex[n] = heapSize;
+        heap[heapSize++] = n;
+        siftUp(heapSize - 1);
+    }
+
+    /**
+     * Lowers the priority of a cell already in the open heap
+     */
+    private void decrease(int n, int key) {
+        f[n] = key;
+        siftUp(heapIndex[n]);
+    }
+
+    /**
+     * Removes the cell with the lowest priority from the open heap
+     */
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        if(heapSize > 0) {
+            heap[0] = last;
+            heapIndex[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Moves a heap entry up until its parent has no higher a priority
+     */
+    private void siftUp(int i) {
+        int n = heap[i];
+        while(i > 0) {
+            int up = (i - 1) >>> 1;
+            int p = heap[up];
+            if(f[p] <= f[n]) {
+                break;
+            }
+            heap[i] = p;
+            heapIndex[p] = i;
+            i = up;
+        }
+        heap[i] = n;
+        heapIndex[n] = i;
+    }
+
+    /**
+     * Moves a heap entry down until neither child has a lower priority
+     */
+    private void siftDown(int i) {
+        int n = heap[i];
+        int half = heapSize >>> 1;
+        while(i < half) {
+            int child = 2 * i + 1;
+            if(child + 1 < heapSize && f[heap[child + 1]] < f[heap[child]]) {
+                child++;
+            }
+            int c = heap[child];
+            if(f[n] <= f[c]) {
+                break;
+            }
+            heap[i] = c;
+            heapIndex[c] = i;
+            i = child;
+        }
+        heap[i] = n;
+        heapIndex[n] = i;
+    }
+}
@@ -0,0 +1,150 @@
+package com.foley.path;
+
+import com.foley.graphic.TileMap;
+
+import java.util.Arrays;
+
+/**
+ * The cells units may walk through, held as one bit per cell. The grid is split into regions of
+ * REGION_SIZE x REGION_SIZE cells, and each region has a version that goes up whenever one of its cells changes, so
+ * paths through a region can tell when they may no longer be good. A grid belongs to the game thread; searches read
+ * copies of it taken at tick boundaries
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class NavGrid {
+    public static final int REGION_SIZE = TileMap.CHUNK_SIZE;
+
+    private final int columns;
+    private final int rows;
+    private final int regionColumns;
+    private final long[] blocked;
+    private final int[] versions;
+    private int version;
+    private long[] copy;
+    private int copyVersion = -1;
+
+    /**
+     * Creates a new grid with every cell open
+     *
+     * @param columns the number of columns
+     * @param rows the number of rows
+     */
+    public NavGrid(int columns, int rows) {
+        if(columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("A grid must have at least one row and column");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        regionColumns = (columns + REGION_SIZE - 1) / REGION_SIZE;
+        blocked = new long[(columns * rows + 63) >>> 6];
+        versions = new int[regionColumns * ((rows + REGION_SIZE - 1) / REGION_SIZE)];
+    }
+
+    /**
+     * Creates a grid from a layer of a tile map. Every cell that has a tile on the layer is blocked
+     *
+     * @param map the tile map
+     * @param layer the index of the layer holding walls
+     * @return the grid
+     */
+    public static NavGrid fromTileMap(TileMap map, int layer) {
+        NavGrid grid = new NavGrid(map.getColumns(), map.getRows());
+        for(int row = 0; row < grid.rows; row++) {
+            for(int column = 0; column < grid.columns; column++) {
+                if(map.getTile(layer, column, row) != TileMap.EMPTY) {
+                    grid.setBlocked(column, row, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Determines if a cell is blocked. Cells outside of the grid are blocked
+     *
+     * @param column the column of the cell
+     * @param row the row of the cell
+     * @return true if units cannot walk through the cell
+     */
+    public boolean isBlocked(int column, int row) {
+        if(column < 0 || column >= columns || row < 0 || row >= rows) {
+            return true;
+        }
+        int cell = row * columns + column;
+        return (blocked[cell >>> 6] & (1L << cell)) != 0L;
+    }
+
+    /**
+     * Blocks or opens a cell
+     *
+     * @param column the column of the cell
+     * @param row the row of the cell
+     * @param block true to block the cell, false to open it
+     */
+    public void setBlocked(int column, int row, boolean block) {
+        if(column < 0 || column >= columns || row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Cell (" + column + ", " + row + ") is outside of the grid");
+        }
+        int cell = row * columns + column;
+        long bit = 1L << cell;
+        if(((blocked[cell >>> 6] & bit) != 0L) == block) {
+            return;
+        }
+        blocked[cell >>> 6] ^= bit;
+        versions[getRegion(column, row)]++;
+        version++;
+    }
+
+    /**
+     * Gets the number of columns
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of rows
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the region a cell belongs to
+     */
+    int getRegion(int column, int row) {
+        return (row / REGION_SIZE) * regionColumns + column / REGION_SIZE;
+    }
+
+    /**
+     * Gets the version of a region
+     */
+    int getVersion(int region) {
+        return versions[region];
+    }
+
+    /**
+     * Gets the number of times any cell has changed
+     */
+    int getChangeCount() {
+        return version;
+    }
+
+    /**
+     * Gets a copy of the blocked bits for searches to read. The copy is only taken again after the grid changes, and
+     * is never written once handed out
+     */
+    long[] snapshot() {
+        if(copyVersion != version) {
+            copy = Arrays.copyOf(blocked, blocked.length);
+            copyVersion = version;
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,76 @@
+package com.foley.path;
+
+/**
+ * A path across a grid as a list of waypoints. Consecutive waypoints always lie on a straight or 45 degree line of
+ * open cells, so a unit can walk directly from each waypoint to the next
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class Path {
+    private final int[] cells;
+    private final int columns;
+    private final int cost;
+    // The regions the path passes through, in ascending order
+    final int[] regions;
+
+    /**
+     * Creates a new path
+     *
+     * @param cells the waypoints as cell indices
+     * @param columns the number of columns in the grid
+     * @param cost the cost of the path in tenths of a cell
+     * @param regions the regions the path passes through
+     */
+    Path(int[] cells, int columns, int cost, int[] regions) {
+        this.cells = cells;
+        this.columns = columns;
+        this.cost = cost;
+        this.regions = regions;
+    }
+
+    /**
+     * Gets the number of waypoints, including the start and the goal
+     *
+     * @return the number of waypoints
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * Gets the column of a waypoint
+     *
+     * @param index the index of the waypoint
+     * @return the column of the waypoint
+     */
+    public int getColumn(int index) {
+        return cells[index] % columns;
+    }
+
+    /**
+     * Gets the row of a waypoint
+     *
+     * @param index the index of the waypoint
+     * @return the row of the waypoint
+     */
+    public int getRow(int index) {
+        return cells[index] / columns;
+    }
+
+    /**
+     * Gets the length of the path, counting a diagonal step as 1.4 cells
+     *
+     * @return the length of the path in cells
+     */
+    public double getLength() {
+        return cost / 10.0;
+    }
+
+    /**
+     * Gets the waypoint at an index as a cell index
+     */
+    int getCell(int index) {
+        return cells[index];
+    }
+}
@@ -0,0 +1,17 @@
+package com.foley.path;
+
+/**
+ * Receives the result of a path query. Results are always delivered on the game thread during Pathfinder.update
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface PathListener {
+    /**
+     * Called when a query has been solved
+     *
+     * @param query the handle of the query
+     * @param path the path, or null if the goal cannot be reached
+     */
+    void pathFound(long query, Path path);
+}
@@ -0,0 +1,330 @@
+package com.foley.path;
+
+import com.foley.core.Config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Finds paths across a grid off the game thread. Queries are made from the game loop and solved by a pool of worker
+ * threads, each searching a copy of the grid taken when the query was made. Results are handed back to their
+ * listeners in update, at a tick boundary, for no more than the time budget each tick. With no workers, queries are
+ * solved in update itself within the same budget
+ *
+ * Solved paths are cached by start and goal. A cached path is dropped once any region it passes through changes, and a
+ * path solved against an older copy of the grid is checked against the current grid before it is handed back, and
+ * searched again if it has been blocked. A query still blocked after its last search is handed back with no path
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Pathfinder implements AutoCloseable {
+    // The most times a query is searched again because the grid changed under it before its result is handed back
+    private static final int MAX_RETRIES = 3;
+
+    private final NavGrid grid;
+    private final long budget;
+    private final int maxExpansions;
+    private final Thread[] workers;
+    private final LinkedBlockingQueue<Query> work;
+    private final JumpPointSearch inline;
+    private volatile boolean running;
+
+    private final List<Query> pending;
+    private final Map<Long, CachedPath> cache;
+    private long nextQuery = 1L;
+
+    /**
+     * Creates a new pathfinder
+     *
+     * @param grid the grid to find paths across
+     * @param workers the number of worker threads. With 0, queries are solved on the game thread during update
+     * @param budgetNanos the most time update may spend each tick, in nanoseconds. At least one result is always handled
+     * @param cacheSize the most paths kept in the cache
+     * @param maxExpansions the most jump points a search may expand before it gives up, or 0 for no limit
+     */
+    public Pathfinder(NavGrid grid, int workers, long budgetNanos, int cacheSize, int maxExpansions) {
+        this.grid = grid;
+        budget = budgetNanos;
+        this.maxExpansions = maxExpansions > 0 ? maxExpansions : Integer.MAX_VALUE;
+        work = new LinkedBlockingQueue<>();
+        pending = new ArrayList<>();
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        running = true;
+        this.workers = new Thread[Math.max(0, workers)];
+        inline = workers > 0 ? null : new JumpPointSearch(grid.getColumns(), grid.getRows(), this.maxExpansions);
+        for(int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = new Thread(this::solve, "Pathfinder " + i);
+            this.workers[i].setDaemon(true);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Creates a pathfinder from the settings in a config
+     *
+     * @param grid the grid to find paths across
+     * @param config the config holding the pathfinding settings
+     * @return the pathfinder
+     */
+    public static Pathfinder fromConfig(NavGrid grid, Config config) {
+        return new Pathfinder(grid, config.getInt("pathWorkers", 2), (long)(config.getDouble("pathBudget", 1.0) * 1000000L),
+                config.getInt("pathCacheSize", 1024), config.getInt("pathMaxExpansions", 0));
+    }
+
+    /**
+     * Asks for a path between two cells. The result is handed to the listener during a later update, never during this
+     * call, even when the path is cached
+     *
+     * @param startColumn the column of the start cell
+     * @param startRow the row of the start cell
+     * @param goalColumn the column of the goal cell
+     * @param goalRow the row of the goal cell
+     * @param listener the listener to hand the result to
+     * @return the handle of the query
+     */
+    public long find(int startColumn, int startRow, int goalColumn, int goalRow, PathListener listener) {
+        int columns = grid.getColumns();
+        Query q = new Query(nextQuery++, startRow * columns + startColumn, goalRow * columns + goalColumn, listener);
+        if(grid.isBlocked(startColumn, startRow) || grid.isBlocked(goalColumn, goalRow)) {
+            q.done = true;
+        } else {
+            CachedPath cached = cache.get(q.key());
+            if(cached != null && cached.isValid(grid)) {
+                q.path = cached.path;
+                q.cached = true;
+                q.done = true;
+            } else {
+                if(cached != null) {
+                    cache.remove(q.key());
+                }
+                submit(q);
+            }
+        }
+        pending.add(q);
+        return q.id;
+    }
+
+    /**
+     * Cancels a query, so its listener is never called
+     *
+     * @param query the handle of the query
+     * @return true if the query had not been handed back yet
+     */
+    public boolean cancel(long query) {
+        for(Query q : pending) {
+            if(q.id == query && !q.cancelled) {
+                q.cancelled = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands back the results that are ready, in the order they were asked for, until the time budget is spent. Should
+     * be called once each tick
+     */
+    public void update() {
+        long deadline = System.nanoTime() + budget;
+        int kept = 0;
+        int i = 0;
+        // Listeners may ask for more paths while this runs, so the size is read each time around
+        while(i < pending.size()) {
+            Query q = pending.get(i++);
+            if(q.cancelled) {
+                continue;
+            }
+            if(!q.done && inline != null) {
+                q.path = inline.solve(q.bits, q.start, q.goal);
+                q.done = true;
+            }
+            if(!q.done) {
+                pending.set(kept++, q);
+                continue;
+            }
+            if(q.change != grid.getChangeCount() && !isStillGood(q.path)) {
+                if(q.retries < MAX_RETRIES) {
+                    q.retries++;
+                    submit(q);
+                    pending.set(kept++, q);
+                } else {
+                    // The grid kept changing under the search, so hand back no path rather than a blocked one
+                    q.listener.pathFound(q.id, null);
+                }
+            } else {
+                if(q.path != null && !q.cached) {
+                    cache.put(q.key(), new CachedPath(q.path, grid));
+                }
+                q.listener.pathFound(q.id, q.path);
+            }
+            if(System.nanoTime() - deadline > 0L) {
+                break;
+            }
+        }
+        while(i < pending.size()) {
+            pending.set(kept++, pending.get(i++));
+        }
+        pending.subList(kept, pending.size()).clear();
+    }
+
+    /**
+     * Gets the number of queries that have not been handed back
+     *
+     * @return the number of outstanding queries
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Drops every cached path
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Stops the worker threads. Outstanding queries are never handed back
+     */
+    @Override
+    public void close() {
+        running = false;
+        for(Thread worker : workers) {
+            worker.interrupt();
+        }
+        pending.clear();
+    }
+
+    /**
+     * Queues a query to be solved against the current grid
+     */
+    private void submit(Query q) {
+        q.bits = grid.snapshot();
+        q.change = grid.getChangeCount();
+        q.path = null;
+        q.done = false;
+        if(inline == null) {
+            work.add(q);
+        }
+    }
+
+    /**
+     * Determines if a result found against an older grid still holds. A path must still be open; a failed search is
+     * always tried again, since the change may have opened a way
+     */
+    private boolean isStillGood(Path path) {
+        if(path == null) {
+            return false;
+        }
+        for(int i = 0; i + 1 < path.size(); i++) {
+            int x = path.getColumn(i);
+            int y = path.getRow(i);
+            int tx = path.getColumn(i + 1);
+            int ty = path.getRow(i + 1);
+            int dx = Integer.signum(tx - x);
+            int dy = Integer.signum(ty - y);
+            while(x != tx || y != ty) {
+                if(grid.isBlocked(x + dx, y + dy) || grid.isBlocked(x + dx, y) || grid.isBlocked(x, y + dy)) {
+                    return false;
+                }
+                x += dx;
+                y += dy;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves queries on a worker thread
+     */
+    private void solve() {
+        JumpPointSearch search = new JumpPointSearch(grid.getColumns(), grid.getRows(), maxExpansions);
+        while(running) {
+            Query q;
+            try {
+                q = work.take();
+            } catch(InterruptedException e) {
+                return;
+            }
+            if(!q.cancelled) {
+                q.path = search.solve(q.bits, q.start, q.goal);
+            }
+            q.done = true;
+        }
+    }
+
+    /**
+     * A request for a path. The game thread owns a query except while it waits in the work queue or is being solved,
+     * and done hands it back
+     */
+    private static final class Query {
+        final long id;
+        final int start;
+        final int goal;
+        final PathListener listener;
+        long[] bits;
+        int change;
+        int retries;
+        Path path;
+        boolean cached;
+        volatile boolean done;
+        volatile boolean cancelled;
+
+        /**
+         * Creates a new query
+         */
+        Query(long id, int start, int goal, PathListener listener) {
+            this.id = id;
+            this.start = start;
+            this.goal = goal;
+            this.listener = listener;
+        }
+
+        /**
+         * Gets the key of the query's start and goal in the path cache
+         */
+        long key() {
+            return ((long)start << 32) | goal;
+        }
+    }
+
+    /**
+     * A cached path and the versions of the regions it passed through when it was cached
+     */
+    private static final class CachedPath {
+        final Path path;
+        final int[] versions;
+
+        /**
+         * Caches a path against the current versions of the regions it passes through
+         */
+        CachedPath(Path path, NavGrid grid) {
+            this.path = path;
+            versions = new int[path.regions.length];
+            for(int i = 0; i < versions.length; i++) {
+                versions[i] = grid.getVersion(path.regions[i]);
+            }
+        }
+
+        /**
+         * Determines if none of the regions the path passes through have changed since it was cached
+         */
+        boolean isValid(NavGrid grid) {
+            for(int i = 0; i < versions.length; i++) {
+                if(grid.getVersion(path.regions[i]) != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
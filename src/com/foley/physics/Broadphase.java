@@ -0,0 +1,379 @@
+package com.foley.physics;
+
+import java.util.Arrays;
+
+/**
+ * Finds overlapping axis aligned bounding boxes using sweep and prune. Bodies are kept sorted by their minimum along
+ * one axis, and the order is repaired with an insertion sort each step. Bodies only move a little between fixed
+ * updates, so the repair is close to linear. The sweep axis follows whichever axis the bodies are spread out along the
+ * most. Call step once per update, after moving the bodies
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class Broadphase {
+    // Switch axes only when the other axis is clearly better, so the axis does not flip back and forth
+    private static final float AXIS_SWITCH_RATIO = 1.5f;
+
+    // Body bounds and collision filters, indexed by body ID
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+    private int[] category;
+    private int[] mask;
+    private boolean[] alive;
+
+    // Free body IDs
+    private int[] free;
+    private int freeCount;
+    private int highest;
+
+    // Body IDs sorted along the sweep axis
+    private int[] order;
+    private int orderCount;
+    private long[] keys;
+
+    // Bounds gathered into sorted order so the sweep reads memory in sequence
+    private float[] sortedMin;
+    private float[] sortedMax;
+    private float[] sortedOtherMin;
+    private float[] sortedOtherMax;
+    private boolean resort;
+    private boolean removed;
+    private boolean sweepX;
+
+    private final ContactList contacts;
+
+    /**
+     * Creates a new broadphase
+     *
+     * @param capacity the number of bodies to make room for up front
+     */
+    public Broadphase(int capacity) {
+        capacity = Math.max(16, capacity);
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        category = new int[capacity];
+        mask = new int[capacity];
+        alive = new boolean[capacity];
+        free = new int[capacity];
+        order = new int[capacity];
+        keys = new long[capacity];
+        sortedMin = new float[capacity];
+        sortedMax = new float[capacity];
+        sortedOtherMin = new float[capacity];
+        sortedOtherMax = new float[capacity];
+        contacts = new ContactList(capacity);
+        sweepX = true;
+    }
+
+    /**
+     * Adds a body
+     *
+     * @param x0 the minimum x coordinate of the body
+     * @param y0 the minimum y coordinate of the body
+     * @param x1 the maximum x coordinate of the body
+     * @param y1 the maximum y coordinate of the body
+     * @return the ID of the body
+     */
+    public int add(float x0, float y0, float x1, float y1) {
+        // A freed ID may still be in the order, so drop removed bodies before handing it out again
+        if(removed) {
+            compact();
+        }
+        int id;
+        if(freeCount > 0) {
+            id = free[--freeCount];
+        } else {
+            if(highest == alive.length) {
+                grow(alive.length * 2);
+            }
+            id = highest++;
+        }
+        alive[id] = true;
+        category[id] = 1;
+        mask[id] = -1;
+        setBounds(id, x0, y0, x1, y1);
+        order[orderCount++] = id;
+        // New bodies are placed by a full sort instead of being walked through the whole order
+        resort = true;
+        return id;
+    }
+
+    /**
+     * Removes a body. Its ID may be handed out again by a later add
+     *
+     * @param id the ID of the body
+     */
+    public void remove(int id) {
+        check(id);
+        alive[id] = false;
+        free[freeCount++] = id;
+        removed = true;
+    }
+
+    /**
+     * Sets the bounding box of a body
+     *
+     * @param id the ID of the body
+     * @param x0 the minimum x coordinate
+     * @param y0 the minimum y coordinate
+     * @param x1 the maximum x coordinate
+     * @param y1 the maximum y coordinate
+     */
+    public void setBounds(int id, float x0, float y0, float x1, float y1) {
+        minX[id] = Math.min(x0, x1);
+        minY[id] = Math.min(y0, y1);
+        maxX[id] = Math.max(x0, x1);
+        maxY[id] = Math.max(y0, y1);
+    }
+
+    /**
+     * Moves the bounding box of a body
+     *
+     * @param id the ID of the body
+     * @param dx the x distance
+     * @param dy the y distance
+     */
+    public void move(int id, float dx, float dy) {
+        minX[id] += dx;
+        maxX[id] += dx;
+        minY[id] += dy;
+        maxY[id] += dy;
+    }
+
+    /**
+     * Sets which bodies a body can collide with. Two bodies are paired only if each one's category is in the other's
+     * mask
+     *
+     * @param id the ID of the body
+     * @param category the category bits of the body
+     * @param mask the category bits the body collides with
+     */
+    public void setFilter(int id, int category, int mask) {
+        check(id);
+        this.category[id] = category;
+        this.mask[id] = mask;
+    }
+
+    /**
+     * Finds every pair of overlapping bodies
+     *
+     * @return the overlapping pairs. The list is reused by the next step
+     */
+    public ContactList step() {
+        contacts.clear();
+        if(removed) {
+            compact();
+        }
+        chooseAxis();
+        if(resort) {
+            sortAll();
+        } else {
+            insertionSort();
+        }
+        sweep();
+        return contacts;
+    }
+
+    /**
+     * Drops removed bodies from the sorted order, keeping the order of the rest
+     */
+    private void compact() {
+        int n = 0;
+        for(int i = 0; i < orderCount; i++) {
+            if(alive[order[i]]) {
+                order[n++] = order[i];
+            }
+        }
+        orderCount = n;
+        removed = false;
+    }
+
+    /**
+     * Sweeps along the axis the bodies are most spread out on
+     */
+    private void chooseAxis() {
+        if(orderCount < 2) {
+            return;
+        }
+        double sx = 0;
+        double sy = 0;
+        double sxx = 0;
+        double syy = 0;
+        for(int i = 0; i < orderCount; i++) {
+            int id = order[i];
+            double cx = minX[id] + maxX[id];
+            double cy = minY[id] + maxY[id];
+            sx += cx;
+            sy += cy;
+            sxx += cx * cx;
+            syy += cy * cy;
+        }
+        double varX = sxx - sx * sx / orderCount;
+        double varY = syy - sy * sy / orderCount;
+        if(sweepX ? varY > varX * AXIS_SWITCH_RATIO : varX > varY * AXIS_SWITCH_RATIO) {
+            sweepX = !sweepX;
+            resort = true;
+        }
+    }
+
+    /**
+     * Sorts the whole order from scratch. Used after bodies are added or the axis changes
+     */
+    private void sortAll() {
+        float[] min = sweepX ? minX : minY;
+        for(int i = 0; i < orderCount; i++) {
+            int id = order[i];
+            keys[i] = ((long)sortable(min[id]) << 32) | id;
+        }
+        Arrays.sort(keys, 0, orderCount);
+        for(int i = 0; i < orderCount; i++) {
+            order[i] = (int)keys[i];
+        }
+        resort = false;
+    }
+
+    /**
+     * Repairs the order after bodies moved a little
+     */
+    private void insertionSort() {
+        float[] min = sweepX ? minX : minY;
+        for(int i = 1; i < orderCount; i++) {
+            int id = order[i];
+            float key = min[id];
+            int j = i - 1;
+            while(j >= 0 && min[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = id;
+        }
+    }
+
+    /**
+     * Walks the order, testing each body against the following bodies until they start past its far edge
+     */
+    private void sweep() {
+        float[] min = sweepX ? minX : minY;
+        float[] max = sweepX ? maxX : maxY;
+        float[] otherMin = sweepX ? minY : minX;
+        float[] otherMax = sweepX ? maxY : maxX;
+        for(int i = 0; i < orderCount; i++) {
+            int id = order[i];
+            sortedMin[i] = min[id];
+            sortedMax[i] = max[id];
+            sortedOtherMin[i] = otherMin[id];
+            sortedOtherMax[i] = otherMax[id];
+        }
+
+        for(int i = 0; i < orderCount; i++) {
+            float end = sortedMax[i];
+            float aMin = sortedOtherMin[i];
+            float aMax = sortedOtherMax[i];
+            for(int j = i + 1; j < orderCount && sortedMin[j] <= end; j++) {
+                if(sortedOtherMin[j] <= aMax && sortedOtherMax[j] >= aMin) {
+                    int a = order[i];
+                    int b = order[j];
+                    if((category[a] & mask[b]) == 0 || (category[b] & mask[a]) == 0) {
+                        continue;
+                    }
+                    if(a < b) {
+                        contacts.add(a, b);
+                    } else {
+                        contacts.add(b, a);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a float to an int with the same ordering
+     */
+    private static int sortable(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    /**
+     * Grows the body arrays
+     */
+    private void grow(int capacity) {
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        category = Arrays.copyOf(category, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        free = Arrays.copyOf(free, capacity);
+        order = Arrays.copyOf(order, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        sortedMin = Arrays.copyOf(sortedMin, capacity);
+        sortedMax = Arrays.copyOf(sortedMax, capacity);
+        sortedOtherMin = Arrays.copyOf(sortedOtherMin, capacity);
+        sortedOtherMax = Arrays.copyOf(sortedOtherMax, capacity);
+    }
+
+    /**
+     * Ensures a body ID is in use
+     */
+    private void check(int id) {
+        if(id < 0 || id >= highest || !alive[id]) {
+            throw new IllegalArgumentException("Body " + id + " does not exist");
+        }
+    }
+
+    /**
+     * Gets the minimum x coordinate of a body
+     *
+     * @param id the ID of the body
+     * @return the minimum x coordinate
+     */
+    public float getMinX(int id) {
+        return minX[id];
+    }
+
+    /**
+     * Gets the minimum y coordinate of a body
+     *
+     * @param id the ID of the body
+     * @return the minimum y coordinate
+     */
+    public float getMinY(int id) {
+        return minY[id];
+    }
+
+    /**
+     * Gets the maximum x coordinate of a body
+     *
+     * @param id the ID of the body
+     * @return the maximum x coordinate
+     */
+    public float getMaxX(int id) {
+        return maxX[id];
+    }
+
+    /**
+     * Gets the maximum y coordinate of a body
+     *
+     * @param id the ID of the body
+     * @return the maximum y coordinate
+     */
+    public float getMaxY(int id) {
+        return maxY[id];
+    }
+
+    /**
+     * Gets the number of bodies
+     *
+     * @return the number of bodies
+     */
+    public int getBodyCount() {
+        return highest - freeCount;
+    }
+}
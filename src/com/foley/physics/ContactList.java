@@ -0,0 +1,78 @@
+package com.foley.physics;
+
+import java.util.Arrays;
+
+/**
+ * The pairs of bodies whose bounding boxes overlap, as found by the last broadphase step. The list is reused from step
+ * to step and only grows, so a running broadphase does not allocate
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ContactList {
+    private int[] first;
+    private int[] second;
+    private int count;
+
+    /**
+     * Creates a new contact list
+     *
+     * @param capacity the number of pairs to make room for up front
+     */
+    ContactList(int capacity) {
+        first = new int[Math.max(16, capacity)];
+        second = new int[first.length];
+    }
+
+    /**
+     * Adds a pair to the list
+     *
+     * @param a the body with the lower ID
+     * @param b the body with the higher ID
+     */
+    void add(int a, int b) {
+        if(count == first.length) {
+            first = Arrays.copyOf(first, count * 2);
+            second = Arrays.copyOf(second, count * 2);
+        }
+        first[count] = a;
+        second[count] = b;
+        count++;
+    }
+
+    /**
+     * Removes every pair
+     */
+    void clear() {
+        count = 0;
+    }
+
+    /**
+     * Gets the number of overlapping pairs
+     *
+     * @return the number of pairs
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the body with the lower ID in a pair
+     *
+     * @param index the index of the pair
+     * @return the first body of the pair
+     */
+    public int getFirst(int index) {
+        return first[index];
+    }
+
+    /**
+     * Gets the body with the higher ID in a pair
+     *
+     * @param index the index of the pair
+     * @return the second body of the pair
+     */
+    public int getSecond(int index) {
+        return second[index];
+    }
+}
@@ -0,0 +1,437 @@
+package com.foley.save;
+
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Saves registered state to an append only file without blocking the game loop. A save serializes every registered
+ * object into a pooled direct buffer and hands it to a background writer. The writer compares it with the last
+ * snapshot it wrote, appends only the blocks that changed, and forces the file to disk. Once the deltas outgrow the
+ * snapshot they build on, the file is compacted into a single full snapshot
+ *
+ * A snapshot is a list of sections, each written as [id][length][payload]. Records in the file are written as
+ * [magic][type][sequence][length][crc][payload], where a full record holds a snapshot and a delta record holds
+ * [snapshot length][block size][block count] followed by [block index][block] for each changed block
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class SnapshotStore implements AutoCloseable {
+    private static final LogSite WRITE_FAILED = new LogSite(Level.INFO, "Could not write snapshot to \"%s\": %s");
+    private static final LogSite CLOSE_FAILED = new LogSite(Level.INFO, "Could not close snapshot file \"%s\"");
+
+    private static final int MAGIC = 0x534E4150;
+    private static final byte FULL = 0;
+    private static final byte DELTA = 1;
+    private static final int RECORD_HEADER = 4 + 1 + 8 + 4 + 4;
+    private static final int SECTION_HEADER = 8;
+    private static final int POOL_SIZE = 2;
+    // Compact once the file is this many times larger than the latest snapshot
+    private static final int COMPACT_RATIO = 4;
+    private static final int MAX_DELTAS = 64;
+
+    private final Path file;
+    private final int blockSize;
+    private final List<Snapshottable> sections = new ArrayList<>();
+    private final List<Integer> ids = new ArrayList<>();
+
+    // Buffers move from the pool, to pending, to the writer, and back to the pool
+    private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<ByteBuffer> pending = new AtomicReference<>();
+    private final Object idle = new Object();
+    private final Thread writer;
+    private volatile boolean running;
+    private volatile boolean busy;
+    private int capacity;
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private byte[] previous = new byte[0];
+    private int previousLength = -1;
+    private byte[] current = new byte[0];
+    private ByteBuffer record = ByteBuffer.allocate(0);
+    private final CRC32C crc = new CRC32C();
+    private long sequence;
+    private int deltas;
+
+    /**
+     * Creates a new snapshot store
+     *
+     * @param path the file to save to
+     * @param blockSize the size of the blocks compared between snapshots. Smaller blocks write less for scattered
+     *                  changes at the cost of more per block overhead
+     */
+    public SnapshotStore(String path, int blockSize) {
+        this(Paths.get(path), blockSize);
+    }
+
+    /**
+     * Creates a new snapshot store
+     *
+     * @param file the file to save to
+     * @param blockSize the size of the blocks compared between snapshots
+     */
+    public SnapshotStore(Path file, int blockSize) {
+        if(blockSize < 16) {
+            throw new IllegalArgumentException("Block size must be at least 16 bytes");
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+        capacity = 64 * 1024;
+        for(int i = 0; i < POOL_SIZE; i++) {
+            pool.add(ByteBuffer.allocateDirect(capacity));
+        }
+        running = true;
+        writer = new Thread(this::write, "Snapshot Writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Registers state to be saved. Sections are saved in the order they are registered
+     *
+     * @param id the id of the section, which must stay the same between versions of the game
+     * @param state the state to save
+     */
+    public void register(int id, Snapshottable state) {
+        if(ids.contains(id)) {
+            throw new IllegalArgumentException("Section " + id + " is already registered");
+        }
+        ids.add(id);
+        sections.add(state);
+    }
+
+    /**
+     * Takes a snapshot and queues it to be written. Only the serialization happens on the calling thread. If the
+     * writer has not finished with the previous snapshot, the one still waiting is replaced by this one
+     */
+    public void save() {
+        ByteBuffer buf = pool.poll();
+        if(buf == null) {
+            buf = pending.getAndSet(null);
+        }
+        if(buf == null || buf.capacity() < capacity) {
+            buf = ByteBuffer.allocateDirect(capacity);
+        }
+
+        // Serialize, growing the buffer until every section fits
+        while(true) {
+            try {
+                buf.clear();
+                for(int i = 0; i < sections.size(); i++) {
+                    int start = buf.position();
+                    buf.putInt(ids.get(i));
+                    // The length is filled in once the section is written. Putting a placeholder overflows the buffer
+                    // like any other write when the header does not fit
+                    buf.putInt(0);
+                    sections.get(i).save(buf);
+                    buf.putInt(start + 4, buf.position() - start - SECTION_HEADER);
+                }
+                break;
+            } catch(BufferOverflowException | IndexOutOfBoundsException e) {
+                capacity *= 2;
+                buf = ByteBuffer.allocateDirect(capacity);
+            }
+        }
+        buf.flip();
+
+        ByteBuffer replaced = pending.getAndSet(buf);
+        if(replaced != null) {
+            release(replaced);
+        }
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Waits until every queued snapshot has been written
+     */
+    public void flush() {
+        synchronized(idle) {
+            while(running && (pending.get() != null || busy)) {
+                try {
+                    idle.wait(10L);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores every registered section from the latest snapshot in the file. A record cut short by a crash is
+     * ignored, so the last complete snapshot is loaded. Sections missing from the file are left untouched. Should not
+     * be called while a save is being written
+     *
+     * @return true if a snapshot was found and loaded
+     * @throws IOException if the file cannot be read
+     */
+    public boolean load() throws IOException {
+        if(!Files.exists(file)) {
+            return false;
+        }
+        byte[] image = null;
+        int length = 0;
+        try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if(size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file is larger than 2GB");
+            }
+            // Read into the heap rather than mapping the file, so no mapping outlives the load and blocks compaction
+            // from replacing the file
+            ByteBuffer data = ByteBuffer.allocate((int)size);
+            while(data.hasRemaining()) {
+                if(in.read(data) < 0) {
+                    break;
+                }
+            }
+            size = data.position();
+            CRC32C check = new CRC32C();
+
+            // Replay records until the end of the file or the first damaged record
+            int pos = 0;
+            while(pos + RECORD_HEADER <= size && data.getInt(pos) == MAGIC) {
+                byte type = data.get(pos + 4);
+                int payload = data.getInt(pos + 13);
+                int expected = data.getInt(pos + 17);
+                int start = pos + RECORD_HEADER;
+                if(payload < 0 || start + (long)payload > size) {
+                    break;
+                }
+                ByteBuffer body = data.duplicate();
+                body.position(start).limit(start + payload);
+                check.reset();
+                check.update(body.duplicate());
+                if((int)check.getValue() != expected) {
+                    break;
+                }
+
+                if(type == FULL) {
+                    image = new byte[payload];
+                    body.get(image);
+                    length = payload;
+                } else if(type == DELTA && image != null) {
+                    int newLength = body.getInt();
+                    int recordBlockSize = body.getInt();
+                    int blocks = body.getInt();
+                    if(newLength > image.length) {
+                        image = Arrays.copyOf(image, newLength);
+                    }
+                    length = newLength;
+                    for(int i = 0; i < blocks; i++) {
+                        int from = body.getInt() * recordBlockSize;
+                        body.get(image, from, Math.min(recordBlockSize, newLength - from));
+                    }
+                } else {
+                    break;
+                }
+                pos = start + payload;
+            }
+        }
+        if(image == null) {
+            return false;
+        }
+
+        // Hand each registered section its payload
+        ByteBuffer snapshot = ByteBuffer.wrap(image, 0, length).asReadOnlyBuffer();
+        while(snapshot.remaining() >= SECTION_HEADER) {
+            int id = snapshot.getInt();
+            int size = snapshot.getInt();
+            int index = ids.indexOf(id);
+            if(index >= 0) {
+                ByteBuffer section = snapshot.slice();
+                section.limit(size);
+                sections.get(index).load(section);
+            }
+            snapshot.position(snapshot.position() + size);
+        }
+        return true;
+    }
+
+    /**
+     * Writes any queued snapshot and stops the writer
+     */
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a buffer to the pool if it is still large enough to be useful
+     */
+    private void release(ByteBuffer buf) {
+        if(buf.capacity() >= capacity && pool.size() < POOL_SIZE) {
+            pool.add(buf);
+        }
+    }
+
+    /**
+     * The body of the writer thread
+     */
+    private void write() {
+        while(running || pending.get() != null) {
+            busy = true;
+            ByteBuffer buf = pending.getAndSet(null);
+            if(buf == null) {
+                busy = false;
+                synchronized(idle) {
+                    idle.notifyAll();
+                }
+                LockSupport.park(this);
+                continue;
+            }
+
+            // Copy the snapshot out so the buffer can go straight back to the pool
+            int length = buf.remaining();
+            if(current.length < length) {
+                current = new byte[length];
+            }
+            buf.get(current, 0, length);
+            release(buf);
+            try {
+                writeSnapshot(length);
+            } catch(IOException e) {
+                WRITE_FAILED.log(file, e.getMessage());
+                // Start over from a full snapshot, since the file may now end in a damaged record
+                previousLength = -1;
+                closeChannel();
+            }
+
+            // The snapshot just written is what the next one is compared against
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+            previousLength = channel == null ? -1 : length;
+        }
+        closeChannel();
+        busy = false;
+        synchronized(idle) {
+            idle.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the snapshot in current as a delta if possible, or compacts the file into a full snapshot
+     */
+    private void writeSnapshot(int length) throws IOException {
+        boolean compact = channel == null || previousLength < 0 || deltas >= MAX_DELTAS
+                || channel.size() > (long)COMPACT_RATIO * Math.max(length, blockSize);
+        if(compact) {
+            closeChannel();
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            sequence = 0L;
+            writeRecord(FULL, current, 0, length);
+            channel.force(false);
+            channel.close();
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            deltas = 0;
+            return;
+        }
+
+        // Gather the blocks that differ from the previous snapshot
+        int blocks = (length + blockSize - 1) / blockSize;
+        ensureRecord(12 + blocks * (4 + blockSize));
+        record.clear();
+        record.position(RECORD_HEADER);
+        record.putInt(length).putInt(blockSize).putInt(0);
+        int changed = 0;
+        for(int b = 0; b < blocks; b++) {
+            int from = b * blockSize;
+            int to = Math.min(length, from + blockSize);
+            if(to > previousLength || Arrays.mismatch(current, from, to, previous, from, to) >= 0) {
+                record.putInt(b).put(current, from, to - from);
+                changed++;
+            }
+        }
+        if(changed == 0 && length == previousLength) {
+            return;
+        }
+        record.putInt(RECORD_HEADER + 8, changed);
+        finishRecord(DELTA);
+        channel.force(false);
+        deltas++;
+    }
+
+    /**
+     * Writes a record holding a copy of a byte range
+     */
+    private void writeRecord(byte type, byte[] data, int offset, int length) throws IOException {
+        ensureRecord(length);
+        record.clear();
+        record.position(RECORD_HEADER);
+        record.put(data, offset, length);
+        finishRecord(type);
+    }
+
+    /**
+     * Fills in the header of the record buffer and writes it
+     */
+    private void finishRecord(byte type) throws IOException {
+        int payload = record.position() - RECORD_HEADER;
+        crc.reset();
+        crc.update(record.array(), RECORD_HEADER, payload);
+        record.putInt(0, MAGIC);
+        record.put(4, type);
+        record.putLong(5, sequence++);
+        record.putInt(13, payload);
+        record.putInt(17, (int)crc.getValue());
+        record.flip();
+        while(record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Makes sure the record buffer can hold a payload
+     */
+    private void ensureRecord(int payload) {
+        if(record.capacity() < RECORD_HEADER + payload) {
+            record = ByteBuffer.allocate(RECORD_HEADER + payload);
+        }
+    }
+
+    /**
+     * Closes the file if it is open
+     */
+    private void closeChannel() {
+        if(channel != null) {
+            try {
+                channel.close();
+            } catch(IOException e) {
+                CLOSE_FAILED.log(file);
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.foley.save;
+
+import java.nio.ByteBuffer;
+
+/**
+ * State that can be written to and read back from a snapshot
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface Snapshottable {
+    /**
+     * Writes the current state. Only relative puts should be used, starting at the buffer's position. The buffer may
+     * overflow, in which case the snapshot is retried with a larger buffer, so the method must not change any state
+     *
+     * @param out the buffer to write to
+     */
+    void save(ByteBuffer out);
+
+    /**
+     * Restores state written by save
+     *
+     * @param in a read only buffer holding exactly what save wrote
+     */
+    void load(ByteBuffer in);
+}
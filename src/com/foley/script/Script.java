@@ -0,0 +1,172 @@
+package com.foley.script;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A behaviour written as a straight list of steps, such as walk to a point, wait until there, wait two seconds, shoot
+ * and go back. A script is built once and shared by every entity that runs it; the entity is passed to each step, and
+ * the place each entity has reached is kept by the script runner
+ *
+ * @param <T> the type of entity the script runs on
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class Script<T> {
+    static final int RUN = 0;
+    static final int WAIT = 1;
+    static final int WAIT_UNTIL = 2;
+    static final int JUMP = 3;
+    static final int COUNT_SET = 4;
+    static final int COUNT_LOOP = 5;
+
+    // The compiled steps. A count step holds its count in arg and its counter in target, and a count loop holds its
+    // counter in arg and the step to go back to in target
+    final int[] op;
+    final int[] arg;
+    final int[] target;
+    final Object[] ref;
+    final int counters;
+
+    /**
+     * Compiles the steps added to a builder
+     */
+    private Script(Builder<T> builder) {
+        int length = builder.op.size();
+        op = new int[length];
+        arg = new int[length];
+        target = new int[length];
+        ref = builder.ref.toArray();
+        for(int i = 0; i < length; i++) {
+            op[i] = builder.op.get(i);
+            arg[i] = builder.arg.get(i);
+            target[i] = builder.target.get(i);
+        }
+        counters = builder.counters;
+    }
+
+    /**
+     * Starts building a script
+     *
+     * @param <T> the type of entity the script runs on
+     * @return a builder for the script
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the number of steps in the script
+     *
+     * @return the number of steps
+     */
+    public int length() {
+        return op.length;
+    }
+
+    /**
+     * Builds a script step by step
+     *
+     * @param <T> the type of entity the script runs on
+     */
+    public static final class Builder<T> {
+        private final List<Integer> op = new ArrayList<>();
+        private final List<Integer> arg = new ArrayList<>();
+        private final List<Integer> target = new ArrayList<>();
+        private final List<Object> ref = new ArrayList<>();
+        private int counters;
+
+        /**
+         * Creates a new empty builder. Builders are created through Script.builder
+         */
+        private Builder() {
+        }
+
+        /**
+         * Adds a step that runs an action on the entity
+         *
+         * @param action the action to run
+         * @return this builder
+         */
+        public Builder<T> run(Consumer<? super T> action) {
+            return add(RUN, 0, 0, action);
+        }
+
+        /**
+         * Adds a step that yields to the game loop and resumes after a number of ticks
+         *
+         * @param ticks the number of ticks to wait. Values less than one wait a single tick
+         * @return this builder
+         */
+        public Builder<T> waitTicks(int ticks) {
+            return add(WAIT, Math.max(1, ticks), 0, null);
+        }
+
+        /**
+         * Adds a step that yields to the game loop until a condition holds. The condition is tested straight away, then
+         * once each tick until it holds
+         *
+         * @param condition the condition to wait for
+         * @return this builder
+         */
+        public Builder<T> waitUntil(Predicate<? super T> condition) {
+            return add(WAIT_UNTIL, 0, 0, condition);
+        }
+
+        /**
+         * Adds steps that are run a number of times
+         *
+         * @param times the number of times to run the steps
+         * @param body adds the steps to this builder
+         * @return this builder
+         */
+        public Builder<T> repeat(int times, Consumer<Builder<T>> body) {
+            if(times <= 0) {
+                return this;
+            }
+            int counter = counters++;
+            add(COUNT_SET, times, counter, null);
+            int start = op.size();
+            body.accept(this);
+            return add(COUNT_LOOP, counter, start, null);
+        }
+
+        /**
+         * Adds a step that goes back to the first step, so the script runs until it is stopped. A loop should contain
+         * a wait, or the script will use up its step budget every tick
+         *
+         * @return this builder
+         */
+        public Builder<T> loop() {
+            return add(JUMP, 0, 0, null);
+        }
+
+        /**
+         * Builds the script
+         *
+         * @return the script
+         */
+        public Script<T> build() {
+            return new Script<>(this);
+        }
+
+        /**
+         * Appends an instruction to the script
+         *
+         * @param operation the operation of the instruction
+         * @param argument the integer argument of the instruction
+         * @param jump the index of the instruction to jump to, or the counter a COUNT_SET instruction sets
+         * @param reference the object argument of the instruction, or null if it has none
+         * @return this builder
+         */
+        private Builder<T> add(int operation, int argument, int jump, Object reference) {
+            op.add(operation);
+            arg.add(argument);
+            target.add(jump);
+            ref.add(reference);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.foley.script;
+
+import com.foley.core.Scheduler;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Runs scripts for entities on the game thread. A running script is resumed only on the ticks it is due: scripts
+ * waiting a number of ticks sleep on a scheduler timer, and scripts waiting on a condition are tested once each tick.
+ * Each tick, due scripts are resumed in the order of the slots they hold, and run until their next wait or their end.
+ * Slots of finished scripts are reused, so a script may be resumed ahead of one that was started before it
+ *
+ * Scripts are named by handles that carry a generation, so a handle to a script that has finished or been stopped is
+ * simply stale
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ScriptRunner {
+    private static final LogSite STEP_BUDGET = new LogSite(Level.WARNING, "A script ran %d steps without waiting. It will carry on next tick");
+
+    /**
+     * A handle that never refers to a script
+     */
+    public static final long NONE = 0L;
+
+    // The most steps a script may run in one tick before it is made to wait
+    private static final int MAX_STEPS = 1024;
+
+    private final Scheduler scheduler;
+
+    // Pooled script instances
+    private Script<?>[] script;
+    private Object[] context;
+    private int[] pc;
+    private int[][] counters;
+    private int[] generation;
+    private long[] timer;
+    private Runnable[] wake;
+    private int[] nextFree;
+    private int free;
+    private int size;
+
+    // Instances started since the last update, instances to resume this tick, and instances waiting on a condition,
+    // as bits by instance
+    private long[] starting;
+    private long[] ready;
+    private long[] polling;
+
+    /**
+     * Creates a new script runner
+     *
+     * @param scheduler the scheduler that times waits
+     * @param capacity the number of scripts to allocate up front. The pool grows if more run at once
+     */
+    public ScriptRunner(Scheduler scheduler, int capacity) {
+        this.scheduler = scheduler;
+        script = new Script<?>[0];
+        context = new Object[0];
+        pc = new int[0];
+        counters = new int[0][];
+        generation = new int[0];
+        timer = new long[0];
+        wake = new Runnable[0];
+        nextFree = new int[0];
+        starting = new long[0];
+        ready = new long[0];
+        polling = new long[0];
+        free = -1;
+        grow(Math.max(64, capacity));
+    }
+
+    /**
+     * Starts a script on an entity. The script first runs on the next update
+     *
+     * @param script the script to run
+     * @param entity the entity passed to each step of the script
+     * @param <T> the type of entity the script runs on
+     * @return the handle of the running script
+     */
+    public <T> long start(Script<T> script, T entity) {
+        if(free < 0) {
+            grow(this.script.length * 2);
+        }
+        int n = free;
+        free = nextFree[n];
+        this.script[n] = script;
+        context[n] = entity;
+        pc[n] = 0;
+        if(script.counters > 0 && (counters[n] == null || counters[n].length < script.counters)) {
+            counters[n] = new int[script.counters];
+        }
+        starting[n >>> 6] |= 1L << n;
+        size++;
+        return ((long)generation[n] << 32) | n;
+    }
+
+    /**
+     * Stops a running script. A script may stop itself, or any other, from one of its steps
+     *
+     * @param handle the handle of the script
+     * @return true if the script was running and is now stopped, false if the handle is stale
+     */
+    public boolean stop(long handle) {
+        int n = resolve(handle);
+        if(n < 0) {
+            return false;
+        }
+        release(n);
+        return true;
+    }
+
+    /**
+     * Determines if a script is still running
+     *
+     * @param handle the handle of the script
+     * @return true if the script has not finished or been stopped
+     */
+    public boolean isRunning(long handle) {
+        return resolve(handle) >= 0;
+    }
+
+    /**
+     * Stops every running script
+     */
+    public void clear() {
+        for(int n = 0; n < script.length; n++) {
+            if(script[n] != null) {
+                release(n);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of running scripts
+     *
+     * @return the number of running scripts
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Resumes every script that is due this tick, in the order of their slots. Should be called once each tick, after
+     * the scheduler has advanced
+     */
+    public void update() {
+        // Scripts started during this update wait for the next one
+        for(int w = 0; w < starting.length; w++) {
+            ready[w] |= starting[w];
+            starting[w] = 0L;
+        }
+        for(int w = 0; w < ready.length; w++) {
+            long bits = ready[w] | polling[w];
+            while(bits != 0L) {
+                int n = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long bit = 1L << n;
+                if((polling[w] & bit) != 0L) {
+                    if(!test(n)) {
+                        continue;
+                    }
+                    polling[w] &= ~bit;
+                    pc[n]++;
+                } else if((ready[w] & bit) == 0L) {
+                    // Stopped by a script resumed earlier this tick
+                    continue;
+                }
+                ready[w] &= ~bit;
+                resume(n);
+            }
+        }
+    }
+
+    /**
+     * Runs the steps of a script from where it stopped until it waits or ends
+     */
+    @SuppressWarnings("unchecked")
+    private void resume(int n) {
+        Script<?> s = script[n];
+        int gen = generation[n];
+        int steps = 0;
+        while(pc[n] < s.op.length) {
+            if(++steps > MAX_STEPS) {
+                STEP_BUDGET.log(MAX_STEPS);
+                ready[n >>> 6] |= 1L << n;
+                return;
+            }
+            int i = pc[n];
+            switch(s.op[i]) {
+                case Script.RUN:
+                    pc[n] = i + 1;
+                    ((Consumer<Object>) s.ref[i]).accept(context[n]);
+                    if(generation[n] != gen) {
+                        // The step stopped this script
+                        return;
+                    }
+                    break;
+                case Script.WAIT:
+                    pc[n] = i + 1;
+                    timer[n] = scheduler.schedule(s.arg[i], wake[n]);
+                    return;
+                case Script.WAIT_UNTIL:
+                    if(test(n)) {
+                        pc[n] = i + 1;
+                        break;
+                    }
+                    polling[n >>> 6] |= 1L << n;
+                    return;
+                case Script.JUMP:
+                    pc[n] = s.target[i];
+                    break;
+                case Script.COUNT_SET:
+                    counters[n][s.target[i]] = s.arg[i];
+                    pc[n] = i + 1;
+                    break;
+                case Script.COUNT_LOOP:
+                    pc[n] = --counters[n][s.arg[i]] > 0 ? s.target[i] : i + 1;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown script step " + s.op[i]);
+            }
+        }
+        release(n);
+    }
+
+    /**
+     * Tests the condition of the wait a script is on
+     */
+    @SuppressWarnings("unchecked")
+    private boolean test(int n) {
+        return ((Predicate<Object>) script[n].ref[pc[n]]).test(context[n]);
+    }
+
+    /**
+     * Returns an instance to the pool and retires its handles
+     */
+    private void release(int n) {
+        if(timer[n] != Scheduler.NONE) {
+            scheduler.cancel(timer[n]);
+            timer[n] = Scheduler.NONE;
+        }
+        long bit = 1L << n;
+        starting[n >>> 6] &= ~bit;
+        ready[n >>> 6] &= ~bit;
+        polling[n >>> 6] &= ~bit;
+        generation[n]++;
+        script[n] = null;
+        context[n] = null;
+        nextFree[n] = free;
+        free = n;
+        size--;
+    }
+
+    /**
+     * Finds the instance of a handle
+     *
+     * @return the instance, or -1 if the handle is stale
+     */
+    private int resolve(long handle) {
+        int n = (int)handle;
+        if(n < 0 || n >= script.length || script[n] == null || generation[n] != (int)(handle >>> 32)) {
+            return -1;
+        }
+        return n;
+    }
+
+    /**
+     * Grows the pool of instances. The capacity is kept a multiple of 64 so the bit sets have whole words
+     */
+    private void grow(int capacity) {
+        capacity = (capacity + 63) & ~63;
+        int old = script.length;
+        script = Arrays.copyOf(script, capacity);
+        context = Arrays.copyOf(context, capacity);
+        pc = Arrays.copyOf(pc, capacity);
+        counters = Arrays.copyOf(counters, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        timer = Arrays.copyOf(timer, capacity);
+        wake = Arrays.copyOf(wake, capacity);
+        nextFree = Arrays.copyOf(nextFree, capacity);
+        starting = Arrays.copyOf(starting, capacity >>> 6);
+        ready = Arrays.copyOf(ready, capacity >>> 6);
+        polling = Arrays.copyOf(polling, capacity >>> 6);
+        // Generations start at 1 so no handle is ever NONE
+        for(int i = capacity - 1; i >= old; i--) {
+            final int n = i;
+            generation[i] = 1;
+            wake[i] = () -> {
+                timer[n] = Scheduler.NONE;
+                ready[n >>> 6] |= 1L << n;
+            };
+            nextFree[i] = free;
+            free = i;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.foley.world;
+
+/**
+ * Hears about chunks coming into and going out of memory. Always called on the game thread during ChunkStreamer.update
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public interface ChunkListener {
+    /**
+     * Called when a chunk has been read and is ready to use
+     *
+     * @param chunk the chunk
+     */
+    void chunkLoaded(WorldChunk chunk);
+
+    /**
+     * Called when a chunk has been dropped from memory to stay within the budget
+     *
+     * @param chunk the chunk
+     */
+    void chunkEvicted(WorldChunk chunk);
+}
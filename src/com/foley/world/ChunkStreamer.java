@@ -0,0 +1,464 @@
+package com.foley.world;
+
+import com.foley.core.Config;
+import com.foley.graphic.Renderer;
+import com.foley.graphic.SpriteSheet;
+import com.foley.log.Level;
+import com.foley.log.LogSite;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Keeps the part of a world around the camera in memory. Each tick the streamer is told where the camera is, follows
+ * how fast it is moving, and wants every chunk covered by the view now and the view where the camera is headed, plus a
+ * margin. Missing chunks are read on background threads, nearest to where the camera is headed first, and handed to
+ * the game thread in update, at a tick boundary, for no more than the time budget each tick. The game never waits on
+ * the disk; a chunk that has not arrived yet simply reads as empty
+ *
+ * Chunks that are no longer wanted stay in memory until the loaded chunks go over the memory budget, and then the ones
+ * farthest from the camera are dropped first
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class ChunkStreamer implements AutoCloseable {
+    private static final LogSite READ_FAILED = new LogSite(Level.WARNING, "Could not read chunk (%d, %d). It will be left empty: %s");
+    private static final LogSite OVER_BUDGET = new LogSite(Level.WARNING, "The chunks around the camera take %d KB, more than the world memory budget of %d KB");
+
+    // How much of each tick's camera movement goes into the followed velocity
+    private static final double SMOOTHING = 0.25;
+
+    private final World world;
+    private final long budget;
+    private final long memoryBudget;
+    private final int margin;
+    private final int lookahead;
+    private final Thread[] workers;
+    private final PriorityBlockingQueue<Request> work;
+    private final ConcurrentLinkedQueue<Request> finished;
+    private volatile boolean running;
+    private ChunkListener listener;
+
+    private final Map<Long, WorldChunk> resident;
+    private final Map<Long, Request> loading;
+    private long residentBytes;
+
+    // Camera tracking, in pixels
+    private boolean tracking;
+    private double lastX;
+    private double lastY;
+    private double velocityX;
+    private double velocityY;
+
+    // The chunks wanted, inclusive, and where the camera is headed, in chunks
+    private int firstColumn;
+    private int firstRow;
+    private int lastColumn = -1;
+    private int lastRow = -1;
+    private double focusColumn;
+    private double focusRow;
+
+    private final List<Request> requeue;
+    private final List<WorldChunk> evictable;
+    private final Comparator<WorldChunk> farthestFirst;
+
+    /**
+     * Creates a new streamer
+     *
+     * @param world the world to stream
+     * @param workers the number of threads reading chunks. At least one is always started
+     * @param budgetNanos the most time update may spend handing over loaded chunks each tick, in nanoseconds. At least
+     *                    one chunk is always handed over
+     * @param memoryBudget the most bytes of loaded chunks kept in memory before chunks outside the view are dropped
+     * @param margin the number of chunks past each edge of the view that are wanted as well
+     * @param lookahead the number of ticks ahead the camera movement is followed
+     */
+    public ChunkStreamer(World world, int workers, long budgetNanos, long memoryBudget, int margin, int lookahead) {
+        this.world = world;
+        budget = budgetNanos;
+        this.memoryBudget = memoryBudget;
+        this.margin = Math.max(0, margin);
+        this.lookahead = Math.max(0, lookahead);
+        work = new PriorityBlockingQueue<>();
+        finished = new ConcurrentLinkedQueue<>();
+        resident = new HashMap<>();
+        loading = new HashMap<>();
+        requeue = new ArrayList<>();
+        evictable = new ArrayList<>();
+        farthestFirst = Comparator.<WorldChunk>comparingDouble(this::distance).reversed();
+        running = true;
+        this.workers = new Thread[Math.max(1, workers)];
+        for(int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = new Thread(this::load, "Chunk Loader " + i);
+            this.workers[i].setDaemon(true);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Creates a streamer from the settings in a config
+     *
+     * @param world the world to stream
+     * @param config the config holding the world settings
+     * @return the streamer
+     */
+    public static ChunkStreamer fromConfig(World world, Config config) {
+        int ticks = (int)Math.round(config.getDouble("worldLookahead", 1.0) * config.getInt("updateInterval", 100));
+        return new ChunkStreamer(world, config.getInt("worldWorkers", 1), (long)(config.getDouble("worldBudget", 1.0) * 1000000L),
+                (long)(config.getDouble("worldMemoryBudget", 64.0) * 1024L * 1024L), config.getInt("worldMargin", 1), ticks);
+    }
+
+    /**
+     * Sets the listener told about chunks coming into and going out of memory
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(ChunkListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Follows the camera of a renderer. Should be called once each tick, after the camera has been moved with lookAt
+     *
+     * @param renderer the renderer
+     */
+    public void update(Renderer renderer) {
+        update(renderer.getCameraX(), renderer.getCameraY(), renderer.getWidth(), renderer.getHeight());
+    }
+
+    /**
+     * Hands over the chunks that have been read, follows the camera, asks for the chunks it will need and drops chunks
+     * to stay within the memory budget. Should be called once each tick
+     *
+     * @param cameraX the x coordinate the view is centered on, in world pixels
+     * @param cameraY the y coordinate the view is centered on, in world pixels
+     * @param viewWidth the width of the view in pixels
+     * @param viewHeight the height of the view in pixels
+     */
+    public void update(int cameraX, int cameraY, int viewWidth, int viewHeight) {
+        deliver(System.nanoTime() + budget);
+
+        // Follow the camera. A jump further than a screen is a cut, not movement
+        if(tracking) {
+            double dx = cameraX - lastX;
+            double dy = cameraY - lastY;
+            if(Math.abs(dx) > viewWidth || Math.abs(dy) > viewHeight) {
+                velocityX = 0.0;
+                velocityY = 0.0;
+            } else {
+                velocityX += (dx - velocityX) * SMOOTHING;
+                velocityY += (dy - velocityY) * SMOOTHING;
+            }
+        }
+        tracking = true;
+        lastX = cameraX;
+        lastY = cameraY;
+
+        // Want the view now and where it is headed, plus the margin
+        double aheadX = cameraX + velocityX * lookahead;
+        double aheadY = cameraY + velocityY * lookahead;
+        int chunkWidth = world.getChunkSize() * world.getTileWidth();
+        int chunkHeight = world.getChunkSize() * world.getTileHeight();
+        int halfWidth = viewWidth / 2;
+        int halfHeight = viewHeight / 2;
+        focusColumn = aheadX / chunkWidth;
+        focusRow = aheadY / chunkHeight;
+        int left = Math.max(0, (int)Math.floor((Math.min(cameraX, aheadX) - halfWidth) / chunkWidth) - margin);
+        int top = Math.max(0, (int)Math.floor((Math.min(cameraY, aheadY) - halfHeight) / chunkHeight) - margin);
+        int right = Math.min(world.getChunkColumns() - 1, (int)Math.floor((Math.max(cameraX, aheadX) + halfWidth) / chunkWidth) + margin);
+        int bottom = Math.min(world.getChunkRows() - 1, (int)Math.floor((Math.max(cameraY, aheadY) + halfHeight) / chunkHeight) + margin);
+        if(left != firstColumn || top != firstRow || right != lastColumn || bottom != lastRow) {
+            firstColumn = left;
+            firstRow = top;
+            lastColumn = right;
+            lastRow = bottom;
+            request();
+        }
+        evict();
+    }
+
+    /**
+     * Gets a loaded chunk
+     *
+     * @param chunkColumn the column of the chunk
+     * @param chunkRow the row of the chunk
+     * @return the chunk, or null if it is not in memory
+     */
+    public WorldChunk getChunk(int chunkColumn, int chunkRow) {
+        return resident.get(key(chunkColumn, chunkRow));
+    }
+
+    /**
+     * Gets a tile ID anywhere in the world
+     *
+     * @param layer the index of the layer
+     * @param column the column of the tile
+     * @param row the row of the tile
+     * @return the tile ID, or 0 if the tile is outside of the world or its chunk is not in memory
+     */
+    public int getTile(int layer, int column, int row) {
+        if(column < 0 || column >= world.getColumns() || row < 0 || row >= world.getRows()) {
+            return 0;
+        }
+        int size = world.getChunkSize();
+        WorldChunk chunk = getChunk(column / size, row / size);
+        return chunk == null ? 0 : chunk.getTile(layer, column % size, row % size);
+    }
+
+    /**
+     * Draws the visible tiles of a layer that are in memory, in world pixels under the current camera
+     *
+     * @param renderer the renderer
+     * @param tiles the sprite sheet holding the tiles. Tile ID n draws frame n - 1
+     * @param layer the index of the layer
+     */
+    public void render(Renderer renderer, SpriteSheet tiles, int layer) {
+        int tileWidth = world.getTileWidth();
+        int tileHeight = world.getTileHeight();
+        int left = renderer.getCameraX() - renderer.getWidth() / 2;
+        int top = renderer.getCameraY() - renderer.getHeight() / 2;
+        int firstTileColumn = Math.max(0, Math.floorDiv(left, tileWidth));
+        int firstTileRow = Math.max(0, Math.floorDiv(top, tileHeight));
+        int lastTileColumn = Math.min(world.getColumns() - 1, Math.floorDiv(left + renderer.getWidth(), tileWidth));
+        int lastTileRow = Math.min(world.getRows() - 1, Math.floorDiv(top + renderer.getHeight(), tileHeight));
+        int size = world.getChunkSize();
+        for(int cr = firstTileRow / size; cr <= lastTileRow / size; cr++) {
+            for(int cc = firstTileColumn / size; cc <= lastTileColumn / size; cc++) {
+                WorldChunk chunk = getChunk(cc, cr);
+                if(chunk == null || chunk.isEmpty()) {
+                    continue;
+                }
+                int fromRow = Math.max(firstTileRow, cr * size);
+                int toRow = Math.min(lastTileRow, cr * size + size - 1);
+                int fromColumn = Math.max(firstTileColumn, cc * size);
+                int toColumn = Math.min(lastTileColumn, cc * size + size - 1);
+                for(int r = fromRow; r <= toRow; r++) {
+                    for(int c = fromColumn; c <= toColumn; c++) {
+                        int id = chunk.getTile(layer, c - cc * size, r - cr * size);
+                        if(id != 0) {
+                            renderer.drawTile(tiles, id - 1, c * tileWidth, r * tileHeight);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the world being streamed
+     *
+     * @return the world
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the number of chunks in memory
+     *
+     * @return the number of loaded chunks
+     */
+    public int getResidentCount() {
+        return resident.size();
+    }
+
+    /**
+     * Gets the number of bytes of loaded chunks, as counted against the memory budget
+     *
+     * @return the bytes held by loaded chunks
+     */
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Gets the number of chunks asked for that have not been handed over yet
+     *
+     * @return the number of chunks waiting to load
+     */
+    public int getPendingCount() {
+        return loading.size();
+    }
+
+    /**
+     * Stops the loader threads and drops every chunk. Listeners are not told about the dropped chunks
+     */
+    @Override
+    public void close() {
+        running = false;
+        for(Thread worker : workers) {
+            worker.interrupt();
+        }
+        work.clear();
+        finished.clear();
+        loading.clear();
+        resident.clear();
+        residentBytes = 0L;
+    }
+
+    /**
+     * Hands over read chunks until the time budget is spent
+     */
+    private void deliver(long deadline) {
+        Request r;
+        while((r = finished.poll()) != null) {
+            loading.remove(r.key);
+            WorldChunk chunk = r.chunk;
+            if(chunk == null) {
+                // Leave a broken chunk empty rather than read it again every tick
+                READ_FAILED.log(r.column, r.row, r.error.getMessage());
+                chunk = new WorldChunk(r.column, r.row, world.getChunkSize(), null);
+            }
+            resident.put(r.key, chunk);
+            residentBytes += chunk.getBytes();
+            if(listener != null) {
+                listener.chunkLoaded(chunk);
+            }
+            if(System.nanoTime() - deadline > 0L) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Asks for every wanted chunk that is neither loaded nor loading, and drops the queued ones that are no longer
+     * wanted. Queued chunks are ordered again by their distance to where the camera is headed
+     */
+    private void request() {
+        requeue.clear();
+        work.drainTo(requeue);
+        for(Request r : requeue) {
+            if(isWanted(r.column, r.row)) {
+                r.priority = distance(r.column, r.row);
+            } else {
+                loading.remove(r.key);
+            }
+        }
+        requeue.removeIf(r -> !loading.containsKey(r.key));
+        for(int row = firstRow; row <= lastRow; row++) {
+            for(int column = firstColumn; column <= lastColumn; column++) {
+                long key = key(column, row);
+                if(!resident.containsKey(key) && !loading.containsKey(key)) {
+                    Request r = new Request(column, row, key, distance(column, row));
+                    loading.put(key, r);
+                    requeue.add(r);
+                }
+            }
+        }
+        work.addAll(requeue);
+        requeue.clear();
+    }
+
+    /**
+     * Drops the unwanted chunks farthest from the camera until the loaded chunks fit in the memory budget
+     */
+    private void evict() {
+        if(residentBytes <= memoryBudget) {
+            return;
+        }
+        evictable.clear();
+        for(WorldChunk chunk : resident.values()) {
+            if(!isWanted(chunk.getColumn(), chunk.getRow())) {
+                evictable.add(chunk);
+            }
+        }
+        evictable.sort(farthestFirst);
+        for(int i = 0; i < evictable.size() && residentBytes > memoryBudget; i++) {
+            WorldChunk chunk = evictable.get(i);
+            resident.remove(key(chunk.getColumn(), chunk.getRow()));
+            residentBytes -= chunk.getBytes();
+            if(listener != null) {
+                listener.chunkEvicted(chunk);
+            }
+        }
+        evictable.clear();
+        if(residentBytes > memoryBudget) {
+            OVER_BUDGET.log(residentBytes / 1024L, memoryBudget / 1024L);
+        }
+    }
+
+    /**
+     * Determines if a chunk is in the wanted range
+     */
+    private boolean isWanted(int column, int row) {
+        return column >= firstColumn && column <= lastColumn && row >= firstRow && row <= lastRow;
+    }
+
+    /**
+     * Gets the squared distance in chunks from the center of a chunk to where the camera is headed
+     */
+    private double distance(int column, int row) {
+        double dx = column + 0.5 - focusColumn;
+        double dy = row + 0.5 - focusRow;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Gets the squared distance in chunks from the center of a loaded chunk to where the camera is headed
+     */
+    private double distance(WorldChunk chunk) {
+        return distance(chunk.getColumn(), chunk.getRow());
+    }
+
+    /**
+     * Packs a chunk column and row into the key of the chunk in the resident and loading maps
+     */
+    private static long key(int column, int row) {
+        return ((long)column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads chunks on a loader thread
+     */
+    private void load() {
+        while(running) {
+            Request r;
+            try {
+                r = work.take();
+            } catch(InterruptedException e) {
+                return;
+            }
+            try {
+                r.chunk = world.readChunk(r.column, r.row);
+            } catch(IOException e) {
+                r.error = e;
+            }
+            finished.add(r);
+        }
+    }
+
+    /**
+     * A chunk asked for and not yet handed over. The game thread owns a request except between a loader taking it from
+     * the work queue and putting it on the finished queue
+     */
+    private static final class Request implements Comparable<Request> {
+        final int column;
+        final int row;
+        final long key;
+        double priority;
+        WorldChunk chunk;
+        IOException error;
+
+        /**
+         * Creates a new request
+         */
+        Request(int column, int row, long key, double priority) {
+            this.column = column;
+            this.row = row;
+            this.key = key;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Request other) {
+            return Double.compare(priority, other.priority);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.foley.world;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A tile world stored on disk as a directory of chunk files, written by the WorldWriter. Only the header is read when
+ * the world is opened; chunks are read one at a time, by memory mapping their file and copying the tiles out, so a
+ * world can be far larger than memory. Chunks without a file hold no tiles
+ *
+ * Layout, all values big endian:
+ *   world.dat:           magic, version, columns, rows, chunk size, layer count, tile width, tile height
+ *   chunk_[c]_[r].dat:   magic, version, chunk column, chunk row, then layer count x chunk size x chunk size tile IDs
+ *                        (unsigned short) layer by layer, row by row
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class World {
+    static final int MAGIC = 0x57524C44;
+    static final int CHUNK_MAGIC = 0x43484E4B;
+    static final int VERSION = 1;
+    static final String HEADER = "world.dat";
+    static final int HEADER_SIZE = 32;
+    static final int CHUNK_HEADER_SIZE = 16;
+
+    private final Path directory;
+    private final int columns;
+    private final int rows;
+    private final int chunkSize;
+    private final int layerCount;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int chunkColumns;
+    private final int chunkRows;
+
+    /**
+     * Creates a world from its header
+     */
+    World(Path directory, int columns, int rows, int chunkSize, int layerCount, int tileWidth, int tileHeight) {
+        this.directory = directory;
+        this.columns = columns;
+        this.rows = rows;
+        this.chunkSize = chunkSize;
+        this.layerCount = layerCount;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        chunkColumns = (columns + chunkSize - 1) / chunkSize;
+        chunkRows = (rows + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * Opens a world directory
+     *
+     * @param directory the path of the directory
+     * @return the world
+     * @throws IOException if the header cannot be read or is not a valid world header
+     */
+    public static World open(String directory) throws IOException {
+        return open(Paths.get(directory));
+    }
+
+    /**
+     * Opens a world directory
+     *
+     * @param directory the path of the directory
+     * @return the world
+     * @throws IOException if the header cannot be read or is not a valid world header
+     */
+    public static World open(Path directory) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(HEADER)));
+        if(header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a world header");
+        }
+        int version = header.getInt();
+        if(version != VERSION) {
+            throw new IOException("Unsupported world version " + version);
+        }
+        int columns = header.getInt();
+        int rows = header.getInt();
+        int chunkSize = header.getInt();
+        int layerCount = header.getInt();
+        int tileWidth = header.getInt();
+        int tileHeight = header.getInt();
+        if(columns <= 0 || rows <= 0 || chunkSize <= 0 || layerCount <= 0 || tileWidth <= 0 || tileHeight <= 0) {
+            throw new IOException("World header holds an invalid size");
+        }
+        return new World(directory, columns, rows, chunkSize, layerCount, tileWidth, tileHeight);
+    }
+
+    /**
+     * Reads a chunk from its file. Safe to call from any thread
+     *
+     * @param chunkColumn the column of the chunk
+     * @param chunkRow the row of the chunk
+     * @return the chunk, empty if it has no file
+     * @throws IOException if the chunk file cannot be read or does not hold the chunk
+     */
+    public WorldChunk readChunk(int chunkColumn, int chunkRow) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(getChunkPath(chunkColumn, chunkRow), StandardOpenOption.READ);
+        } catch(NoSuchFileException e) {
+            return new WorldChunk(chunkColumn, chunkRow, chunkSize, null);
+        }
+        short[][] tiles = new short[layerCount][chunkSize * chunkSize];
+        try(channel) {
+            long size = CHUNK_HEADER_SIZE + (long)layerCount * chunkSize * chunkSize * 2L;
+            if(channel.size() != size) {
+                throw new IOException("Chunk file " + chunkColumn + ", " + chunkRow + " is the wrong size");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if(data.getInt() != CHUNK_MAGIC || data.getInt() != VERSION || data.getInt() != chunkColumn || data.getInt() != chunkRow) {
+                throw new IOException("Chunk file " + chunkColumn + ", " + chunkRow + " does not hold the chunk");
+            }
+            ShortBuffer ids = data.asShortBuffer();
+            for(short[] layer : tiles) {
+                ids.get(layer);
+            }
+        }
+        return new WorldChunk(chunkColumn, chunkRow, chunkSize, tiles);
+    }
+
+    /**
+     * Gets the path of the file a chunk is stored in
+     *
+     * @param chunkColumn the column of the chunk
+     * @param chunkRow the row of the chunk
+     * @return the path of the chunk file
+     */
+    public Path getChunkPath(int chunkColumn, int chunkRow) {
+        return directory.resolve("chunk_" + chunkColumn + "_" + chunkRow + ".dat");
+    }
+
+    /**
+     * Gets the number of tile columns
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of tile rows
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of tiles along each side of a chunk
+     *
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Gets the number of chunk columns
+     *
+     * @return the number of chunk columns
+     */
+    public int getChunkColumns() {
+        return chunkColumns;
+    }
+
+    /**
+     * Gets the number of chunk rows
+     *
+     * @return the number of chunk rows
+     */
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Gets the number of tile layers
+     *
+     * @return the number of layers
+     */
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    /**
+     * Gets the width of a tile in pixels
+     *
+     * @return the tile width
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Gets the height of a tile in pixels
+     *
+     * @return the tile height
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+}
@@ -0,0 +1,78 @@
+package com.foley.world;
+
+/**
+ * A square of tiles read from a world. A chunk is never changed once read, so it may be handed between threads freely
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public final class WorldChunk {
+    // Rough cost of a chunk object and its arrays besides the tiles themselves
+    private static final int OVERHEAD = 64;
+
+    private final int column;
+    private final int row;
+    private final int size;
+    private final short[][] tiles;
+
+    /**
+     * Creates a new chunk
+     *
+     * @param column the chunk column
+     * @param row the chunk row
+     * @param size the number of tiles along each side
+     * @param tiles the tile IDs of each layer, row by row, or null if the chunk holds no tiles
+     */
+    WorldChunk(int column, int row, int size, short[][] tiles) {
+        this.column = column;
+        this.row = row;
+        this.size = size;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Gets the chunk column
+     *
+     * @return the column of the chunk
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the chunk row
+     *
+     * @return the row of the chunk
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Determines if the chunk holds no tiles on any layer
+     *
+     * @return true if the chunk is empty
+     */
+    public boolean isEmpty() {
+        return tiles == null;
+    }
+
+    /**
+     * Gets a tile ID
+     *
+     * @param layer the index of the layer
+     * @param x the column of the tile within the chunk
+     * @param y the row of the tile within the chunk
+     * @return the tile ID, or 0 for no tile
+     */
+    public int getTile(int layer, int x, int y) {
+        return tiles == null ? 0 : tiles[layer][y * size + x] & 0xFFFF;
+    }
+
+    /**
+     * Gets the number of bytes the chunk takes up in memory, as counted against the memory budget
+     */
+    long getBytes() {
+        return tiles == null ? OVERHEAD : OVERHEAD + (long)tiles.length * tiles[0].length * 2L;
+    }
+}
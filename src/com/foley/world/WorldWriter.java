@@ -0,0 +1,147 @@
+package com.foley.world;
+
+import com.foley.graphic.TileMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a world directory that can be streamed by a ChunkStreamer. A world is created with its size, then written one
+ * chunk at a time, so worlds larger than memory can be generated piece by piece. Chunks that hold no tiles are not
+ * written
+ *
+ * @author Evan Foley
+ * @version 19 Oct 2026
+ */
+public class WorldWriter {
+    private final World world;
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new writer for a world whose header has been written
+     */
+    private WorldWriter(World world) {
+        this.world = world;
+        int size = world.getChunkSize();
+        buffer = ByteBuffer.allocate(World.CHUNK_HEADER_SIZE + world.getLayerCount() * size * size * 2);
+    }
+
+    /**
+     * Creates a world directory and writes its header. Any chunk files already in the directory are kept
+     *
+     * @param directory the path of the directory
+     * @param columns the number of tile columns
+     * @param rows the number of tile rows
+     * @param chunkSize the number of tiles along each side of a chunk
+     * @param layerCount the number of tile layers
+     * @param tileWidth the width of a tile in pixels
+     * @param tileHeight the height of a tile in pixels
+     * @return the writer
+     * @throws IOException if the directory or header cannot be written
+     */
+    public static WorldWriter create(Path directory, int columns, int rows, int chunkSize, int layerCount, int tileWidth, int tileHeight) throws IOException {
+        if(columns <= 0 || rows <= 0 || chunkSize <= 0 || layerCount <= 0 || tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("Every size of a world must be greater than 0");
+        }
+        Files.createDirectories(directory);
+        ByteBuffer header = ByteBuffer.allocate(World.HEADER_SIZE);
+        header.putInt(World.MAGIC).putInt(World.VERSION).putInt(columns).putInt(rows).putInt(chunkSize)
+                .putInt(layerCount).putInt(tileWidth).putInt(tileHeight);
+        Files.write(directory.resolve(World.HEADER), header.array());
+        return new WorldWriter(new World(directory, columns, rows, chunkSize, layerCount, tileWidth, tileHeight));
+    }
+
+    /**
+     * Splits every layer of a tile map into chunks and writes them as a world
+     *
+     * @param map the tile map
+     * @param directory the path of the directory
+     * @param chunkSize the number of tiles along each side of a chunk
+     * @return the number of chunk files written
+     * @throws IOException if the world cannot be written
+     */
+    public static int write(TileMap map, Path directory, int chunkSize) throws IOException {
+        int layers = map.getLayerCount();
+        WorldWriter writer = create(directory, map.getColumns(), map.getRows(), chunkSize, layers, map.getTileWidth(), map.getTileHeight());
+        short[][] tiles = new short[layers][chunkSize * chunkSize];
+        int written = 0;
+        for(int chunkRow = 0; chunkRow < writer.world.getChunkRows(); chunkRow++) {
+            for(int chunkColumn = 0; chunkColumn < writer.world.getChunkColumns(); chunkColumn++) {
+                for(int layer = 0; layer < layers; layer++) {
+                    for(int y = 0; y < chunkSize; y++) {
+                        for(int x = 0; x < chunkSize; x++) {
+                            int column = chunkColumn * chunkSize + x;
+                            int row = chunkRow * chunkSize + y;
+                            boolean inside = column < map.getColumns() && row < map.getRows();
+                            tiles[layer][y * chunkSize + x] = (short)(inside ? map.getTile(layer, column, row) : TileMap.EMPTY);
+                        }
+                    }
+                }
+                if(writer.writeChunk(chunkColumn, chunkRow, tiles)) {
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes a chunk, replacing any earlier file for it. A chunk without any tiles has its file removed instead
+     *
+     * @param chunkColumn the column of the chunk
+     * @param chunkRow the row of the chunk
+     * @param tiles the tile IDs of each layer, chunk size x chunk size row by row
+     * @return true if a file was written, false if the chunk was empty
+     * @throws IOException if the chunk file cannot be written
+     */
+    public boolean writeChunk(int chunkColumn, int chunkRow, short[][] tiles) throws IOException {
+        if(chunkColumn < 0 || chunkColumn >= world.getChunkColumns() || chunkRow < 0 || chunkRow >= world.getChunkRows()) {
+            throw new IndexOutOfBoundsException("Chunk (" + chunkColumn + ", " + chunkRow + ") is outside of the world");
+        }
+        int area = world.getChunkSize() * world.getChunkSize();
+        if(tiles.length != world.getLayerCount()) {
+            throw new IllegalArgumentException("A chunk must have " + world.getLayerCount() + " layers");
+        }
+        boolean isEmpty = true;
+        for(short[] layer : tiles) {
+            if(layer.length != area) {
+                throw new IllegalArgumentException("A chunk layer must have " + area + " tiles");
+            }
+            for(int i = 0; i < area && isEmpty; i++) {
+                isEmpty = layer[i] == TileMap.EMPTY;
+            }
+        }
+        Path path = world.getChunkPath(chunkColumn, chunkRow);
+        if(isEmpty) {
+            Files.deleteIfExists(path);
+            return false;
+        }
+
+        buffer.clear();
+        buffer.putInt(World.CHUNK_MAGIC).putInt(World.VERSION).putInt(chunkColumn).putInt(chunkRow);
+        for(short[] layer : tiles) {
+            buffer.asShortBuffer().put(layer);
+            buffer.position(buffer.position() + area * 2);
+        }
+        buffer.flip();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the world being written
+     *
+     * @return the world
+     */
+    public World getWorld() {
+        return world;
+    }
+}